@@ -43,6 +43,7 @@ dependencies {
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    androidTestImplementation("com.squareup.okhttp3:mockwebserver:4.12.0") // Local tile server for MapTileCacheTest
 
 
 
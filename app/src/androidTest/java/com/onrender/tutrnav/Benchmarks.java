@@ -0,0 +1,35 @@
+package com.onrender.tutrnav;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * Timing loop shared by the instrumented benchmarks. Timings are reported to logcat and
+ * never asserted: wall-clock numbers on an emulator or a busy device vary too much to
+ * fail a run on. Correctness belongs in the benchmarks' own assertions or in unit tests.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {}
+
+    /** Wall-clock time of one run of body. */
+    static long nanos(Runnable body) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        body.run();
+        return SystemClock.elapsedRealtimeNanos() - start;
+    }
+
+    /** Runs body warmups times untimed (so the JIT has seen it), then rounds times; mean per run. */
+    static long averageNanos(int warmups, int rounds, Runnable body) {
+        for (int i = 0; i < warmups; i++) body.run();
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < rounds; i++) body.run();
+        return (SystemClock.elapsedRealtimeNanos() - start) / Math.max(1, rounds);
+    }
+
+    static void report(String tag, String format, Object... args) {
+        Log.i(tag, String.format(Locale.ROOT, format, args));
+    }
+}
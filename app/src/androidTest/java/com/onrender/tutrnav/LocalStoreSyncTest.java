@@ -0,0 +1,195 @@
+package com.onrender.tutrnav;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * LocalStore round trips plus CacheSync against the Firestore emulator
+ * (firebase emulators:start --only firestore, reachable from the device as 10.0.2.2:8080).
+ *
+ * Runs on its own FirebaseApp so the app's default instance never points at the emulator.
+ * Cold-start read timings go to logcat under "LocalStoreSync".
+ */
+@RunWith(AndroidJUnit4.class)
+public class LocalStoreSyncTest {
+
+    private static final String TAG = "LocalStoreSync";
+
+    private Context context;
+    private LocalStore store;
+    private FirebaseFirestore emulator;
+    private String teacherId;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        store = new LocalStore(context, null); // In-memory
+
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance("emulator");
+        } catch (IllegalStateException e) {
+            app = FirebaseApp.initializeApp(context, FirebaseApp.getInstance().getOptions(), "emulator");
+        }
+        emulator = FirebaseFirestore.getInstance(app);
+        try {
+            emulator.useEmulator("10.0.2.2", 8080);
+        } catch (IllegalStateException alreadyConfigured) {
+            // Earlier test in this process already did it
+        }
+        teacherId = "teacher-" + UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void storeRoundTripsModels() {
+        TuitionModel t = tuition("t1", "Algebra");
+        t.setTags(Arrays.asList("Maths", "Grade 9"));
+        store.putTuitions(Arrays.asList(t));
+
+        List<TuitionModel> cached = store.tuitionsForTeacher(teacherId);
+        assertEquals(1, cached.size());
+        assertEquals("Algebra", cached.get(0).getTitle());
+        assertEquals(Arrays.asList("Maths", "Grade 9"), cached.get(0).getTags());
+        assertEquals(12.5, cached.get(0).getLatitude(), 0);
+
+        EnrollmentModel e = new EnrollmentModel("s1", "Student", "", teacherId, "t1", "Algebra");
+        e.setEnrollmentId("e1");
+        e.setStatus("approved");
+        store.replaceStudentEnrollments("s1", "approved", Arrays.asList(e));
+        assertEquals(1, store.enrollmentsForStudent("s1", "approved").size());
+
+        // A later complete result without it means it was deleted upstream
+        store.replaceStudentEnrollments("s1", "approved", new ArrayList<>());
+        assertTrue(store.enrollmentsForStudent("s1", "approved").isEmpty());
+    }
+
+    @Test
+    public void privateMessagesStayWithTheirStudent() {
+        store.ensureOwner("s1");
+        store.putMessages(Arrays.asList(
+                message("class", "t1", null, true),
+                message("mine", "t1", "s1", false),
+                message("theirs", "t1", "s2", false)));
+
+        List<String> ids = new ArrayList<>();
+        for (MessageModel m : store.messagesForTuitions(Arrays.asList("t1"), "s1", 10)) ids.add(m.getMessageId());
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains("class"));
+        assertTrue(ids.contains("mine"));
+
+        // Another account signing in starts from an empty mirror, cursors included
+        store.setCursor("messages/student/s1", 42);
+        store.ensureOwner("s2");
+        assertTrue(store.messagesForTuitions(Arrays.asList("t1"), "s2", 10).isEmpty());
+        assertEquals(-1, store.getCursor("messages/student/s1"));
+
+        // Same owner again: nothing is wiped
+        store.putMessages(Arrays.asList(message("class", "t1", null, true)));
+        store.ensureOwner("s2");
+        assertEquals(1, store.messagesForTuitions(Arrays.asList("t1"), "s2", 10).size());
+    }
+
+    @Test
+    public void syncPullsOnlyDocumentsPastTheCursor() throws Exception {
+        CacheSync sync = new CacheSync(emulator, store);
+        Query scope = emulator.collection("tuitions").whereEqualTo("teacherId", teacherId);
+
+        write("a", "First");
+        write("b", "Second");
+        int seeded = sync.pull("test/" + teacherId, scope, scope, CacheSync.UPDATED_AT,
+                snapshot -> store.putTuitions(SnapshotMapping.mapAll(snapshot, ModelMappers::toTuition)));
+        assertEquals(2, seeded);
+        assertEquals(2, store.tuitionsForTeacher(teacherId).size());
+
+        // Nothing changed: the cursor query comes back empty
+        assertEquals(0, sync.pull("test/" + teacherId, scope, scope, CacheSync.UPDATED_AT,
+                snapshot -> store.putTuitions(SnapshotMapping.mapAll(snapshot, ModelMappers::toTuition))));
+
+        write("a", "First (edited)");
+        write("c", "Third");
+        int pulled = sync.pull("test/" + teacherId, scope, scope, CacheSync.UPDATED_AT,
+                snapshot -> store.putTuitions(SnapshotMapping.mapAll(snapshot, ModelMappers::toTuition)));
+        assertEquals(2, pulled);
+
+        Map<String, String> titles = new HashMap<>();
+        for (TuitionModel t : store.tuitionsForTeacher(teacherId)) titles.put(t.getTuitionId(), t.getTitle());
+        assertEquals("First (edited)", titles.get("a"));
+        assertEquals("Third", titles.get("c"));
+        assertEquals(3, titles.size());
+    }
+
+    @Test
+    public void benchmarkColdStartRead() {
+        List<TuitionModel> tuitions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) tuitions.add(tuition("t" + i, "Class " + i));
+        store.putTuitions(tuitions);
+
+        store.topRankedTuitions(10); // Opens the database
+        long start = SystemClock.elapsedRealtimeNanos();
+        List<TuitionModel> discover = store.topRankedTuitions(10);
+        List<TuitionModel> mine = store.tuitionsForTeacher(teacherId);
+        long micros = (SystemClock.elapsedRealtimeNanos() - start) / 1000;
+
+        assertEquals(10, discover.size());
+        assertEquals(500, mine.size());
+        Log.i(TAG, "discover (10) + teacher (500) read: " + micros + " us");
+    }
+
+    private TuitionModel tuition(String id, String title) {
+        TuitionModel t = new TuitionModel();
+        t.setTuitionId(id);
+        t.setTeacherId(teacherId);
+        t.setTitle(title);
+        t.setLatitude(12.5);
+        t.setLongitude(77.5);
+        return t;
+    }
+
+    private static MessageModel message(String id, String tuitionId, String studentId, boolean broadcast) {
+        MessageModel m = new MessageModel();
+        m.setMessageId(id);
+        m.setTuitionId(tuitionId);
+        m.setStudentId(studentId);
+        m.setBroadcast(broadcast);
+        m.setText(id);
+        return m;
+    }
+
+    private void write(String id, String title) throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("tuitionId", id);
+        data.put("teacherId", teacherId);
+        data.put("title", title);
+        data.put(CacheSync.UPDATED_AT, FieldValue.serverTimestamp());
+        Tasks.await(emulator.collection("tuitions").document(teacherId + "-" + id).set(data));
+    }
+}
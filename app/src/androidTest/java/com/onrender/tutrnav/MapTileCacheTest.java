@@ -0,0 +1,149 @@
+package com.onrender.tutrnav;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osmdroid.config.Configuration;
+import org.osmdroid.tileprovider.cachemanager.CacheManager;
+import org.osmdroid.tileprovider.modules.SqlTileWriter;
+import org.osmdroid.tileprovider.tilesource.XYTileSource;
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.util.MapTileIndex;
+import org.osmdroid.views.MapView;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Seeds the tile archive from a local stand-in for the CARTO servers, then checks which
+ * tiles were fetched and that reading one back doesn't touch the network.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MapTileCacheTest {
+
+    private static final GeoPoint HOME = new GeoPoint(12.9716, 77.5946);
+
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+    private MockWebServer server;
+    private File tileCache;
+    private XYTileSource source;
+    private MapView map;
+
+    @Before
+    public void setUp() throws Exception {
+        Context ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        tileCache = new File(ctx.getCacheDir(), "tile-cache-test");
+        deleteRecursively(tileCache);
+        Configuration.getInstance().setOsmdroidTileCache(tileCache);
+        Configuration.getInstance().setUserAgentValue(ctx.getPackageName());
+        MapTileCache.configure();
+
+        Bitmap tile = Bitmap.createBitmap(256, 256, Bitmap.Config.ARGB_8888);
+        tile.eraseColor(Color.WHITE);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        tile.compress(Bitmap.CompressFormat.PNG, 100, png);
+        byte[] body = png.toByteArray();
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                requested.add(request.getPath());
+                return new MockResponse().setHeader("Content-Type", "image/png").setBody(new Buffer().write(body));
+            }
+        });
+        server.start();
+
+        source = MapTileCache.createCartoLightNoLabels(new String[] { server.url("/").toString() }, null);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            map = new MapView(ctx);
+            map.setTileSource(source);
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> map.onDetach());
+        server.shutdown();
+        deleteRecursively(tileCache);
+    }
+
+    @Test
+    public void seedsExactlyTheHomeAreaAndServesItFromDisk() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        int[] failures = { -1 };
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                assertNotNull(MapTileCache.seed(map, HOME, new CacheManager.CacheManagerCallback() {
+                    @Override public void onTaskComplete() { failures[0] = 0; done.countDown(); }
+                    @Override public void onTaskFailed(int errors) { failures[0] = errors; done.countDown(); }
+                    @Override public void updateProgress(int progress, int currentZoomLevel, int zoomMin, int zoomMax) {}
+                    @Override public void downloadStarted() {}
+                    @Override public void setPossibleTilesInArea(int total) {}
+                })));
+        assertTrue("Seeding timed out", done.await(2, TimeUnit.MINUTES));
+        assertEquals(0, failures[0]);
+
+        // Every tile covering ~3km around home at zoom 12-17, and nothing else
+        Set<String> expected = new HashSet<>();
+        for (long index : CacheManager.getTilesCoverage(MapTileCache.seedArea(HOME),
+                MapTileCache.SEED_MIN_ZOOM, MapTileCache.SEED_MAX_ZOOM)) {
+            expected.add("/" + MapTileIndex.getZoom(index) + "/" + MapTileIndex.getX(index)
+                    + "/" + MapTileIndex.getY(index) + ".png");
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, requested);
+
+        // A second read of a seeded tile comes out of the archive, not the server
+        int requestsAfterSeed = server.getRequestCount();
+        long homeTile = MapTileIndex.getTileIndex(MapTileCache.SEED_MAX_ZOOM,
+                tileX(HOME.getLongitude(), MapTileCache.SEED_MAX_ZOOM),
+                tileY(HOME.getLatitude(), MapTileCache.SEED_MAX_ZOOM));
+        SqlTileWriter archive = new SqlTileWriter();
+        try {
+            assertTrue(archive.exists(source, homeTile));
+            assertNotNull(archive.loadTile(source, homeTile));
+        } finally {
+            archive.onDetach();
+        }
+        assertEquals(requestsAfterSeed, server.getRequestCount());
+    }
+
+    // Slippy-map tile numbers (what the tile URLs use)
+    private static int tileX(double lng, int zoom) {
+        return (int) Math.floor((lng + 180) / 360 * (1 << zoom));
+    }
+
+    private static int tileY(double lat, int zoom) {
+        double rad = Math.toRadians(lat);
+        return (int) Math.floor((1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2 * (1 << zoom));
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) for (File child : children) deleteRecursively(child);
+        file.delete();
+    }
+}
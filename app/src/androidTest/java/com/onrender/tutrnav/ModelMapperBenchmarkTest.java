@@ -0,0 +1,178 @@
+package com.onrender.tutrnav;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Source;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Per-document cost of doc.toObject(...) versus the hand-written ModelMappers, both run on
+ * the same real DocumentSnapshots. Timings go to logcat under "MapperBench".
+ *
+ * Runs on its own offline FirebaseApp: documents are written to its local cache only and
+ * read back with Source.CACHE, and the cache is cleared afterwards, so nothing ever syncs.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ModelMapperBenchmarkTest {
+
+    private static final String TAG = "MapperBench";
+    private static final int DOCS = 500;
+    private static final int ROUNDS = 20;
+
+    private interface DataFactory {
+        Map<String, Object> create(int i);
+    }
+
+    private interface MapFn {
+        Object map(DocumentSnapshot doc);
+    }
+
+    private FirebaseApp app;
+    private FirebaseFirestore db;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        try {
+            app = FirebaseApp.getInstance("mapperBench");
+        } catch (IllegalStateException e) {
+            app = FirebaseApp.initializeApp(context, FirebaseApp.getInstance().getOptions(), "mapperBench");
+        }
+        db = FirebaseFirestore.getInstance(app);
+        Tasks.await(db.disableNetwork());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        // Drops the pending writes with the cache, before the network could ever come back
+        Tasks.await(db.terminate());
+        Tasks.await(db.clearPersistence());
+        app.delete();
+    }
+
+    @Test
+    public void handMappersAgreeWithToObject() throws Exception {
+        DocumentSnapshot doc = snapshots("tuitions", ModelMapperBenchmarkTest::tuitionData, 1).get(0);
+        TuitionModel reflected = doc.toObject(TuitionModel.class);
+        TuitionModel mapped = ModelMappers.toTuition(doc);
+        assertEquals(reflected.getTitle(), mapped.getTitle());
+        assertEquals(reflected.getMaxStudents(), mapped.getMaxStudents());
+        assertEquals(reflected.getLatitude(), mapped.getLatitude(), 0);
+        assertEquals(reflected.getTags(), mapped.getTags());
+
+        DocumentSnapshot enrollment = snapshots("enrollments", ModelMapperBenchmarkTest::enrollmentData, 1).get(0);
+        EnrollmentModel e = ModelMappers.toEnrollment(enrollment);
+        assertEquals("student0", e.getStudentId());
+        assertEquals(enrollment.getTimestamp("timestamp"), e.getTimestamp());
+        assertEquals(enrollment.toObject(EnrollmentModel.class).getStudentName(), e.getStudentName());
+    }
+
+    @Test
+    public void benchmarkPerDocumentCost() throws Exception {
+        report("TuitionModel", snapshots("tuitions", ModelMapperBenchmarkTest::tuitionData, DOCS),
+                d -> d.toObject(TuitionModel.class), ModelMappers::toTuition);
+        report("EnrollmentModel", snapshots("enrollments", ModelMapperBenchmarkTest::enrollmentData, DOCS),
+                d -> d.toObject(EnrollmentModel.class), ModelMappers::toEnrollment);
+        report("MessageModel", snapshots("messages", ModelMapperBenchmarkTest::messageData, DOCS),
+                d -> d.toObject(MessageModel.class), ModelMappers::toMessage);
+    }
+
+    // Writes count documents to the offline cache and reads them back as real snapshots.
+    // The writes are never acknowledged while offline, so their tasks are not awaited.
+    private List<DocumentSnapshot> snapshots(String collection, DataFactory factory, int count) throws Exception {
+        CollectionReference ref = db.collection(collection);
+        for (int i = 0; i < count; i++) ref.document("d" + i).set(factory.create(i));
+        List<DocumentSnapshot> docs = Tasks.await(ref.get(Source.CACHE)).getDocuments();
+        assertEquals(count, docs.size());
+        return docs;
+    }
+
+    private void report(String model, List<DocumentSnapshot> docs, MapFn reflective, MapFn handWritten) {
+        // Warm up both paths (toObject also caches its per-class bean metadata)
+        time(docs, reflective, 3);
+        time(docs, handWritten, 3);
+
+        double reflectiveUs = time(docs, reflective, ROUNDS);
+        double handUs = time(docs, handWritten, ROUNDS);
+        Benchmarks.report(TAG, "%s: toObject %.2f us/doc, hand-written %.2f us/doc",
+                model, reflectiveUs, handUs);
+    }
+
+    // Microseconds per document
+    private static double time(List<DocumentSnapshot> docs, MapFn fn, int rounds) {
+        int[] mapped = { 0 };
+        long perRoundNs = Benchmarks.averageNanos(0, rounds, () -> {
+            for (DocumentSnapshot d : docs) {
+                if (fn.map(d) != null) mapped[0]++;
+            }
+        });
+        assertEquals(docs.size() * rounds, mapped[0]);
+        return perRoundNs / 1000.0 / docs.size();
+    }
+
+    // --- Documents shaped like the ones the app writes ---
+
+    private static Map<String, Object> tuitionData(int i) {
+        Map<String, Object> d = new HashMap<>();
+        d.put("tuitionId", "t" + i);
+        d.put("teacherId", "teacher" + (i % 20));
+        d.put("title", "Class " + i);
+        d.put("time", "04:00 PM - 06:00 PM");
+        d.put("fee", "1500");
+        d.put("maxStudents", 20L);
+        d.put("description", "Maths and science for classes 9 and 10");
+        d.put("bannerUrl", "");
+        d.put("latitude", 22.57 + i * 1e-4);
+        d.put("longitude", 88.36 + i * 1e-4);
+        d.put("geohash", "tunf7xyz12");
+        d.put("teacherName", "Teacher " + i);
+        d.put("teacherPhoto", "");
+        d.put("tags", Arrays.asList("Maths", "Science", "Class 10"));
+        return d;
+    }
+
+    private static Map<String, Object> enrollmentData(int i) {
+        Map<String, Object> d = new HashMap<>();
+        d.put("enrollmentId", "e" + i);
+        d.put("studentId", "student" + i);
+        d.put("studentName", "Student " + i);
+        d.put("studentPhoto", "");
+        d.put("teacherId", "teacher" + (i % 20));
+        d.put("tuitionId", "t" + (i % 50));
+        d.put("tuitionTitle", "Class " + (i % 50));
+        d.put("status", "approved");
+        d.put("timestamp", Timestamp.now());
+        return d;
+    }
+
+    private static Map<String, Object> messageData(int i) {
+        Map<String, Object> d = new HashMap<>();
+        d.put("text", "Class is rescheduled to 5 PM today");
+        d.put("senderId", "teacher" + (i % 20));
+        d.put("senderName", "Teacher");
+        d.put("tuitionId", "t" + (i % 50));
+        d.put("type", "BROADCAST");
+        d.put("timestamp", Timestamp.now());
+        return d;
+    }
+}
@@ -0,0 +1,73 @@
+package com.onrender.tutrnav;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Nearest-k for the map list: the bounded heap versus the old sort-everything-and-take-the-head.
+ * Timings and their ratio go to logcat under "NearestKBench"; correctness is checked in
+ * NearestKSelectorTest, not here.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NearestKSelectorBenchmarkTest {
+
+    private static final String TAG = "NearestKBench";
+    private static final double HOME_LAT = 22.57, HOME_LNG = 88.36;
+
+    @Test
+    public void compareHeapWithFullSort() {
+        int k = 30, warmups = 5, rounds = 50;
+        for (int n : new int[] { 500, 5000, 50000 }) {
+            List<TuitionModel> all = randomCity(n, n);
+            long[] kept = { 0 };
+            long sortNs = Benchmarks.averageNanos(warmups, rounds, () -> kept[0] += sortAndTake(all, k).size());
+            long heapNs = Benchmarks.averageNanos(warmups, rounds, () -> kept[0] += heapTake(all, k).size());
+
+            Benchmarks.report(TAG, "n=%d k=%d: Collections.sort %.3f ms, bounded heap %.3f ms (%.1fx)",
+                    n, k, sortNs / 1e6, heapNs / 1e6, (double) sortNs / Math.max(1, heapNs));
+            assertEquals(2L * (warmups + rounds) * k, kept[0]);
+        }
+    }
+
+    private static List<TuitionModel> randomCity(long seed, int n) {
+        Random rnd = new Random(seed);
+        List<TuitionModel> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            TuitionModel t = new TuitionModel();
+            t.setTuitionId("t" + i);
+            t.setLatitude(HOME_LAT + (rnd.nextDouble() - 0.5) * 0.4);
+            t.setLongitude(HOME_LNG + (rnd.nextDouble() - 0.5) * 0.4);
+            list.add(t);
+        }
+        return list;
+    }
+
+    private static List<TuitionModel> heapTake(List<TuitionModel> all, int k) {
+        NearestKSelector selector = new NearestKSelector(Math.min(k, all.size()));
+        for (int i = 0; i < all.size(); i++) {
+            TuitionModel t = all.get(i);
+            selector.offer(i, GeoMath.distanceMeters(HOME_LAT, HOME_LNG, t.getLatitude(), t.getLongitude()));
+        }
+        List<TuitionModel> out = new ArrayList<>();
+        for (int i : selector.drainAscending()) out.add(all.get(i));
+        return out;
+    }
+
+    // The path the map used before: comparator-driven sort, then take the head
+    private static List<TuitionModel> sortAndTake(List<TuitionModel> all, int k) {
+        List<TuitionModel> sorted = new ArrayList<>(all);
+        Collections.sort(sorted, (a, b) -> Double.compare(
+                GeoMath.distanceMeters(HOME_LAT, HOME_LNG, a.getLatitude(), a.getLongitude()),
+                GeoMath.distanceMeters(HOME_LAT, HOME_LNG, b.getLatitude(), b.getLongitude())));
+        return new ArrayList<>(sorted.subList(0, Math.min(k, sorted.size())));
+    }
+}
@@ -0,0 +1,60 @@
+package com.onrender.tutrnav;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Typing into the schedule search over a 1,000-student roster: the indexed search versus
+ * the old lowercase-and-contains scan. Timings go to logcat under "StudentSearchBench".
+ */
+@RunWith(AndroidJUnit4.class)
+public class StudentSearchBenchmarkTest {
+
+    private static final String TAG = "StudentSearchBench";
+    private static final int STUDENTS = 1000;
+
+    private static final String[] FIRST = { "Aarav", "Zoë", "Łucja", "José", "Priya", "Søren", "Mia", "Ravi", "Anaïs", "Kabir" };
+    private static final String[] LAST = { "Sharma", "Müller", "García", "Nguyễn", "O'Brien", "Kowalski", "Iyer", "Dubois" };
+
+    @Test
+    public void compareKeystrokeCost() {
+        Random rnd = new Random(5);
+        List<EnrollmentModel> roster = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            EnrollmentModel e = new EnrollmentModel();
+            e.setStudentName(FIRST[rnd.nextInt(FIRST.length)] + " " + LAST[rnd.nextInt(LAST.length)] + " " + i);
+            roster.add(e);
+        }
+
+        StudentSearchIndex[] built = new StudentSearchIndex[1];
+        long buildNs = Benchmarks.nanos(() -> built[0] = new StudentSearchIndex(roster));
+        StudentSearchIndex index = built[0];
+
+        String typed = "jose garcia 4";
+        long worstIndexedNs = 0, worstScanNs = 0;
+        for (int len = 1; len <= typed.length(); len++) {
+            String q = typed.substring(0, len);
+
+            worstIndexedNs = Math.max(worstIndexedNs, Benchmarks.nanos(() -> index.search(q)));
+            worstScanNs = Math.max(worstScanNs, Benchmarks.nanos(() -> {
+                List<EnrollmentModel> scanned = new ArrayList<>();
+                for (EnrollmentModel m : roster) if (m.getStudentName().toLowerCase(Locale.ROOT).contains(q)) scanned.add(m);
+            }));
+        }
+        // The old scan never matched "José" from "jose"
+        assertFalse(index.search("jose garcia").isEmpty());
+
+        // A keystroke has a 16 ms frame; compare against that by eye, not by assertion
+        Benchmarks.report(TAG, "%d students: build %.2f ms (off the main thread), worst keystroke indexed %.3f ms, scan %.3f ms",
+                STUDENTS, buildNs / 1e6, worstIndexedNs / 1e6, worstScanNs / 1e6);
+    }
+}
@@ -0,0 +1,108 @@
+package com.onrender.tutrnav;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorMatrixColorFilter;
+import android.graphics.Paint;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the two ways of giving the map its neon roads: a ColorMatrixColorFilter on
+ * every tile draw versus drawing tiles that were filtered once at decode time.
+ * Timings go to logcat under "TileFilterBench".
+ */
+@RunWith(AndroidJUnit4.class)
+public class TileFilterBenchmarkTest {
+
+    private static final String TAG = "TileFilterBench";
+    private static final int TILE = 256;
+    // Roughly one fling: ~60 frames with ~20 tiles visible
+    private static final int DRAWS = 1200;
+
+    private static final float[] NEON_ROAD_MATRIX = {
+            1f, 0f, 0f,   0f, 0,
+            0f, 1f, 0f,   0f, 0,
+            0f, 0f, 1.8f, 0f, 0,
+            0f, 0f, 0f,   1f, 0
+    };
+
+    private Bitmap tile;
+    private Bitmap frame;
+
+    @Before
+    public void setUp() {
+        // Stand-in for a light_nolabels tile: white land crossed by grey roads
+        tile = Bitmap.createBitmap(TILE, TILE, Bitmap.Config.ARGB_8888);
+        tile.eraseColor(Color.rgb(250, 250, 248));
+        Paint road = new Paint();
+        road.setColor(Color.rgb(200, 200, 200));
+        road.setStrokeWidth(6f);
+        Canvas c = new Canvas(tile);
+        for (int i = 0; i < TILE; i += 32) {
+            c.drawLine(i, 0, TILE - i, TILE, road);
+            c.drawLine(0, i, TILE, i, road);
+        }
+        frame = Bitmap.createBitmap(TILE * 4, TILE * 5, Bitmap.Config.ARGB_8888);
+    }
+
+    @Test
+    public void prefilteredMatchesColorFilter() {
+        Bitmap expected = Bitmap.createBitmap(TILE, TILE, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint();
+        paint.setColorFilter(new ColorMatrixColorFilter(NEON_ROAD_MATRIX));
+        new Canvas(expected).drawBitmap(tile, 0, 0, paint);
+
+        Bitmap actual = prefilter(tile);
+        for (int y = 0; y < TILE; y += 7) {
+            for (int x = 0; x < TILE; x += 7) {
+                int e = expected.getPixel(x, y), a = actual.getPixel(x, y);
+                assertEquals(Color.red(e), Color.red(a), 1);
+                assertEquals(Color.green(e), Color.green(a), 1);
+                assertEquals(Color.blue(e), Color.blue(a), 1);
+            }
+        }
+    }
+
+    @Test
+    public void compareDrawModes() {
+        Paint filtered = new Paint();
+        filtered.setColorFilter(new ColorMatrixColorFilter(NEON_ROAD_MATRIX));
+        long perFrameNs = timeDraws(tile, filtered);
+
+        Bitmap[] baked = new Bitmap[1];
+        long decodeNs = Benchmarks.nanos(() -> baked[0] = prefilter(tile));
+        long prefilteredNs = timeDraws(baked[0], new Paint());
+
+        Benchmarks.report(TAG, "%d draws: color filter %.2f ms, prefiltered %.2f ms (+%.2f ms one-off per tile)",
+                DRAWS, perFrameNs / 1e6, prefilteredNs / 1e6, decodeNs / 1e6);
+    }
+
+    // Total for DRAWS draws, after warming up so both modes see the same JIT state
+    private long timeDraws(Bitmap source, Paint paint) {
+        Canvas canvas = new Canvas(frame);
+        int cols = frame.getWidth() / TILE, rows = frame.getHeight() / TILE;
+        int[] drawn = { 0 };
+        return DRAWS * Benchmarks.averageNanos(50, DRAWS, () -> {
+            int cell = drawn[0]++ % (cols * rows);
+            canvas.drawBitmap(source, (cell % cols) * TILE, (cell / cols) * TILE, paint);
+        });
+    }
+
+    // Same transform PrefilteredTileSource applies when a tile is decoded
+    private static Bitmap prefilter(Bitmap source) {
+        Bitmap copy = source.copy(Bitmap.Config.ARGB_8888, true);
+        int[] pixels = new int[TILE * TILE];
+        copy.getPixels(pixels, 0, TILE, 0, 0, TILE, TILE);
+        TileColorMatrix.apply(pixels, pixels.length, NEON_ROAD_MATRIX);
+        copy.setPixels(pixels, 0, TILE, 0, 0, TILE, TILE);
+        return copy;
+    }
+}
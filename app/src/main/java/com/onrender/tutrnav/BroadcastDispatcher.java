@@ -0,0 +1,153 @@
+package com.onrender.tutrnav;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes many new documents as WriteBatch chunks instead of one add() per document.
+ *
+ * Each chunk commits atomically. At most {@link #MAX_IN_FLIGHT} chunks are committing at
+ * once, and a failed chunk is retried with exponential backoff. Document ids are assigned
+ * before the first attempt, so a retry of a commit that did land (but whose response was
+ * lost) rewrites the same documents instead of duplicating them.
+ *
+ * Progress is reported on the main thread and counts only committed documents. Firestore
+ * applies a batch locally as soon as it's committed and keeps it queued while offline, so
+ * {@link Listener#onQueued} comes long before the server has acknowledged anything.
+ */
+public final class BroadcastDispatcher {
+
+    private static final String TAG = "BroadcastDispatcher";
+
+    /** Firestore's limit on writes in one batch. */
+    public static final int MAX_BATCH_WRITES = 500;
+
+    static final int MAX_IN_FLIGHT = 3;
+    static final int MAX_ATTEMPTS = 4;
+    private static final long FIRST_RETRY_DELAY_MS = 1000;
+
+    public interface Listener {
+        void onProgress(int written, int total);
+
+        /**
+         * Every chunk has been handed to Firestore's local write queue. Chunks beyond the
+         * first {@link BroadcastDispatcher#MAX_IN_FLIGHT} are only handed over as earlier
+         * ones settle, so for very large sends this still waits on the server.
+         */
+        default void onQueued(int total) {}
+
+        /** Every chunk has committed or used up its retries. */
+        void onFinished(int written, int failed);
+    }
+
+    private final FirebaseFirestore db;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public BroadcastDispatcher(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /** Creates one document in collection per entry of documents. Call on the main thread. */
+    public void dispatch(CollectionReference collection, List<Map<String, Object>> documents, Listener listener) {
+        new Run(collection, documents, listener).start();
+    }
+
+    private static class Chunk {
+        final List<DocumentReference> refs = new ArrayList<>();
+        final List<Map<String, Object>> data = new ArrayList<>();
+        int attempts = 0;
+    }
+
+    /** State of one dispatch; main thread only. */
+    private class Run {
+        private final Listener listener;
+        private final Deque<Chunk> pending = new ArrayDeque<>();
+        private final int total;
+        private int inFlight = 0;
+        private int written = 0;
+        private int failed = 0;
+        private boolean queued = false;
+
+        Run(CollectionReference collection, List<Map<String, Object>> documents, Listener listener) {
+            this.listener = listener;
+            this.total = documents.size();
+            for (List<Map<String, Object>> part : KWayMerge.chunk(documents, MAX_BATCH_WRITES)) {
+                Chunk chunk = new Chunk();
+                for (Map<String, Object> doc : part) {
+                    chunk.refs.add(collection.document());
+                    chunk.data.add(doc);
+                }
+                pending.add(chunk);
+            }
+        }
+
+        void start() {
+            listener.onProgress(0, total);
+            if (total == 0) {
+                listener.onQueued(0);
+                listener.onFinished(0, 0);
+                return;
+            }
+            pump();
+        }
+
+        private void pump() {
+            while (inFlight < MAX_IN_FLIGHT && !pending.isEmpty()) {
+                inFlight++;
+                commit(pending.poll());
+            }
+            if (pending.isEmpty() && !queued) {
+                queued = true;
+                listener.onQueued(total);
+            }
+        }
+
+        // The chunk holds its in-flight slot until it finally succeeds or fails, so a chunk
+        // backing off also throttles the ones behind it
+        private void commit(Chunk chunk) {
+            chunk.attempts++;
+            WriteBatch batch = db.batch();
+            for (int i = 0; i < chunk.refs.size(); i++) batch.set(chunk.refs.get(i), chunk.data.get(i));
+
+            batch.commit()
+                    .addOnSuccessListener(v -> {
+                        inFlight--;
+                        written += chunk.refs.size();
+                        listener.onProgress(written, total);
+                        settleOrPump();
+                    })
+                    .addOnFailureListener(e -> {
+                        if (chunk.attempts < MAX_ATTEMPTS) {
+                            long delay = FIRST_RETRY_DELAY_MS << (chunk.attempts - 1);
+                            Log.w(TAG, "Chunk failed (attempt " + chunk.attempts + "), retrying in " + delay + " ms", e);
+                            mainHandler.postDelayed(() -> commit(chunk), delay);
+                        } else {
+                            Log.w(TAG, "Chunk of " + chunk.refs.size() + " failed for good", e);
+                            inFlight--;
+                            failed += chunk.refs.size();
+                            settleOrPump();
+                        }
+                    });
+        }
+
+        private void settleOrPump() {
+            if (pending.isEmpty() && inFlight == 0) {
+                listener.onFinished(written, failed);
+            } else {
+                pump();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.onrender.tutrnav;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Background reconciliation of {@link LocalStore} with Firestore.
+ *
+ * Each synced query ("scope") keeps a cursor: the highest updated-at value already
+ * pulled. A sync only asks Firestore for documents past that cursor, a page at a time,
+ * so a warm cache costs one small read per scope. The first sync of a scope has no
+ * cursor and seeds it with a plain read, which also picks up documents written before
+ * updatedAt existed.
+ *
+ * A cursor can't see deletions; those reach the cache through the live listeners,
+ * which write their complete results through.
+ *
+ * Only what this device shows is mirrored: the top of the discover feed, re-read each
+ * sync, and the classes the signed-in student is enrolled in. Other tuitions reach the
+ * cache only when a screen has loaded them.
+ */
+public final class CacheSync {
+
+    private static final String TAG = "CacheSync";
+
+    /** Server timestamp set on every tuition and enrollment write. */
+    public static final String UPDATED_AT = "updatedAt";
+
+    static final int PAGE_SIZE = 200;
+    private static final int DISCOVER_SEED = 50;
+    private static final int MESSAGES_SEED = 100;
+
+    // Sync blocks on network reads, so it gets its own thread instead of the mapping thread
+    private static final Executor SYNC_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "cache-sync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final FirebaseFirestore db;
+    private final LocalStore store;
+
+    public CacheSync(FirebaseFirestore db, LocalStore store) {
+        this.db = db;
+        this.store = store;
+    }
+
+    /** Syncs the discover feed and, if someone is signed in, their classes and messages. */
+    public static void startForCurrentUser() {
+        String uid = FirebaseAuth.getInstance().getUid();
+        CacheSync sync = new CacheSync(FirebaseFirestore.getInstance(), LocalStore.get());
+        SYNC_EXECUTOR.execute(() -> {
+            try {
+                // Never sync into a mirror still holding another account's rows
+                sync.store.ensureOwner(uid);
+                sync.syncTuitions();
+                if (uid != null) sync.syncStudent(uid);
+            } catch (ExecutionException | InterruptedException | RuntimeException e) {
+                Log.w(TAG, "Sync stopped; the cache keeps what it has", e);
+            }
+        });
+    }
+
+    // ==========================================
+    //              SCOPES (blocking)
+    // ==========================================
+
+    // The discover feed's first page. Ranks change without touching updatedAt, so there is
+    // no cursor; it's one bounded read.
+    void syncTuitions() throws ExecutionException, InterruptedException {
+        QuerySnapshot snapshot = Tasks.await(db.collection("tuitions")
+                .orderBy(DiscoverFeed.RANK_FIELD, Query.Direction.DESCENDING).limit(DISCOVER_SEED).get());
+        store.putTuitions(SnapshotMapping.mapAll(snapshot, ModelMappers::toTuition));
+    }
+
+    void syncStudent(String uid) throws ExecutionException, InterruptedException {
+        Query enrollments = db.collection("enrollments").whereEqualTo("studentId", uid);
+        pull("enrollments/student/" + uid, enrollments, enrollments, UPDATED_AT,
+                snapshot -> store.putEnrollments(SnapshotMapping.mapAll(snapshot, ModelMappers::toEnrollment)));
+
+        // The student's own classes, whatever their status, in whereIn-sized chunks.
+        // Ids are sorted so a chunk, and so its cursor, stays the same between syncs.
+        Set<String> classIds = new TreeSet<>();
+        for (EnrollmentModel e : store.enrollmentsForStudent(uid)) {
+            if (e.getTuitionId() != null) classIds.add(e.getTuitionId());
+        }
+        for (List<String> chunk : KWayMerge.chunk(new ArrayList<>(classIds), ChunkedQuery.WHERE_IN_LIMIT)) {
+            Query classes = db.collection("tuitions").whereIn("tuitionId", chunk);
+            pull("tuitions/" + String.join(",", chunk), classes, classes, UPDATED_AT,
+                    snapshot -> store.putTuitions(SnapshotMapping.mapAll(snapshot, ModelMappers::toTuition)));
+        }
+
+        // Messages are never edited, so their own timestamp serves as the cursor.
+        // Same two streams as StudentMessages: each class's broadcasts, then this student's own.
+        for (EnrollmentModel e : store.enrollmentsForStudent(uid, "approved")) {
+            if (e.getTuitionId() == null) continue;
+            pullMessages("messages/tuition/" + e.getTuitionId(), db.collection("messages")
+                    .whereEqualTo(StudentMessages.FIELD_BROADCAST, true)
+                    .whereEqualTo("tuitionId", e.getTuitionId()));
+        }
+        pullMessages("messages/student/" + uid, db.collection("messages")
+                .whereEqualTo(StudentMessages.FIELD_STUDENT, uid));
+    }
+
+    private void pullMessages(String scope, Query messages) throws ExecutionException, InterruptedException {
+        pull(scope, messages, messages.orderBy("timestamp", Query.Direction.DESCENDING).limit(MESSAGES_SEED),
+                "timestamp", snapshot -> store.putMessages(SnapshotMapping.mapAll(snapshot, ModelMappers::toMessage)));
+    }
+
+    // ==========================================
+    //              CURSOR PULL
+    // ==========================================
+
+    /**
+     * Pulls base's documents changed since the scope's cursor into the store.
+     *
+     * @param seed the first, cursor-less read. Ordering it by cursorField would leave out
+     *             documents written before that field existed
+     * @return number of documents pulled
+     */
+    int pull(String scope, Query base, Query seed, String cursorField, Consumer<QuerySnapshot> write)
+            throws ExecutionException, InterruptedException {
+        long cursor = store.getCursor(scope);
+
+        if (cursor < 0) {
+            QuerySnapshot snapshot = Tasks.await(seed.get());
+            write.accept(snapshot);
+            store.setCursor(scope, Math.max(0, maxMicros(snapshot.getDocuments(), cursorField)));
+            return snapshot.size();
+        }
+
+        int pulled = 0;
+        long newest = cursor;
+        Query page = base.whereGreaterThan(cursorField, fromMicros(cursor))
+                .orderBy(cursorField).limit(PAGE_SIZE);
+        while (true) {
+            QuerySnapshot snapshot = Tasks.await(page.get());
+            if (snapshot.isEmpty()) break;
+            write.accept(snapshot);
+            pulled += snapshot.size();
+
+            List<DocumentSnapshot> docs = snapshot.getDocuments();
+            newest = Math.max(newest, maxMicros(docs, cursorField));
+            if (docs.size() < PAGE_SIZE) break;
+            // Continue after the last document, not the last value, so equal timestamps aren't skipped
+            page = base.whereGreaterThan(cursorField, fromMicros(cursor))
+                    .orderBy(cursorField).startAfter(docs.get(docs.size() - 1)).limit(PAGE_SIZE);
+        }
+        // Advance only after every page is stored, so an interrupted sync repeats rather than skips
+        if (newest > cursor) store.setCursor(scope, newest);
+        return pulled;
+    }
+
+    // Firestore keeps microseconds; a millisecond cursor would re-pull the newest document every time
+    private static long maxMicros(List<DocumentSnapshot> docs, String field) {
+        long max = -1;
+        for (DocumentSnapshot doc : docs) {
+            Timestamp ts = doc.getData() != null ? ModelMappers.timestamp(doc.getData(), field) : null;
+            if (ts != null) max = Math.max(max, ts.getSeconds() * 1_000_000L + ts.getNanoseconds() / 1000);
+        }
+        return max;
+    }
+
+    private static Timestamp fromMicros(long micros) {
+        return new Timestamp(micros / 1_000_000L, (int) (micros % 1_000_000L) * 1000);
+    }
+}
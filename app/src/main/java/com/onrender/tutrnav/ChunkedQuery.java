@@ -0,0 +1,140 @@
+package com.onrender.tutrnav;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Live whereIn query over any number of ids.
+ *
+ * Firestore caps whereIn at {@link #WHERE_IN_LIMIT} values, so the ids are split into
+ * chunks and every chunk gets its own listener, all running at once. Each chunk keeps
+ * its mapped results in query order, patched from the document changes (Firestore
+ * reports old/new positions), and the chunks are k-way merged into one ordered list
+ * whenever any of them changes.
+ */
+public final class ChunkedQuery {
+
+    public static final int WHERE_IN_LIMIT = 10;
+
+    public interface Listener<T> {
+        /** Called on the main thread with the merged results of every chunk. */
+        void onChanged(List<T> merged);
+
+        default void onError(FirebaseFirestoreException error) {}
+    }
+
+    private ChunkedQuery() {}
+
+    /**
+     * Listens to baseQuery.whereIn(field, chunk) for every chunk of ids.
+     *
+     * @param baseQuery query without the whereIn; its ordering must agree with order
+     * @param order the order each chunk's results already have (used for the merge)
+     * @return one registration that removes every chunk listener
+     */
+    public static <T> ListenerRegistration listen(Query baseQuery, String field, List<String> ids,
+                                                  SnapshotMapping.Mapper<T> mapper, Comparator<? super T> order,
+                                                  Listener<T> listener) {
+        List<List<String>> chunks = KWayMerge.chunk(ids, WHERE_IN_LIMIT);
+        Merger<T> merger = new Merger<>(chunks.size(), order, listener);
+        if (chunks.isEmpty()) {
+            merger.mainHandler.post(() -> listener.onChanged(new ArrayList<>())); // Nothing to query
+        }
+
+        List<ListenerRegistration> registrations = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            final int chunk = i;
+            registrations.add(baseQuery.whereIn(field, chunks.get(i))
+                    .addSnapshotListener(SnapshotMapping.EXECUTOR, (value, error) -> {
+                        if (error != null) {
+                            merger.fail(chunk, error);
+                            return;
+                        }
+                        if (value == null) return;
+                        merger.apply(chunk, value.getDocumentChanges(), mapper);
+                    }));
+        }
+
+        return () -> {
+            merger.cancelled = true;
+            for (ListenerRegistration r : registrations) r.remove();
+        };
+    }
+
+    /**
+     * Per-chunk state. Only touched on the mapping thread, which serialises every chunk's callbacks.
+     */
+    private static class Merger<T> {
+        private final List<List<T>> chunkResults = new ArrayList<>();
+        private final boolean[] loaded;
+        private int loadedCount = 0;
+        private final Comparator<? super T> order;
+        private final Listener<T> listener;
+        private final Handler mainHandler = new Handler(Looper.getMainLooper());
+        volatile boolean cancelled = false;
+
+        Merger(int chunks, Comparator<? super T> order, Listener<T> listener) {
+            for (int i = 0; i < chunks; i++) chunkResults.add(new ArrayList<>());
+            this.loaded = new boolean[chunks];
+            this.order = order;
+            this.listener = listener;
+        }
+
+        void apply(int chunk, List<DocumentChange> changes, SnapshotMapping.Mapper<T> mapper) {
+            // Entries stay aligned with the query's positions; a malformed document is kept as null
+            List<T> results = chunkResults.get(chunk);
+            for (DocumentChange change : changes) {
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    results.remove(change.getOldIndex());
+                    continue;
+                }
+                T item;
+                try {
+                    item = mapper.map(change.getDocument());
+                } catch (RuntimeException e) {
+                    item = null;
+                }
+                if (change.getType() == DocumentChange.Type.MODIFIED) {
+                    results.remove(change.getOldIndex());
+                }
+                results.add(change.getNewIndex(), item);
+            }
+            publish(chunk);
+        }
+
+        /**
+         * A failed listener is finished for good, so its chunk counts as answered with no
+         * results: the other chunks still publish, and the caller hears about the error.
+         */
+        void fail(int chunk, FirebaseFirestoreException error) {
+            chunkResults.get(chunk).clear();
+            mainHandler.post(() -> {
+                if (!cancelled) listener.onError(error);
+            });
+            publish(chunk);
+        }
+
+        private void publish(int chunk) {
+            if (!loaded[chunk]) {
+                loaded[chunk] = true;
+                loadedCount++;
+            }
+            // Publish once every chunk has answered, so the first list isn't a partial one
+            if (loadedCount < loaded.length) return;
+
+            List<T> merged = KWayMerge.merge(chunkResults, order);
+            mainHandler.post(() -> {
+                if (!cancelled) listener.onChanged(merged);
+            });
+        }
+    }
+}
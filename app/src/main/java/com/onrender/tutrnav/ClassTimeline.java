@@ -0,0 +1,222 @@
+package com.onrender.tutrnav;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A student's class sessions around today, indexed by time for the schedule filters.
+ *
+ * Every enrolled class's {@link WeeklySlot}s are expanded into concrete sessions from
+ * {@link #DAYS_BEHIND} days before today's midnight to {@link #DAYS_AHEAD} days after, so
+ * the past week and at least one full week ahead are always covered. The sessions are
+ * sorted by start and laid out as an implicit balanced tree over that array (the middle
+ * element is the root of each range), where every node also keeps the latest end in its
+ * subtree. "Which sessions overlap [from, to)" then only descends into subtrees that can
+ * still reach from, which answers live and past-week queries in O(log n + k); upcoming is
+ * a binary search on start. Built once per data change or per day, read on every tick.
+ */
+public final class ClassTimeline {
+
+    public static final long MINUTE_MS = 60_000L;
+    public static final long DAY_MS = 24 * 60 * MINUTE_MS;
+    public static final long WEEK_MS = 7 * DAY_MS;
+
+    static final int DAYS_BEHIND = 8;
+    static final int DAYS_AHEAD = 9;
+
+    public enum Status { LIVE, UPCOMING, DONE, UNSCHEDULED }
+
+    /** One occurrence of a class, or a class with no readable times (start and end -1). */
+    public static final class Session {
+        public final EnrollmentModel enrollment;
+        public final TuitionModel tuition; // Null until the class document has loaded
+        public final long startMillis;
+        public final long endMillis;
+
+        Session(EnrollmentModel enrollment, TuitionModel tuition, long startMillis, long endMillis) {
+            this.enrollment = enrollment;
+            this.tuition = tuition;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        /** Unique per occurrence, for diffing and stable ids. */
+        public String key() {
+            return enrollment.getEnrollmentId() + "@" + startMillis;
+        }
+
+        public boolean isScheduled() { return startMillis >= 0; }
+
+        public int durationMinutes() {
+            return isScheduled() ? (int) ((endMillis - startMillis) / MINUTE_MS) : 0;
+        }
+
+        public Status statusAt(long nowMillis) {
+            if (!isScheduled()) return Status.UNSCHEDULED;
+            if (nowMillis < startMillis) return Status.UPCOMING;
+            return nowMillis < endMillis ? Status.LIVE : Status.DONE;
+        }
+
+        @Override
+        public String toString() {
+            return "Session{" + key() + "-" + endMillis + '}';
+        }
+    }
+
+    private static final Comparator<Session> BY_START = (a, b) -> a.startMillis != b.startMillis
+            ? Long.compare(a.startMillis, b.startMillis) : Long.compare(a.endMillis, b.endMillis);
+
+    // Sorted by start; maxEnd[mid] covers the implicit subtree rooted at mid
+    private final Session[] sessions;
+    private final long[] starts;
+    private final long[] maxEnd;
+    private final List<Session> unscheduled;
+    private final int scheduledClasses;
+    private final long validUntil;
+
+    private ClassTimeline(Session[] sessions, List<Session> unscheduled, int scheduledClasses, long validUntil) {
+        this.sessions = sessions;
+        this.unscheduled = unscheduled;
+        this.scheduledClasses = scheduledClasses;
+        this.validUntil = validUntil;
+        starts = new long[sessions.length];
+        for (int i = 0; i < sessions.length; i++) starts[i] = sessions[i].startMillis;
+        maxEnd = new long[sessions.length];
+        buildMaxEnd(0, sessions.length);
+    }
+
+    /**
+     * Expands enrollments' class times around nowMillis in zone. tuitionsById may be missing
+     * classes that haven't loaded yet; those enrollments are listed as unscheduled.
+     */
+    public static ClassTimeline build(Collection<EnrollmentModel> enrollments, Map<String, TuitionModel> tuitionsById,
+                                      long nowMillis, ZoneId zone) {
+        LocalDate today = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+        List<Session> expanded = new ArrayList<>();
+        List<Session> unscheduled = new ArrayList<>();
+        int scheduled = 0;
+
+        for (EnrollmentModel e : enrollments) {
+            TuitionModel t = tuitionsById.get(e.getTuitionId());
+            List<WeeklySlot> slots = t != null ? TuitionFields.slotsOf(t) : Collections.emptyList();
+            int before = expanded.size();
+            for (int d = -DAYS_BEHIND; d < DAYS_AHEAD; d++) {
+                LocalDate date = today.plusDays(d);
+                int day = date.getDayOfWeek().getValue() - 1;
+                for (WeeklySlot s : slots) {
+                    if (!s.runsOn(day) || s.getEndMinute() <= s.getStartMinute()) continue;
+                    // Through LocalDateTime so a DST change that day still lands on the wall-clock time
+                    LocalDateTime start = date.atStartOfDay().plusMinutes(s.getStartMinute());
+                    LocalDateTime end = date.atStartOfDay().plusMinutes(s.getEndMinute());
+                    expanded.add(new Session(e, t, start.atZone(zone).toInstant().toEpochMilli(),
+                            end.atZone(zone).toInstant().toEpochMilli()));
+                }
+            }
+            if (expanded.size() == before) unscheduled.add(new Session(e, t, -1, -1));
+            else scheduled++;
+        }
+
+        Session[] sorted = expanded.toArray(new Session[0]);
+        Arrays.sort(sorted, BY_START);
+        long tomorrow = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new ClassTimeline(sorted, unscheduled, scheduled, tomorrow);
+    }
+
+    /** False once the day it was built for has passed and the window needs moving. */
+    public boolean covers(long nowMillis) {
+        return nowMillis < validUntil;
+    }
+
+    public int size() { return sessions.length; }
+
+    // ==========================================
+    //       QUERIES
+    // ==========================================
+
+    /** Sessions running at nowMillis, earliest start first. */
+    public List<Session> live(long nowMillis) {
+        return overlapping(nowMillis, nowMillis + 1);
+    }
+
+    /** The next limit sessions that start after nowMillis, soonest first. */
+    public List<Session> upcoming(long nowMillis, int limit) {
+        List<Session> out = new ArrayList<>();
+        for (int i = firstStartAfter(nowMillis); i < sessions.length && out.size() < limit; i++) out.add(sessions[i]);
+        return out;
+    }
+
+    /** Sessions that ended in the week before nowMillis, most recent first. */
+    public List<Session> pastWeek(long nowMillis) {
+        List<Session> out = new ArrayList<>();
+        for (Session s : overlapping(nowMillis - WEEK_MS, nowMillis)) {
+            if (s.endMillis <= nowMillis) out.add(s);
+        }
+        Collections.reverse(out);
+        return out;
+    }
+
+    /**
+     * One row per enrolled class: the session live now or starting next, live ones first,
+     * then classes without readable times. Walks forward from now only until every class
+     * has been seen, which is at most one week of sessions.
+     */
+    public List<Session> nextPerClass(long nowMillis) {
+        List<Session> out = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Session s : live(nowMillis)) {
+            if (seen.add(s.enrollment.getEnrollmentId())) out.add(s);
+        }
+        for (int i = firstStartAfter(nowMillis); i < sessions.length && seen.size() < scheduledClasses; i++) {
+            if (seen.add(sessions[i].enrollment.getEnrollmentId())) out.add(sessions[i]);
+        }
+        out.addAll(unscheduled);
+        return out;
+    }
+
+    /** Sessions with start < to and end > from, in start order. */
+    public List<Session> overlapping(long from, long to) {
+        List<Session> out = new ArrayList<>();
+        collect(0, sessions.length, from, to, out);
+        return out;
+    }
+
+    private void collect(int lo, int hi, long from, long to, List<Session> out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] <= from) return; // Everything below ends too early
+        collect(lo, mid, from, to, out);
+        if (starts[mid] >= to) return; // Everything to the right starts too late
+        if (sessions[mid].endMillis > from) out.add(sessions[mid]);
+        collect(mid + 1, hi, from, to, out);
+    }
+
+    private long buildMaxEnd(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(sessions[mid].endMillis, Math.max(buildMaxEnd(lo, mid), buildMaxEnd(mid + 1, hi)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    // Index of the first session starting strictly after t
+    private int firstStartAfter(long t) {
+        int lo = 0, hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
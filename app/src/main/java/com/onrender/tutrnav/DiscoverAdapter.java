@@ -6,22 +6,27 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
-import java.util.List;
 
-public class DiscoverAdapter extends RecyclerView.Adapter<DiscoverAdapter.DiscoverViewHolder> {
+public class DiscoverAdapter extends ListAdapter<TuitionModel, DiscoverAdapter.DiscoverViewHolder> {
 
-    private List<TuitionModel> list;
     private OnTuitionClickListener listener;
 
     public interface OnTuitionClickListener {
         void onClick(TuitionModel model);
     }
 
-    public DiscoverAdapter(List<TuitionModel> list, OnTuitionClickListener listener) {
-        this.list = list;
+    public DiscoverAdapter(OnTuitionClickListener listener) {
+        super(ModelDiffs.TUITION);
         this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ModelDiffs.stableId(getItem(position).getTuitionId());
     }
 
     @NonNull
@@ -33,8 +38,8 @@ public class DiscoverAdapter extends RecyclerView.Adapter<DiscoverAdapter.Discov
 
     @Override
     public void onBindViewHolder(@NonNull DiscoverViewHolder holder, int position) {
-        // Infinite loop logic
-        TuitionModel item = list.get(position % list.size());
+        // Pages are appended as the carousel advances (see DiscoverFeed)
+        TuitionModel item = getItem(position);
 
         holder.title.setText(item.getTitle());
         holder.subtitle.setText(item.getSubject() + " | ₹" + item.getFee());
@@ -49,11 +54,6 @@ public class DiscoverAdapter extends RecyclerView.Adapter<DiscoverAdapter.Discov
         holder.itemView.setOnClickListener(v -> listener.onClick(item));
     }
 
-    @Override
-    public int getItemCount() {
-        return list == null || list.isEmpty() ? 0 : Integer.MAX_VALUE;
-    }
-
     static class DiscoverViewHolder extends RecyclerView.ViewHolder {
         TextView title, subtitle;
         ImageView image;
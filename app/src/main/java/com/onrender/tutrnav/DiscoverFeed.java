@@ -0,0 +1,157 @@
+package com.onrender.tutrnav;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Paged discover feed: tuitions ordered by {@link #RANK_FIELD}, fetched a page at a time
+ * with startAfter cursors.
+ *
+ * Listings whose teacher hasn't run {@link TuitionMigration} yet have no rank, and a
+ * Firestore orderBy leaves them out. So once the ranked pages run out, the feed carries
+ * on through the whole collection in document order, skipping what it already showed.
+ *
+ * The feed keeps one full page loaded beyond the page being viewed, so by the time the
+ * carousel reaches the end of what is on screen the next page is already there. Only
+ * touched on the main thread; pages are mapped on the mapping thread.
+ */
+public final class DiscoverFeed {
+
+    /** Written on every tuition save; higher ranks come first. */
+    public static final String RANK_FIELD = "discoverRank";
+
+    public static final int PAGE_SIZE = 10;
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    public interface Listener {
+        /** Everything loaded so far, in feed order. exhausted means no pages are left. */
+        void onFeedChanged(List<TuitionModel> loaded, boolean exhausted);
+    }
+
+    /**
+     * Rank of a listing saved at savedAtMillis: the day it was saved, plus a day's credit
+     * each for a banner, a description and tags. A complete listing therefore ranks like
+     * a bare one edited up to three days later.
+     */
+    public static double rankOf(TuitionModel t, long savedAtMillis) {
+        double rank = (double) savedAtMillis / DAY_MS;
+        if (t.getBannerUrl() != null && !t.getBannerUrl().isEmpty()) rank += 1;
+        if (t.getDescription() != null && !t.getDescription().isEmpty()) rank += 1;
+        if (t.getTags() != null && !t.getTags().isEmpty()) rank += 1;
+        return rank;
+    }
+
+    private final Query ranked;
+    private final Query unranked;
+    private final Listener listener;
+
+    private final List<TuitionModel> loaded = new ArrayList<>();
+    private final Set<String> loadedIds = new HashSet<>();
+    private DocumentSnapshot lastDocument;
+    private boolean rankedDone = false;
+    private int position = 0;
+    private boolean loading = false;
+    private boolean exhausted = false;
+    private boolean cancelled = false;
+
+    public DiscoverFeed(FirebaseFirestore db, Listener listener) {
+        this.ranked = db.collection("tuitions").orderBy(RANK_FIELD, Query.Direction.DESCENDING);
+        this.unranked = db.collection("tuitions").orderBy(FieldPath.documentId());
+        this.listener = listener;
+    }
+
+    public void start() {
+        loadNextPage();
+    }
+
+    /** Stops delivering pages (the view is gone). */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /** Asks again for a page that failed to load, e.g. the first one while offline. */
+    public void retry() {
+        onPositionChanged(position);
+    }
+
+    /**
+     * Call whenever the carousel settles on a new item. Fetches the next page once the
+     * viewed item is inside the last loaded page.
+     */
+    public void onPositionChanged(int position) {
+        this.position = position;
+        if (position >= loaded.size() - PAGE_SIZE) loadNextPage();
+    }
+
+    private void loadNextPage() {
+        if (loading || exhausted || cancelled) return;
+        loading = true;
+
+        boolean fromRanked = !rankedDone;
+        Query order = fromRanked ? ranked : unranked;
+        Query page = lastDocument == null
+                ? order.limit(PAGE_SIZE)
+                : order.startAfter(lastDocument).limit(PAGE_SIZE);
+
+        page.get().continueWith(SnapshotMapping.EXECUTOR, task -> {
+            QuerySnapshot snapshot = task.getResult();
+            Page result = new Page(snapshot, SnapshotMapping.mapAll(snapshot, ModelMappers::toTuition), fromRanked);
+            LocalStore.get().write(store -> store.putTuitions(result.items));
+            return result;
+        }).addOnSuccessListener(result -> {
+            loading = false;
+            if (cancelled) return;
+            onPage(result);
+        }).addOnFailureListener(e -> loading = false); // Retried on the next position change or retry()
+    }
+
+    private void onPage(Page page) {
+        if (page.last != null) lastDocument = page.last;
+        if (page.size < PAGE_SIZE) {
+            if (page.ranked) {
+                // Ranked listings are done; continue with the unranked ones from the start
+                rankedDone = true;
+                lastDocument = null;
+            } else {
+                exhausted = true;
+            }
+        }
+
+        // A rank changing between two page reads can move a listing across the cursor
+        for (TuitionModel t : page.items) {
+            if (t.getTuitionId() == null || loadedIds.add(t.getTuitionId())) loaded.add(t);
+        }
+        listener.onFeedChanged(new ArrayList<>(loaded), exhausted);
+
+        // Keeps the one-page lead: after the first page this immediately asks for the second
+        onPositionChanged(position);
+    }
+
+    private static class Page {
+        final DocumentSnapshot last;
+        final int size;
+        final List<TuitionModel> items;
+        final boolean ranked;
+
+        Page(QuerySnapshot snapshot, List<TuitionModel> items, boolean ranked) {
+            List<DocumentSnapshot> docs = snapshot.getDocuments();
+            this.last = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+            this.size = docs.size();
+            this.items = items;
+            this.ranked = ranked;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.onrender.tutrnav;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.firebase.Timestamp;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids of the notifications the student has removed, kept in an indexed SQLite table.
+ *
+ * Each dismissal inserts one row. Before this, every dismissal copied and rewrote the
+ * whole SharedPreferences set. Rows carry the message's own time and are pruned once the
+ * message is older than {@link #RETENTION_MS}. Messages that old are no longer queried or
+ * listed either ({@link #isExpired}), so a pruned id can never come back. Rows whose
+ * message time is unknown are never pruned. Membership checks hit an in-memory set,
+ * loaded off the main thread by {@link #preload}; screens filter only once it has loaded.
+ *
+ * Separate from {@link LocalStore} on purpose: that database is a disposable cache, this
+ * one is the user's own state.
+ */
+public final class DismissedNotifications extends SQLiteOpenHelper {
+
+    /** How long a message stays in the notification lists, and its dismissal with it. */
+    public static final long RETENTION_MS = TimeUnit.DAYS.toMillis(90);
+
+    // messageTime of a row whose message time was never known; kept for good
+    private static final long UNKNOWN_TIME = -1;
+
+    private static final String DB_NAME = "notification-state.db";
+    private static final int DB_VERSION = 1;
+
+    // Where dismissals lived before this table
+    private static final String LEGACY_PREFS = "Notifications";
+    private static final String LEGACY_KEY = "dismissed";
+
+    private static DismissedNotifications instance;
+
+    public static synchronized DismissedNotifications get(Context context) {
+        if (instance == null) instance = new DismissedNotifications(context.getApplicationContext());
+        return instance;
+    }
+
+    // Disk I/O on its own thread, off both main and the snapshot mapping thread
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "dismissed-notifications");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Oldest send time still listed; older messages are neither queried nor shown. */
+    public static long retentionCutoffMillis() {
+        return System.currentTimeMillis() - RETENTION_MS;
+    }
+
+    /** True if a message sent at timestamp has aged out of the lists. */
+    public static boolean isExpired(Timestamp timestamp) {
+        return timestamp != null && timestamp.toDate().getTime() < retentionCutoffMillis();
+    }
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<String> ids = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded = false;
+
+    private DismissedNotifications(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+        this.context = context;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE dismissed (id TEXT PRIMARY KEY, messageTime INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX idx_dismissed_time ON dismissed(messageTime)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Version 1 is the only schema so far
+    }
+
+    /** Loads the set in the background so no list filter touches disk. */
+    public void preload() {
+        EXECUTOR.execute(this::ensureLoaded);
+    }
+
+    /** Loads the set if needed, then runs onLoaded on the main thread. */
+    public void preload(Runnable onLoaded) {
+        EXECUTOR.execute(() -> {
+            ensureLoaded();
+            mainHandler.post(onLoaded);
+        });
+    }
+
+    /** Until this is true, {@link #contains} only knows this session's dismissals. */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean contains(String id) {
+        return id != null && ids.contains(id);
+    }
+
+    /** Also true if the student dismissed one of the copies a migrated broadcast replaced. */
+    public boolean contains(MessageModel message) {
+        if (contains(message.getMessageId())) return true;
+        if (message.getMergedIds() != null) {
+            for (String merged : message.getMergedIds()) {
+                if (ids.contains(merged)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hides the message from now on. The in-memory set updates at once; the row is
+     * written on the store's own thread.
+     *
+     * @param messageTimeMillis when the message was sent (0 if unknown: never pruned)
+     */
+    public void dismiss(String id, long messageTimeMillis) {
+        if (id == null) return;
+        ids.add(id);
+        long time = messageTimeMillis > 0 ? messageTimeMillis : UNKNOWN_TIME;
+        EXECUTOR.execute(() -> insert(getWritableDatabase(), id, time));
+    }
+
+    // Only ever on EXECUTOR; the set it fills only grows, so dismissals made meanwhile stay
+    private void ensureLoaded() {
+        if (loaded) return;
+        SQLiteDatabase db = getWritableDatabase();
+        importLegacy(db);
+
+        // TTL: messages this old are no longer listed, so their ids are no longer needed
+        db.delete("dismissed", "messageTime >= 0 AND messageTime < ?",
+                new String[] { String.valueOf(retentionCutoffMillis()) });
+
+        try (Cursor c = db.query("dismissed", new String[] { "id" }, null, null, null, null, null)) {
+            while (c.moveToNext()) ids.add(c.getString(0));
+        }
+        loaded = true;
+    }
+
+    // One-time move out of SharedPreferences. Their send times were never stored, so they
+    // are kept for good rather than given a made-up time that would expire them.
+    private void importLegacy(SQLiteDatabase db) {
+        SharedPreferences prefs = context.getSharedPreferences(LEGACY_PREFS, Context.MODE_PRIVATE);
+        Set<String> legacy = prefs.getStringSet(LEGACY_KEY, null);
+        if (legacy == null) return;
+
+        db.beginTransaction();
+        try {
+            for (String id : legacy) insert(db, id, UNKNOWN_TIME);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        prefs.edit().remove(LEGACY_KEY).apply();
+    }
+
+    private static void insert(SQLiteDatabase db, String id, long messageTime) {
+        ContentValues v = new ContentValues();
+        v.put("id", id);
+        v.put("messageTime", messageTime);
+        db.insertWithOnConflict("dismissed", null, v, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
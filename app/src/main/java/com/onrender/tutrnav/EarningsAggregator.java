@@ -0,0 +1,95 @@
+package com.onrender.tutrnav;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals for the teacher dashboard: approved students and the fees they bring in,
+ * per class and overall.
+ *
+ * Money is kept in integer minor units (paise, see {@link TuitionFields#FEE_MINOR}), so
+ * repeated adjustments never drift. Each delta adjusts the totals by the change it
+ * carries: a student approved adds their class's fee, a fee edit moves the total by the
+ * difference times that class's head-count. Nothing is rescanned. A student whose class
+ * isn't loaded counts as active but earns nothing, as the old recalculation did. Main
+ * thread only, like the rest of TeacherViewModel's state.
+ */
+public final class EarningsAggregator {
+
+    private static final String APPROVED = "approved";
+
+    // tuitionId -> monthly fee in minor units
+    private final Map<String, Long> feeByClass = new HashMap<>();
+    // tuitionId -> approved enrollments
+    private final Map<String, Integer> activeByClass = new HashMap<>();
+    private long totalMinor = 0;
+    private int totalActive = 0;
+
+    /** Rebuilds the totals from full lists (either may be null). */
+    public void reset(Collection<TuitionModel> tuitions, Collection<EnrollmentModel> enrollments) {
+        feeByClass.clear();
+        activeByClass.clear();
+        totalMinor = 0;
+        totalActive = 0;
+        if (tuitions != null) {
+            for (TuitionModel t : tuitions) setFee(t.getTuitionId(), TuitionFields.feeMinorOf(t));
+        }
+        if (enrollments != null) {
+            for (EnrollmentModel e : enrollments) if (isActive(e)) adjustActive(e.getTuitionId(), 1);
+        }
+    }
+
+    public void applyTuitions(TeacherViewModel.Delta<TuitionModel> delta) {
+        for (TuitionModel t : delta.removed) setFee(t.getTuitionId(), 0);
+        for (TuitionModel t : delta.modified) setFee(t.getTuitionId(), TuitionFields.feeMinorOf(t));
+        for (TuitionModel t : delta.added) setFee(t.getTuitionId(), TuitionFields.feeMinorOf(t));
+    }
+
+    public void applyEnrollments(TeacherViewModel.Delta<EnrollmentModel> delta) {
+        for (EnrollmentModel e : delta.removed) if (isActive(e)) adjustActive(e.getTuitionId(), -1);
+        for (int i = 0; i < delta.modified.size(); i++) {
+            EnrollmentModel before = delta.modifiedBefore.get(i);
+            EnrollmentModel now = delta.modified.get(i);
+            if (isActive(before)) adjustActive(before.getTuitionId(), -1);
+            if (isActive(now)) adjustActive(now.getTuitionId(), 1);
+        }
+        for (EnrollmentModel e : delta.added) if (isActive(e)) adjustActive(e.getTuitionId(), 1);
+    }
+
+    public long totalMinor() { return totalMinor; }
+    public int totalActive() { return totalActive; }
+
+    public int activeStudents(String tuitionId) {
+        Integer count = activeByClass.get(tuitionId);
+        return count != null ? count : 0;
+    }
+
+    public long earningsMinor(String tuitionId) {
+        return activeStudents(tuitionId) * fee(tuitionId);
+    }
+
+    private void setFee(String tuitionId, long feeMinor) {
+        long old = fee(tuitionId);
+        if (feeMinor == 0) feeByClass.remove(tuitionId);
+        else feeByClass.put(tuitionId, feeMinor);
+        totalMinor += (feeMinor - old) * activeStudents(tuitionId);
+    }
+
+    private void adjustActive(String tuitionId, int by) {
+        int count = activeStudents(tuitionId) + by;
+        if (count == 0) activeByClass.remove(tuitionId);
+        else activeByClass.put(tuitionId, count);
+        totalActive += by;
+        totalMinor += by * fee(tuitionId);
+    }
+
+    private long fee(String tuitionId) {
+        Long fee = feeByClass.get(tuitionId);
+        return fee != null ? fee : 0;
+    }
+
+    private static boolean isActive(EnrollmentModel e) {
+        return e != null && APPROVED.equals(e.getStatus());
+    }
+}
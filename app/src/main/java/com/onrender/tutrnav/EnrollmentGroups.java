@@ -0,0 +1,116 @@
+package com.onrender.tutrnav;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A teacher's enrollments grouped by class and status, patched from each
+ * {@link TeacherViewModel.Delta} instead of being rebuilt from the full list.
+ *
+ * Counts are map sizes, so "how many approved students does this class have" is a
+ * couple of hash lookups. Lists keep snapshot order; an enrollment that changes without
+ * moving group keeps its place. Main thread only, like the maps in TeacherViewModel.
+ */
+public final class EnrollmentGroups {
+
+    private final Map<String, EnrollmentModel> byId = new HashMap<>();
+    // tuitionId -> status -> enrollments
+    private final Map<String, Map<String, LinkedHashMap<String, EnrollmentModel>>> byClass = new HashMap<>();
+    // status -> enrollments across all classes
+    private final Map<String, LinkedHashMap<String, EnrollmentModel>> byStatus = new HashMap<>();
+
+    /** Replaces the contents with enrollments. */
+    public void reset(Collection<EnrollmentModel> enrollments) {
+        byId.clear();
+        byClass.clear();
+        byStatus.clear();
+        for (EnrollmentModel e : enrollments) put(e);
+    }
+
+    public void apply(TeacherViewModel.Delta<EnrollmentModel> delta) {
+        for (EnrollmentModel e : delta.removed) remove(e.getEnrollmentId());
+        for (EnrollmentModel now : delta.modified) {
+            EnrollmentModel before = byId.get(now.getEnrollmentId());
+            if (before != null && sameGroup(before, now)) {
+                replaceInPlace(now);
+            } else {
+                remove(now.getEnrollmentId());
+                put(now);
+            }
+        }
+        for (EnrollmentModel e : delta.added) {
+            remove(e.getEnrollmentId()); // Already there if it came from the local mirror
+            put(e);
+        }
+    }
+
+    public int count(String status) {
+        Map<String, EnrollmentModel> group = byStatus.get(status);
+        return group != null ? group.size() : 0;
+    }
+
+    public int count(String tuitionId, String status) {
+        Map<String, EnrollmentModel> group = group(tuitionId, status);
+        return group != null ? group.size() : 0;
+    }
+
+    /** Every enrollment with status, across classes. */
+    public List<EnrollmentModel> withStatus(String status) {
+        Map<String, EnrollmentModel> group = byStatus.get(status);
+        return group != null ? new ArrayList<>(group.values()) : Collections.emptyList();
+    }
+
+    public List<EnrollmentModel> students(String tuitionId, String status) {
+        Map<String, EnrollmentModel> group = group(tuitionId, status);
+        return group != null ? new ArrayList<>(group.values()) : Collections.emptyList();
+    }
+
+    private Map<String, EnrollmentModel> group(String tuitionId, String status) {
+        Map<String, LinkedHashMap<String, EnrollmentModel>> statuses = byClass.get(tuitionId);
+        return statuses != null ? statuses.get(status) : null;
+    }
+
+    private void put(EnrollmentModel e) {
+        String id = e.getEnrollmentId();
+        if (id == null) return;
+        byId.put(id, e);
+        byStatus.computeIfAbsent(e.getStatus(), k -> new LinkedHashMap<>()).put(id, e);
+        byClass.computeIfAbsent(e.getTuitionId(), k -> new HashMap<>())
+                .computeIfAbsent(e.getStatus(), k -> new LinkedHashMap<>())
+                .put(id, e);
+    }
+
+    // Same keys, so LinkedHashMap.put keeps the entry where it was
+    private void replaceInPlace(EnrollmentModel e) {
+        String id = e.getEnrollmentId();
+        byId.put(id, e);
+        byStatus.get(e.getStatus()).put(id, e);
+        byClass.get(e.getTuitionId()).get(e.getStatus()).put(id, e);
+    }
+
+    private void remove(String id) {
+        if (id == null) return;
+        EnrollmentModel old = byId.remove(id);
+        if (old == null) return;
+
+        LinkedHashMap<String, EnrollmentModel> status = byStatus.get(old.getStatus());
+        status.remove(id);
+        if (status.isEmpty()) byStatus.remove(old.getStatus());
+
+        Map<String, LinkedHashMap<String, EnrollmentModel>> statuses = byClass.get(old.getTuitionId());
+        LinkedHashMap<String, EnrollmentModel> group = statuses.get(old.getStatus());
+        group.remove(id);
+        if (group.isEmpty()) statuses.remove(old.getStatus());
+        if (statuses.isEmpty()) byClass.remove(old.getTuitionId());
+    }
+
+    private static boolean sameGroup(EnrollmentModel a, EnrollmentModel b) {
+        return Objects.equals(a.getTuitionId(), b.getTuitionId()) && Objects.equals(a.getStatus(), b.getStatus());
+    }
+}
@@ -30,12 +30,19 @@ public class EnrollmentModel {
     public String getEnrollmentId() { return enrollmentId; }
     public void setEnrollmentId(String enrollmentId) { this.enrollmentId = enrollmentId; }
     public String getStudentId() { return studentId; }
+    public void setStudentId(String studentId) { this.studentId = studentId; }
     public String getStudentName() { return studentName; }
+    public void setStudentName(String studentName) { this.studentName = studentName; }
     public String getStudentPhoto() { return studentPhoto; }
+    public void setStudentPhoto(String studentPhoto) { this.studentPhoto = studentPhoto; }
     public String getTeacherId() { return teacherId; }
+    public void setTeacherId(String teacherId) { this.teacherId = teacherId; }
     public String getTuitionId() { return tuitionId; }
+    public void setTuitionId(String tuitionId) { this.tuitionId = tuitionId; }
     public String getTuitionTitle() { return tuitionTitle; }
+    public void setTuitionTitle(String tuitionTitle) { this.tuitionTitle = tuitionTitle; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public Timestamp getTimestamp() { return timestamp; }
+    public void setTimestamp(Timestamp timestamp) { this.timestamp = timestamp; }
 }
\ No newline at end of file
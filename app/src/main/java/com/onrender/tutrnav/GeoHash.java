@@ -0,0 +1,115 @@
+package com.onrender.tutrnav;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Standard base-32 geohash encoding plus the cell-cover math used to turn a
+ * map viewport into a handful of Firestore prefix range queries.
+ */
+public final class GeoHash {
+
+    public static final String FIELD = "geohash";
+
+    // Precision written to Firestore (~1.2m x 0.6m cells), queries use shorter prefixes
+    public static final int STORED_PRECISION = 10;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private GeoHash() {}
+
+    public static String encode(double lat, double lng) {
+        return encode(lat, lng, STORED_PRECISION);
+    }
+
+    public static String encode(double lat, double lng, int precision) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder sb = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0, ch = 0;
+
+        while (sb.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) { ch = (ch << 1) | 1; minLng = mid; }
+                else { ch = ch << 1; maxLng = mid; }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) { ch = (ch << 1) | 1; minLat = mid; }
+                else { ch = ch << 1; maxLat = mid; }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                sb.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Height of a cell in degrees of latitude at the given precision. */
+    public static double cellHeightDeg(int precision) {
+        int latBits = (precision * 5) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    /** Width of a cell in degrees of longitude at the given precision. */
+    public static double cellWidthDeg(int precision) {
+        int lngBits = (precision * 5 + 1) / 2;
+        return 360.0 / (1L << lngBits);
+    }
+
+    /**
+     * Picks the finest precision whose cells cover the box in at most maxCells
+     * prefixes, and returns those prefixes. Each prefix is one range query.
+     */
+    public static List<String> coverBoundingBox(double south, double west, double north, double east, int maxCells) {
+        south = clamp(south, -90, 90);
+        north = clamp(north, -90, 90);
+        west = clamp(west, -180, 180);
+        east = clamp(east, -180, 180);
+
+        int precision = 1;
+        for (int p = STORED_PRECISION; p >= 1; p--) {
+            long rows = (long) Math.floor(north / cellHeightDeg(p)) - (long) Math.floor(south / cellHeightDeg(p)) + 1;
+            long cols = (long) Math.floor(east / cellWidthDeg(p)) - (long) Math.floor(west / cellWidthDeg(p)) + 1;
+            if (rows * cols <= maxCells) {
+                precision = p;
+                break;
+            }
+        }
+        return cellsInBox(south, west, north, east, precision);
+    }
+
+    /**
+     * Every geohash cell of the given precision that intersects the box.
+     */
+    public static List<String> cellsInBox(double south, double west, double north, double east, int precision) {
+        double h = cellHeightDeg(precision);
+        double w = cellWidthDeg(precision);
+        Set<String> cells = new LinkedHashSet<>();
+
+        // Step from the cell containing the south-west corner, sampling each cell's centre
+        double startLat = Math.floor(south / h) * h + h / 2;
+        double startLng = Math.floor(west / w) * w + w / 2;
+        for (double lat = startLat; lat - h / 2 <= north; lat += h) {
+            for (double lng = startLng; lng - w / 2 <= east; lng += w) {
+                cells.add(encode(clamp(lat, -90, 90), clamp(lng, -180, 180), precision));
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+
+    /** Inclusive upper bound for a prefix range query on the geohash field. */
+    public static String rangeEnd(String prefix) {
+        return prefix + "~";
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
@@ -0,0 +1,48 @@
+package com.onrender.tutrnav;
+
+/**
+ * Plain-Java geodesy helpers shared by the map data structures.
+ * Kept free of android.location so they can be unit tested on the host JVM.
+ */
+public final class GeoMath {
+
+    // Mean Earth radius (IUGG), same model Location.distanceBetween approximates
+    public static final double EARTH_RADIUS_M = 6371008.8;
+
+    private GeoMath() {}
+
+    /**
+     * Great-circle distance in metres (haversine).
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Converts a surface distance into the straight-line (chord) distance on the unit sphere.
+     * Chord length grows monotonically with arc length, so it can be compared directly.
+     */
+    public static double metersToUnitChord(double meters) {
+        double angle = Math.min(Math.PI, meters / EARTH_RADIUS_M);
+        return 2 * Math.sin(angle / 2);
+    }
+
+    /**
+     * Inverse of {@link #metersToUnitChord(double)}.
+     */
+    public static double unitChordToMeters(double chord) {
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1.0, chord / 2));
+    }
+
+    /**
+     * A stored tuition without coordinates is saved as 0.0/0.0 by the teacher form.
+     */
+    public static boolean hasLocation(TuitionModel t) {
+        return t != null && Math.abs(t.getLatitude()) >= 0.1;
+    }
+}
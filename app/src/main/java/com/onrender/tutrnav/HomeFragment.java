@@ -18,17 +18,16 @@ import androidx.viewpager2.widget.CompositePageTransformer;
 import androidx.viewpager2.widget.MarginPageTransformer;
 import androidx.viewpager2.widget.ViewPager2;
 
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class HomeFragment extends Fragment {
 
     private ViewPager2 vpDiscover;
     private final Handler sliderHandler = new Handler(Looper.getMainLooper());
     private SharedTuitionViewModel viewModel;
+    private DiscoverAdapter adapter;
+    private DiscoverFeed feed;
+    private boolean hasNetworkResult = false;
 
     // AESTHETIC CONFIGURATION
     private static final int AUTO_SLIDE_DURATION = 3500;
@@ -44,43 +43,51 @@ public class HomeFragment extends Fragment {
         viewModel = new ViewModelProvider(requireActivity()).get(SharedTuitionViewModel.class);
         vpDiscover = view.findViewById(R.id.vpDiscover);
 
+        setupAdapter();
         fetchTuitionsFromFirestore();
 
         return view;
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (feed != null) feed.cancel();
+        sliderHandler.removeCallbacks(sliderRunnable);
+    }
+
     private void fetchTuitionsFromFirestore() {
-        FirebaseFirestore.getInstance().collection("tuitions")
-                .limit(10)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<TuitionModel> list = new ArrayList<>();
-                    for (DocumentSnapshot doc : queryDocumentSnapshots) {
-                        TuitionModel model = doc.toObject(TuitionModel.class);
-                        if (model != null) list.add(model);
-                    }
+        // Paint the first page from the local mirror; the network pages replace it
+        LocalStore.get().read(store -> store.topRankedTuitions(DiscoverFeed.PAGE_SIZE), cached -> {
+            if (!isAdded() || hasNetworkResult || cached.isEmpty()) return;
+            adapter.submitList(cached);
+        });
 
-                    if (!list.isEmpty()) {
-                        setupAdapter(list);
-                    }
-                });
+        // Ranked pages, fetched with startAfter cursors one page ahead of the carousel
+        feed = new DiscoverFeed(FirebaseFirestore.getInstance(), (loaded, exhausted) -> {
+            if (!isAdded()) return;
+            hasNetworkResult = true;
+            if (!loaded.isEmpty()) adapter.submitList(loaded);
+        });
+        feed.start();
     }
 
-    private void setupAdapter(List<TuitionModel> list) {
-        DiscoverAdapter adapter = new DiscoverAdapter(list, model -> {
+    private void setupAdapter() {
+        adapter = new DiscoverAdapter(model -> {
             viewModel.select(model);
             if (getActivity() instanceof StudentHomeActivity) {
                 ViewPager2 parentVP = getActivity().findViewById(R.id.viewPager);
                 if (parentVP != null) parentVP.setCurrentItem(2, true);
             }
         });
-
         vpDiscover.setAdapter(adapter);
 
-        // Infinite Scroll Math: Start perfectly in the middle
-        int midPoint = Integer.MAX_VALUE / 2;
-        int startPosition = midPoint - (midPoint % list.size());
-        vpDiscover.setCurrentItem(startPosition, false);
+        vpDiscover.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                if (feed != null) feed.onPositionChanged(position);
+            }
+        });
 
         setupViewPagerAesthetics();
         setupSmartTouchHandling();
@@ -166,9 +173,15 @@ public class HomeFragment extends Fragment {
     private final Runnable sliderRunnable = new Runnable() {
         @Override
         public void run() {
-            if (vpDiscover != null && vpDiscover.getAdapter() != null) {
-                // Smoothly slide to the next item
-                vpDiscover.setCurrentItem(vpDiscover.getCurrentItem() + 1, true);
+            if (vpDiscover != null && adapter != null) {
+                // Smoothly slide to the next item; wrap to the start once every page is loaded.
+                // At the end of a page still loading, wait here for it instead.
+                int next = vpDiscover.getCurrentItem() + 1;
+                if (next < adapter.getItemCount()) {
+                    vpDiscover.setCurrentItem(next, true);
+                } else if (feed != null && feed.isExhausted() && adapter.getItemCount() > 1) {
+                    vpDiscover.setCurrentItem(0, true);
+                }
                 sliderHandler.postDelayed(this, AUTO_SLIDE_DURATION);
             }
         }
@@ -185,5 +198,7 @@ public class HomeFragment extends Fragment {
         super.onResume();
         sliderHandler.removeCallbacks(sliderRunnable);
         sliderHandler.postDelayed(sliderRunnable, AUTO_SLIDE_DURATION);
+        // A page that failed (say, the first one while offline) has no other trigger to retry
+        if (feed != null) feed.retry();
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.onrender.tutrnav;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges lists that are each already sorted into one sorted list in O(n log k),
+ * keeping a heap of one cursor per list. Null entries are skipped.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {}
+
+    public static <T> List<T> merge(List<? extends List<T>> sortedLists, Comparator<? super T> order) {
+        int total = 0;
+        for (List<T> list : sortedLists) total += list.size();
+        List<T> out = new ArrayList<>(total);
+
+        // Cursor = {list index, position}; ties go to the earlier list so the merge is stable
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, sortedLists.size()), (a, b) -> {
+            int c = order.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1]));
+            return c != 0 ? c : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < sortedLists.size(); i++) {
+            int first = nextNonNull(sortedLists.get(i), 0);
+            if (first >= 0) heap.add(new int[] { i, first });
+        }
+
+        while (!heap.isEmpty()) {
+            int[] cursor = heap.poll();
+            List<T> list = sortedLists.get(cursor[0]);
+            out.add(list.get(cursor[1]));
+            int next = nextNonNull(list, cursor[1] + 1);
+            if (next >= 0) {
+                cursor[1] = next;
+                heap.add(cursor);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Splits items into consecutive chunks of at most size elements.
+     */
+    public static <T> List<List<T>> chunk(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(new ArrayList<>(items.subList(i, Math.min(items.size(), i + size))));
+        }
+        return chunks;
+    }
+
+    private static <T> int nextNonNull(List<T> list, int from) {
+        for (int i = from; i < list.size(); i++) {
+            if (list.get(i) != null) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,119 @@
+package com.onrender.tutrnav;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ties Firestore snapshot listeners to a LifecycleOwner.
+ *
+ * Each listener is stored under a key; putting a new listener under a key removes the one
+ * it supersedes (e.g. the messages query after the enrolled class list changes), and every
+ * listener still held is removed when the owner is destroyed. Use a fragment's view
+ * lifecycle owner so listeners end in onDestroyView. Main thread only.
+ *
+ * Every listener passed through {@link #track(ListenerRegistration)} (which includes all
+ * registry listeners) is counted, so leaks show up as a climbing {@link #liveListenerCount()}.
+ * Each add and remove is also logged, but only once enabled with
+ * {@code adb shell setprop log.tag.ListenerRegistry DEBUG}.
+ */
+public final class ListenerRegistry implements DefaultLifecycleObserver {
+
+    private static final String TAG = "ListenerRegistry";
+    private static final AtomicInteger LIVE_LISTENERS = new AtomicInteger();
+
+    private final Map<String, ListenerRegistration> registrations = new HashMap<>();
+    private boolean destroyed = false;
+
+    private ListenerRegistry() {}
+
+    public static ListenerRegistry bindTo(LifecycleOwner owner) {
+        ListenerRegistry registry = new ListenerRegistry();
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            registry.destroyed = true;
+        } else {
+            owner.getLifecycle().addObserver(registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Holds registration under key, removing whatever listener the key held before.
+     */
+    public void put(String key, ListenerRegistration registration) {
+        ListenerRegistration tracked = track(registration);
+        if (destroyed) {
+            tracked.remove(); // Owner already gone; don't let a late caller leak a listener
+            return;
+        }
+        ListenerRegistration previous = registrations.put(key, tracked);
+        if (previous != null) previous.remove();
+    }
+
+    public void remove(String key) {
+        ListenerRegistration previous = registrations.remove(key);
+        if (previous != null) previous.remove();
+    }
+
+    public boolean contains(String key) {
+        return registrations.containsKey(key);
+    }
+
+    public void removeAll() {
+        for (ListenerRegistration r : registrations.values()) r.remove();
+        registrations.clear();
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        destroyed = true;
+        removeAll();
+        owner.getLifecycle().removeObserver(this);
+    }
+
+    // ==========================================
+    //       DEBUG COUNTER
+    // ==========================================
+
+    /** Number of tracked snapshot listeners currently attached, process-wide. */
+    public static int liveListenerCount() {
+        return LIVE_LISTENERS.get();
+    }
+
+    /**
+     * Wraps a registration so it is counted until removed. Removing twice is harmless.
+     */
+    public static ListenerRegistration track(ListenerRegistration registration) {
+        if (registration instanceof Tracked) return registration;
+        int live = LIVE_LISTENERS.incrementAndGet();
+        if (Log.isLoggable(TAG, Log.DEBUG)) Log.d(TAG, "listener added, live=" + live);
+        return new Tracked(registration);
+    }
+
+    private static class Tracked implements ListenerRegistration {
+        private final ListenerRegistration delegate;
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        Tracked(ListenerRegistration delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void remove() {
+            if (removed.getAndSet(true)) return;
+            delegate.remove();
+            int live = LIVE_LISTENERS.decrementAndGet();
+            if (Log.isLoggable(TAG, Log.DEBUG)) Log.d(TAG, "listener removed, live=" + live);
+        }
+    }
+}
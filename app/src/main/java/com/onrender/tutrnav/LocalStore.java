@@ -0,0 +1,537 @@
+package com.onrender.tutrnav;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.auth.FirebaseAuth;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * On-device SQLite mirror of the tuitions, enrollments and messages a user has seen.
+ *
+ * Screens read from here first so they have content on a cold start before any
+ * Firestore round trip, then switch to the live results. Rows are written through
+ * from the live listeners and by {@link CacheSync}. The store is only a cache:
+ * deleting the database loses nothing.
+ *
+ * The mirror belongs to one signed-in user at a time. Private messages are only ever read
+ * back for their own student, and everything (sync cursors included) is wiped when a
+ * different user, or nobody, signs in: see {@link #ensureOwner}.
+ *
+ * Every call does disk I/O: call it off the main thread, or go through {@link #read}
+ * and {@link #write}, which run on the store's own thread. SQLite serialises concurrent
+ * writers itself.
+ */
+public final class LocalStore extends SQLiteOpenHelper {
+
+    private static final String DB_NAME = "tutrnav-cache.db";
+    private static final int DB_VERSION = 6;
+
+    // Separates tag (and merged id) values inside one column; never typed by users
+    private static final String TAG_SEPARATOR = "\u001F";
+
+    private static LocalStore instance;
+
+    // Disk I/O gets its own thread so cache traffic never queues ahead of snapshot mapping
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "local-store");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Called once from {@link MyApplication}. */
+    public static synchronized void init(Context context) {
+        if (instance != null) return;
+        instance = new LocalStore(context.getApplicationContext(), DB_NAME);
+        // Fires once now and again on every sign-in and sign-out
+        FirebaseAuth.getInstance().addAuthStateListener(auth -> {
+            String uid = auth.getUid();
+            instance.write(store -> store.ensureOwner(uid));
+        });
+    }
+
+    public static LocalStore get() {
+        return instance;
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // A null name gives an in-memory database (tests)
+    LocalStore(Context context, String name) {
+        super(context, name, null, DB_VERSION);
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Runs query on the store's thread and hands the result to callback on the main thread.
+     * A live result may arrive first, so callbacks should skip cached data once it has.
+     */
+    public <T> void read(Query<T> query, Consumer<T> callback) {
+        EXECUTOR.execute(() -> {
+            T result = query.run(this);
+            mainHandler.post(() -> callback.accept(result));
+        });
+    }
+
+    /** Runs write on the store's thread, in the order writes were queued. */
+    public void write(Consumer<LocalStore> write) {
+        EXECUTOR.execute(() -> write.accept(this));
+    }
+
+    public interface Query<T> {
+        T run(LocalStore store);
+    }
+
+    // ==========================================
+    //              SCHEMA
+    // ==========================================
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE tuitions ("
+                + "id TEXT PRIMARY KEY, teacherId TEXT, title TEXT, subject TEXT, time TEXT, fee TEXT,"
+                + "feeMinor INTEGER, slots TEXT,"
+                + "maxStudents INTEGER, description TEXT, bannerUrl TEXT, latitude REAL, longitude REAL,"
+                + "geohash TEXT, teacherName TEXT, teacherPhoto TEXT, tags TEXT, discoverRank REAL)");
+        db.execSQL("CREATE INDEX idx_tuitions_teacher ON tuitions(teacherId)");
+        db.execSQL("CREATE INDEX idx_tuitions_rank ON tuitions(discoverRank DESC)");
+
+        db.execSQL("CREATE TABLE enrollments ("
+                + "id TEXT PRIMARY KEY, studentId TEXT, studentName TEXT, studentPhoto TEXT, teacherId TEXT,"
+                + "tuitionId TEXT, tuitionTitle TEXT, status TEXT, timestamp INTEGER)");
+        db.execSQL("CREATE INDEX idx_enrollments_student ON enrollments(studentId, status)");
+        db.execSQL("CREATE INDEX idx_enrollments_teacher ON enrollments(teacherId)");
+        db.execSQL("CREATE INDEX idx_enrollments_tuition ON enrollments(tuitionId)");
+
+        db.execSQL("CREATE TABLE messages ("
+                + "id TEXT PRIMARY KEY, text TEXT, senderId TEXT, senderName TEXT, teacherPhoto TEXT,"
+                + "tuitionId TEXT, tuitionTitle TEXT, studentId TEXT, type TEXT, broadcast INTEGER, timestamp INTEGER,"
+                + "mergedIds TEXT)");
+        db.execSQL("CREATE INDEX idx_messages_tuition_time ON messages(tuitionId, timestamp DESC)");
+        db.execSQL("CREATE INDEX idx_messages_student_time ON messages(studentId, timestamp DESC)");
+
+        // Highest updated-at value pulled so far, per synced query
+        db.execSQL("CREATE TABLE sync_cursors (scope TEXT PRIMARY KEY, cursor INTEGER)");
+
+        // Single row: the uid whose data the mirror holds
+        db.execSQL("CREATE TABLE owner (uid TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Cache only: rebuild rather than migrate
+        for (String table : Arrays.asList("tuitions", "enrollments", "messages", "sync_cursors", "owner")) {
+            db.execSQL("DROP TABLE IF EXISTS " + table);
+        }
+        onCreate(db);
+    }
+
+    // ==========================================
+    //              TUITIONS
+    // ==========================================
+
+    public void putTuitions(Collection<TuitionModel> tuitions) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (TuitionModel t : tuitions) insertTuition(db, t);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Replaces teacherId's tuitions with the given list, which is the complete result of
+     * the live query (so rows missing from it were deleted upstream).
+     */
+    public void replaceTeacherTuitions(String teacherId, Collection<TuitionModel> tuitions) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete("tuitions", "teacherId = ?", new String[] { teacherId });
+            for (TuitionModel t : tuitions) insertTuition(db, t);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void insertTuition(SQLiteDatabase db, TuitionModel t) {
+        if (t == null || t.getTuitionId() == null) return;
+        ContentValues v = new ContentValues();
+        v.put("id", t.getTuitionId());
+        v.put("teacherId", t.getTeacherId());
+        v.put("title", t.getTitle());
+        v.put("subject", t.getSubject());
+        v.put("time", t.getTime());
+        v.put("fee", t.getFee());
+        v.put("feeMinor", t.getFeeMinor());
+        v.put("slots", TuitionFields.encodeSlots(t.getSlots()));
+        v.put("maxStudents", t.getMaxStudents());
+        v.put("description", t.getDescription());
+        v.put("bannerUrl", t.getBannerUrl());
+        v.put("latitude", t.getLatitude());
+        v.put("longitude", t.getLongitude());
+        v.put("geohash", t.getGeohash());
+        v.put("teacherName", t.getTeacherName());
+        v.put("teacherPhoto", t.getTeacherPhoto());
+        v.put("tags", t.getTags() != null ? TextUtils.join(TAG_SEPARATOR, t.getTags()) : null);
+        v.put("discoverRank", t.getDiscoverRank());
+        db.insertWithOnConflict("tuitions", null, v, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    public void deleteTuitions(Collection<String> ids) {
+        deleteIds("tuitions", ids);
+    }
+
+    /** Highest-ranked cached tuitions, in discover feed order. */
+    public List<TuitionModel> topRankedTuitions(int limit) {
+        return tuitions(getReadableDatabase().query("tuitions", null, null, null, null, null,
+                "discoverRank DESC, id", String.valueOf(limit)));
+    }
+
+    public List<TuitionModel> tuitionsForTeacher(String teacherId) {
+        return tuitions(getReadableDatabase().query("tuitions", null, "teacherId = ?",
+                new String[] { teacherId }, null, null, null));
+    }
+
+    public List<TuitionModel> tuitionsByIds(List<String> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        return tuitions(getReadableDatabase().query("tuitions", null, "id IN (" + placeholders(ids.size()) + ")",
+                ids.toArray(new String[0]), null, null, null));
+    }
+
+    private static List<TuitionModel> tuitions(Cursor c) {
+        List<TuitionModel> out = new ArrayList<>(c.getCount());
+        try {
+            while (c.moveToNext()) {
+                TuitionModel t = new TuitionModel();
+                t.setTuitionId(str(c, "id"));
+                t.setTeacherId(str(c, "teacherId"));
+                t.setTitle(str(c, "title"));
+                t.setSubject(str(c, "subject"));
+                t.setTime(str(c, "time"));
+                t.setFee(str(c, "fee"));
+                t.setFeeMinor(c.getLong(c.getColumnIndexOrThrow("feeMinor")));
+                t.setSlots(TuitionFields.decodeSlots(str(c, "slots")));
+                t.setMaxStudents(c.getInt(c.getColumnIndexOrThrow("maxStudents")));
+                t.setDescription(str(c, "description"));
+                t.setBannerUrl(str(c, "bannerUrl"));
+                t.setLatitude(c.getDouble(c.getColumnIndexOrThrow("latitude")));
+                t.setLongitude(c.getDouble(c.getColumnIndexOrThrow("longitude")));
+                t.setGeohash(str(c, "geohash"));
+                t.setTeacherName(str(c, "teacherName"));
+                t.setTeacherPhoto(str(c, "teacherPhoto"));
+                String tags = str(c, "tags");
+                t.setTags(tags == null ? null
+                        : tags.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(tags.split(TAG_SEPARATOR))));
+                t.setDiscoverRank(c.getDouble(c.getColumnIndexOrThrow("discoverRank")));
+                out.add(t);
+            }
+        } finally {
+            c.close();
+        }
+        return out;
+    }
+
+    // ==========================================
+    //              ENROLLMENTS
+    // ==========================================
+
+    public void putEnrollments(Collection<EnrollmentModel> enrollments) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (EnrollmentModel e : enrollments) insertEnrollment(db, e);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Replaces the student's enrollments with status with the given list, which is the
+     * complete result of the live query (so rows missing from it were deleted upstream).
+     */
+    public void replaceStudentEnrollments(String studentId, String status, Collection<EnrollmentModel> enrollments) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete("enrollments", "studentId = ? AND status = ?", new String[] { studentId, status });
+            for (EnrollmentModel e : enrollments) insertEnrollment(db, e);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /** Same as {@link #replaceTeacherTuitions}, for the enrollments in teacherId's classes. */
+    public void replaceTeacherEnrollments(String teacherId, Collection<EnrollmentModel> enrollments) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete("enrollments", "teacherId = ?", new String[] { teacherId });
+            for (EnrollmentModel e : enrollments) insertEnrollment(db, e);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void deleteEnrollments(Collection<String> ids) {
+        deleteIds("enrollments", ids);
+    }
+
+    public List<EnrollmentModel> enrollmentsForStudent(String studentId) {
+        return enrollments(getReadableDatabase().query("enrollments", null, "studentId = ?",
+                new String[] { studentId }, null, null, "timestamp DESC"));
+    }
+
+    public List<EnrollmentModel> enrollmentsForStudent(String studentId, String status) {
+        return enrollments(getReadableDatabase().query("enrollments", null, "studentId = ? AND status = ?",
+                new String[] { studentId, status }, null, null, "timestamp DESC"));
+    }
+
+    public List<EnrollmentModel> enrollmentsForTeacher(String teacherId) {
+        return enrollments(getReadableDatabase().query("enrollments", null, "teacherId = ?",
+                new String[] { teacherId }, null, null, "timestamp DESC"));
+    }
+
+    private static void insertEnrollment(SQLiteDatabase db, EnrollmentModel e) {
+        if (e == null || e.getEnrollmentId() == null) return;
+        ContentValues v = new ContentValues();
+        v.put("id", e.getEnrollmentId());
+        v.put("studentId", e.getStudentId());
+        v.put("studentName", e.getStudentName());
+        v.put("studentPhoto", e.getStudentPhoto());
+        v.put("teacherId", e.getTeacherId());
+        v.put("tuitionId", e.getTuitionId());
+        v.put("tuitionTitle", e.getTuitionTitle());
+        v.put("status", e.getStatus());
+        v.put("timestamp", millis(e.getTimestamp()));
+        db.insertWithOnConflict("enrollments", null, v, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static List<EnrollmentModel> enrollments(Cursor c) {
+        List<EnrollmentModel> out = new ArrayList<>(c.getCount());
+        try {
+            while (c.moveToNext()) {
+                EnrollmentModel e = new EnrollmentModel();
+                e.setEnrollmentId(str(c, "id"));
+                e.setStudentId(str(c, "studentId"));
+                e.setStudentName(str(c, "studentName"));
+                e.setStudentPhoto(str(c, "studentPhoto"));
+                e.setTeacherId(str(c, "teacherId"));
+                e.setTuitionId(str(c, "tuitionId"));
+                e.setTuitionTitle(str(c, "tuitionTitle"));
+                e.setStatus(str(c, "status"));
+                e.setTimestamp(timestamp(c, "timestamp"));
+                out.add(e);
+            }
+        } finally {
+            c.close();
+        }
+        return out;
+    }
+
+    // ==========================================
+    //              MESSAGES
+    // ==========================================
+
+    public void putMessages(Collection<MessageModel> messages) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (MessageModel m : messages) insertMessage(db, m);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Replaces studentId's cached messages (the given classes' broadcasts plus their own
+     * private messages) with messages, the complete result of the live query.
+     */
+    public void replaceMessagesForTuitions(List<String> tuitionIds, String studentId, Collection<MessageModel> messages) {
+        if (tuitionIds.isEmpty() || studentId == null) return;
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete("messages", messagesOf(tuitionIds.size()), messagesArgs(tuitionIds, studentId));
+            for (MessageModel m : messages) insertMessage(db, m);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void insertMessage(SQLiteDatabase db, MessageModel m) {
+        if (m == null || m.getMessageId() == null) return;
+        ContentValues v = new ContentValues();
+        v.put("id", m.getMessageId());
+        v.put("text", m.getText());
+        v.put("senderId", m.getSenderId());
+        v.put("senderName", m.getSenderName());
+        v.put("teacherPhoto", m.getTeacherPhoto());
+        v.put("tuitionId", m.getTuitionId());
+        v.put("tuitionTitle", m.getTuitionTitle());
+        v.put("studentId", m.getStudentId());
+        v.put("type", m.getType());
+        v.put("broadcast", m.isBroadcast() ? 1 : 0);
+        v.put("timestamp", millis(m.getTimestamp()));
+        v.put("mergedIds", m.getMergedIds() != null ? TextUtils.join(TAG_SEPARATOR, m.getMergedIds()) : null);
+        db.insertWithOnConflict("messages", null, v, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Newest-first messages studentId can see: the given classes' broadcasts and their own
+     * private messages (same streams and order as {@link StudentMessages}).
+     */
+    public List<MessageModel> messagesForTuitions(List<String> tuitionIds, String studentId, int limit) {
+        if (tuitionIds.isEmpty() || studentId == null) return new ArrayList<>();
+        Cursor c = getReadableDatabase().query("messages", null, messagesOf(tuitionIds.size()),
+                messagesArgs(tuitionIds, studentId), null, null, "timestamp DESC", String.valueOf(limit));
+
+        List<MessageModel> out = new ArrayList<>(c.getCount());
+        try {
+            while (c.moveToNext()) {
+                MessageModel m = new MessageModel();
+                m.setMessageId(str(c, "id"));
+                m.setText(str(c, "text"));
+                m.setSenderId(str(c, "senderId"));
+                m.setSenderName(str(c, "senderName"));
+                m.setTeacherPhoto(str(c, "teacherPhoto"));
+                m.setTuitionId(str(c, "tuitionId"));
+                m.setTuitionTitle(str(c, "tuitionTitle"));
+                m.setStudentId(str(c, "studentId"));
+                m.setType(str(c, "type"));
+                m.setBroadcast(c.getInt(c.getColumnIndexOrThrow("broadcast")) != 0);
+                m.setTimestamp(timestamp(c, "timestamp"));
+                String merged = str(c, "mergedIds");
+                if (merged != null && !merged.isEmpty()) m.setMergedIds(Arrays.asList(merged.split(TAG_SEPARATOR)));
+                out.add(m);
+            }
+        } finally {
+            c.close();
+        }
+        return out;
+    }
+
+    public void deleteMessages(Collection<String> ids) {
+        deleteIds("messages", ids);
+    }
+
+    // Broadcasts of the classes, or private to the student; never another student's private rows
+    private static String messagesOf(int tuitionCount) {
+        return "(broadcast = 1 AND tuitionId IN (" + placeholders(tuitionCount) + ")) OR studentId = ?";
+    }
+
+    private static String[] messagesArgs(List<String> tuitionIds, String studentId) {
+        String[] args = tuitionIds.toArray(new String[tuitionIds.size() + 1]);
+        args[tuitionIds.size()] = studentId;
+        return args;
+    }
+
+    // ==========================================
+    //              OWNER
+    // ==========================================
+
+    /**
+     * Makes uid (null when signed out) the owner of the mirror, wiping every table,
+     * sync cursors included, if it held someone else's data.
+     */
+    public synchronized void ensureOwner(String uid) {
+        SQLiteDatabase db = getWritableDatabase();
+        String owner = null;
+        boolean hasOwner;
+        try (Cursor c = db.query("owner", new String[] { "uid" }, null, null, null, null, null)) {
+            hasOwner = c.moveToFirst();
+            if (hasOwner) owner = c.isNull(0) ? null : c.getString(0);
+        }
+        if (hasOwner && TextUtils.equals(owner, uid)) return;
+
+        db.beginTransaction();
+        try {
+            for (String table : Arrays.asList("tuitions", "enrollments", "messages", "sync_cursors", "owner")) {
+                db.delete(table, null, null);
+            }
+            ContentValues v = new ContentValues();
+            v.put("uid", uid);
+            db.insert("owner", null, v);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // ==========================================
+    //              SYNC CURSORS
+    // ==========================================
+
+    /** Last synced updated-at value (epoch micros) for scope, or -1 if it has never synced. */
+    public long getCursor(String scope) {
+        try (Cursor c = getReadableDatabase().query("sync_cursors", new String[] { "cursor" },
+                "scope = ?", new String[] { scope }, null, null, null)) {
+            return c.moveToFirst() ? c.getLong(0) : -1;
+        }
+    }
+
+    public void setCursor(String scope, long cursor) {
+        ContentValues v = new ContentValues();
+        v.put("scope", scope);
+        v.put("cursor", cursor);
+        getWritableDatabase().insertWithOnConflict("sync_cursors", null, v, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // ==========================================
+    //              HELPERS
+    // ==========================================
+
+    private void deleteIds(String table, Collection<String> ids) {
+        if (ids.isEmpty()) return;
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : ids) db.delete(table, "id = ?", new String[] { id });
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static String placeholders(int count) {
+        return TextUtils.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static String str(Cursor c, String column) {
+        int i = c.getColumnIndexOrThrow(column);
+        return c.isNull(i) ? null : c.getString(i);
+    }
+
+    private static Long millis(Timestamp ts) {
+        return ts == null ? null : ts.toDate().getTime();
+    }
+
+    private static Timestamp timestamp(Cursor c, String column) {
+        int i = c.getColumnIndexOrThrow(column);
+        return c.isNull(i) ? null : new Timestamp(new Date(c.getLong(i)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.onrender.tutrnav;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import androidx.core.content.ContextCompat;
+
+/**
+ * Process-wide cache of rasterised map icons, keyed by drawable, tint, size and density.
+ * Vector drawables are only drawn into a bitmap the first time a key is requested;
+ * every map screen after that shares the same immutable Bitmap.
+ */
+public final class MapIconCache {
+
+    /** The pin variants the student map can show. */
+    public enum PinStyle {
+        DEFAULT("#FFCA28", 48),   // Gold, same as the discover cards
+        SELECTED("#FF7043", 56),  // Orange and larger while its bottom sheet is open
+        ENROLLED("#4CAF50", 48),  // Green once approved
+        PENDING("#9E9E9E", 48);   // Grey while the request waits on the teacher
+
+        final String tint;
+        final int sizeDp;
+
+        PinStyle(String tint, int sizeDp) {
+            this.tint = tint;
+            this.sizeDp = sizeDp;
+        }
+    }
+
+    // A 56dp icon at xxxhdpi is ~200KB, so this holds every variant with room to spare
+    private static final int MAX_CACHE_BYTES = 2 * 1024 * 1024;
+
+    private static final LruCache<String, Bitmap> CACHE = new LruCache<String, Bitmap>(MAX_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, Bitmap value) {
+            return value.getByteCount();
+        }
+    };
+
+    private MapIconCache() {}
+
+    public static Bitmap pin(Context context, PinStyle style) {
+        return get(context, R.drawable.ic_pin, style.tint, style.sizeDp, style.sizeDp);
+    }
+
+    public static Bitmap get(Context context, int drawableId, String colorHex, int widthDp, int heightDp) {
+        float density = context.getResources().getDisplayMetrics().density;
+        String key = drawableId + "|" + colorHex + "|" + widthDp + "x" + heightDp + "@" + density;
+
+        Bitmap cached = CACHE.get(key);
+        if (cached != null) return cached;
+
+        Bitmap bitmap = rasterize(context, drawableId, colorHex, (int) (widthDp * density), (int) (heightDp * density));
+        if (bitmap != null) CACHE.put(key, bitmap);
+        return bitmap;
+    }
+
+    private static Bitmap rasterize(Context context, int drawableId, String colorHex, int widthPx, int heightPx) {
+        Drawable drawable = ContextCompat.getDrawable(context, drawableId);
+        if (drawable == null) return null;
+
+        // mutate() so tinting doesn't leak into other users of the same drawable
+        drawable = drawable.mutate();
+        drawable.setTint(Color.parseColor(colorHex));
+
+        Bitmap bitmap = Bitmap.createBitmap(widthPx, heightPx, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        drawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawable.draw(canvas);
+        return bitmap;
+    }
+}
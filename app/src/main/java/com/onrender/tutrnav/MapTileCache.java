@@ -0,0 +1,136 @@
+package com.onrender.tutrnav;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+
+import org.osmdroid.config.Configuration;
+import org.osmdroid.config.IConfigurationProvider;
+import org.osmdroid.tileprovider.cachemanager.CacheManager;
+import org.osmdroid.tileprovider.tilesource.XYTileSource;
+import org.osmdroid.util.BoundingBox;
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.views.MapView;
+
+/**
+ * Disk-first tile caching for the student map.
+ *
+ * osmdroid already serves tiles from its SQLite archive (SqlTileWriter, cache.db)
+ * before touching the network; this class bounds that archive, keeps tiles valid
+ * for longer than the server's short cache headers, and pre-seeds the area around
+ * the student's home so the first map open on slow mobile data is mostly local.
+ */
+public final class MapTileCache {
+
+    public static final String[] CARTO_LIGHT_NO_LABELS_URLS = {
+            "https://a.basemaps.cartocdn.com/light_nolabels/",
+            "https://b.basemaps.cartocdn.com/light_nolabels/",
+            "https://c.basemaps.cartocdn.com/light_nolabels/"
+    };
+
+    private static final String CARTO_NAME = "CartoDB_Light_No_Labels";
+    private static final String CARTO_COPYRIGHT = "© OpenStreetMap contributors, © CARTO";
+
+    // Archive bounds: osmdroid trims oldest-first down to TRIM once MAX is exceeded
+    private static final long MAX_CACHE_BYTES = 200L * 1024 * 1024;
+    private static final long TRIM_CACHE_BYTES = 160L * 1024 * 1024;
+    // Base map changes rarely; ignore the CDN's short expiry for a month
+    private static final long TILE_VALIDITY_MS = 30L * 24 * 60 * 60 * 1000;
+
+    // Pre-seed window: ~3km around home, street level down to city level
+    private static final double SEED_RADIUS_M = 3000;
+    static final int SEED_MIN_ZOOM = 12;
+    static final int SEED_MAX_ZOOM = 17;
+    private static final long RESEED_INTERVAL_MS = 14L * 24 * 60 * 60 * 1000;
+    private static final int SEED_AREA_PRECISION = 5; // ~5km geohash cell identifies "home"
+
+    private static final String PREFS = "MapTileCache";
+    private static final String KEY_SEEDED_AREA = "seededArea";
+    private static final String KEY_SEEDED_AT = "seededAt";
+
+    private MapTileCache() {}
+
+    /**
+     * Applies the cache limits; call right after Configuration.load().
+     */
+    public static void configure() {
+        IConfigurationProvider config = Configuration.getInstance();
+        config.setTileFileSystemCacheMaxBytes(MAX_CACHE_BYTES);
+        config.setTileFileSystemCacheTrimBytes(TRIM_CACHE_BYTES);
+        config.setExpirationExtendedDuration(TILE_VALIDITY_MS);
+    }
+
+    public static XYTileSource createCartoLightNoLabels() {
+        return createCartoLightNoLabels(CARTO_LIGHT_NO_LABELS_URLS, null);
+    }
+
+    /**
+     * Base URLs are injectable so instrumented tests can point the source at a local stand-in server.
+     *
+     * @param colorMatrix optional 4x5 matrix baked into each tile at decode time (see PrefilteredTileSource)
+     */
+    public static XYTileSource createCartoLightNoLabels(String[] baseUrls, float[] colorMatrix) {
+        if (colorMatrix != null) {
+            return new PrefilteredTileSource(CARTO_NAME, 1, 20, 256, ".png", baseUrls, CARTO_COPYRIGHT, colorMatrix);
+        }
+        return new XYTileSource(CARTO_NAME, 1, 20, 256, ".png", baseUrls, CARTO_COPYRIGHT);
+    }
+
+    /**
+     * Downloads zoom 12–17 tiles around home into the archive in the background.
+     * Skipped on metered networks and when the same area was seeded recently.
+     *
+     * @return the running job's manager (cancel with cancelAllJobs()), or null if nothing was started
+     */
+    public static CacheManager prefetchAround(MapView map, GeoPoint home) {
+        Context ctx = map.getContext().getApplicationContext();
+
+        ConnectivityManager cm = (ConnectivityManager) ctx.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (cm == null || cm.isActiveNetworkMetered()) return null;
+
+        SharedPreferences prefs = ctx.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        String area = GeoHash.encode(home.getLatitude(), home.getLongitude(), SEED_AREA_PRECISION);
+        long seededAt = prefs.getLong(KEY_SEEDED_AT, 0);
+        if (area.equals(prefs.getString(KEY_SEEDED_AREA, null))
+                && System.currentTimeMillis() - seededAt < RESEED_INTERVAL_MS) {
+            return null;
+        }
+
+        return seed(map, home, new CacheManager.CacheManagerCallback() {
+            @Override
+            public void onTaskComplete() {
+                prefs.edit()
+                        .putString(KEY_SEEDED_AREA, area)
+                        .putLong(KEY_SEEDED_AT, System.currentTimeMillis())
+                        .apply();
+            }
+
+            @Override public void onTaskFailed(int errors) {} // Retried on the next map open
+            @Override public void updateProgress(int progress, int currentZoomLevel, int zoomMin, int zoomMax) {}
+            @Override public void downloadStarted() {}
+            @Override public void setPossibleTilesInArea(int total) {}
+        });
+    }
+
+    /** The box pre-seeded around home: {@link #SEED_RADIUS_M} on every side. */
+    static BoundingBox seedArea(GeoPoint home) {
+        double dLat = Math.toDegrees(SEED_RADIUS_M / GeoMath.EARTH_RADIUS_M);
+        double dLng = dLat / Math.max(0.01, Math.cos(Math.toRadians(home.getLatitude())));
+        return new BoundingBox(
+                home.getLatitude() + dLat, home.getLongitude() + dLng,
+                home.getLatitude() - dLat, home.getLongitude() - dLng);
+    }
+
+    /** Starts the download without the network and recency checks; null if the source forbids it. */
+    static CacheManager seed(MapView map, GeoPoint home, CacheManager.CacheManagerCallback callback) {
+        CacheManager manager;
+        try {
+            manager = new CacheManager(map);
+        } catch (Exception e) {
+            return null; // Tile source forbids bulk download
+        }
+        manager.downloadAreaAsyncNoUI(map.getContext().getApplicationContext(), seedArea(home),
+                SEED_MIN_ZOOM, SEED_MAX_ZOOM, callback);
+        return manager;
+    }
+}
@@ -8,11 +8,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.ColorMatrixColorFilter;
-import android.graphics.drawable.Drawable;
-import android.location.Location;
 import android.net.Uri;
 import android.os.Bundle;
 import android.preference.PreferenceManager;
@@ -37,20 +33,26 @@ import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import org.osmdroid.config.Configuration;
+import org.osmdroid.events.DelayedMapListener;
+import org.osmdroid.events.MapListener;
+import org.osmdroid.events.ScrollEvent;
+import org.osmdroid.events.ZoomEvent;
+import org.osmdroid.tileprovider.cachemanager.CacheManager;
 import org.osmdroid.tileprovider.tilesource.XYTileSource;
+import org.osmdroid.util.BoundingBox;
 import org.osmdroid.util.GeoPoint;
 import org.osmdroid.views.MapView;
-import org.osmdroid.views.overlay.FolderOverlay;
-import org.osmdroid.views.overlay.Marker;
 import org.osmdroid.views.overlay.mylocation.GpsMyLocationProvider;
 import org.osmdroid.views.overlay.mylocation.MyLocationNewOverlay;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -70,13 +72,35 @@ public class MapsFragment extends Fragment {
     private MaterialButton btnEnroll, btnReport;
 
     // --- Data & Map Overlays ---
-    private List<TuitionModel> allTuitions = new ArrayList<>();
+    private final Map<String, TuitionModel> tuitionsById = new LinkedHashMap<>();
     private GeoPoint userLocation;
-    private FolderOverlay tuitionMarkersOverlay;
+    private TuitionClusterOverlay clusterOverlay;
+    private final Map<MapIconCache.PinStyle, Bitmap> pinIcons = new EnumMap<>(MapIconCache.PinStyle.class);
+    private final Map<String, String> myEnrollmentStatus = new HashMap<>(); // tuitionId -> status
+    private String selectedTuitionId;
     private MyLocationNewOverlay locationOverlay;
+    private ViewportTuitionLoader tuitionLoader;
+    private CacheManager tileSeeder;
 
     private static final int LOCATION_REQUEST_CODE = 1001;
 
+    // This matrix boosts Blue and slightly reduces Red/Green contrast.
+    // On the white map, this turns the light gray roads into a sharp, cool Steel/Neon Blue
+    // while keeping the land white.
+    private static final float[] NEON_ROAD_MATRIX = {
+            1f,    0f,    0f,    0f,   0,    // Red: Standard
+            0f,    1f,    0f,    0f,   0,    // Green: Standard
+            0f,    0f,    1.8f,  0f,   0,    // Blue: BOOSTED (Turns gray roads blue)
+            0f,    0f,    0f,    1f,   0     // Alpha
+    };
+    // Bake the road colour into tiles once at decode time instead of on every frame
+    private static final boolean PREFILTER_TILES = true;
+
+    private static final int CLUSTER_ZOOM_PADDING_PX = 120;
+    private static final int MAP_IDLE_DEBOUNCE_MS = 400;
+    private static final double VIEWPORT_MARGIN = 0.5; // Extra half-viewport on every side
+    private static final double DEFAULT_VIEW_RADIUS_M = 3000;
+
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -84,6 +108,7 @@ public class MapsFragment extends Fragment {
         Context ctx = requireContext();
         Configuration.getInstance().load(ctx, PreferenceManager.getDefaultSharedPreferences(ctx));
         Configuration.getInstance().setUserAgentValue(ctx.getPackageName());
+        MapTileCache.configure();
     }
 
     @Nullable
@@ -94,12 +119,27 @@ public class MapsFragment extends Fragment {
         // Init Firebase
         db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
+        tuitionLoader = new ViewportTuitionLoader(db, new ViewportTuitionLoader.OnTuitionsChangedListener() {
+            @Override
+            public void onTuitionsChanged(List<TuitionModel> upserted, List<String> removedIds) {
+                MapsFragment.this.onTuitionsChanged(upserted, removedIds);
+            }
+
+            @Override
+            public void onOverviewChanged(boolean showingOverview) {
+                // Zoomed out, the map only carries the top listings; say so rather than look empty
+                if (showingOverview && isAdded()) {
+                    Toast.makeText(getContext(), "Showing top classes. Zoom in to see every class nearby.",
+                            Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
 
         initViews(view);
         setupMapStyle(); // Sets up the White Land / Neon Blue Road style
         setupBottomSheet();
-        checkLocationPermission();
-        fetchTuitions();
+        checkLocationPermission(); // Tuitions are fetched once we know where to look
+        loadMyEnrollmentStatuses();
 
         return view;
     }
@@ -112,10 +152,9 @@ public class MapsFragment extends Fragment {
             viewModel.getSelected().observe(getViewLifecycleOwner(), tuition -> {
                 if (tuition != null && map != null) {
                     GeoPoint target = new GeoPoint(tuition.getLatitude(), tuition.getLongitude());
-                    map.getController().animateTo(target);
+                    fetchTuitionsAround(target);
                     map.getController().setZoom(16.0);
-                    populateBottomSheet(tuition);
-                    bottomSheetBehavior.setState(BottomSheetBehavior.STATE_COLLAPSED);
+                    showTuition(tuition);
                 }
             });
         } catch (Exception e) {
@@ -173,34 +212,20 @@ public class MapsFragment extends Fragment {
         // --- 1. WHITE LAND / NO LABELS SOURCE ---
         // Using "CartoDB Light No Labels".
         // This provides a pure clean base: White land, Light Gray roads, No Text.
-        XYTileSource cleanWhiteSource = new XYTileSource(
-                "CartoDB_Light_No_Labels",
-                1, 20, 256, ".png",
-                new String[] {
-                        "https://a.basemaps.cartocdn.com/light_nolabels/",
-                        "https://b.basemaps.cartocdn.com/light_nolabels/",
-                        "https://c.basemaps.cartocdn.com/light_nolabels/"
-                },
-                "© OpenStreetMap contributors, © CARTO"
-        );
+        // Tiles are read from the on-disk archive first (see MapTileCache).
+        XYTileSource cleanWhiteSource = MapTileCache.createCartoLightNoLabels(
+                MapTileCache.CARTO_LIGHT_NO_LABELS_URLS,
+                PREFILTER_TILES ? NEON_ROAD_MATRIX : null);
 
         map.setTileSource(cleanWhiteSource);
         map.setBuiltInZoomControls(false);
         map.setMultiTouchControls(true);
 
         // --- 2. SHARP BLUE ROAD FILTER ---
-        // This matrix boosts Blue and slightly reduces Red/Green contrast.
-        // On the white map, this turns the light gray roads into a sharp, cool Steel/Neon Blue
-        // while keeping the land white.
-        float[] matrix = {
-                1f,    0f,    0f,    0f,   0,    // Red: Standard
-                0f,    1f,    0f,    0f,   0,    // Green: Standard
-                0f,    0f,    1.8f,  0f,   0,    // Blue: BOOSTED (Turns gray roads blue)
-                0f,    0f,    0f,    1f,   0     // Alpha
-        };
-
-        ColorMatrixColorFilter filter = new ColorMatrixColorFilter(matrix);
-        map.getOverlayManager().getTilesOverlay().setColorFilter(filter);
+        // Pre-filtered tiles already carry the colour; otherwise filter every tile at draw time.
+        if (!PREFILTER_TILES) {
+            map.getOverlayManager().getTilesOverlay().setColorFilter(new ColorMatrixColorFilter(NEON_ROAD_MATRIX));
+        }
 
         // --- 3. PREVENT FRAGMENT SWIPING ---
         map.setOnTouchListener((v, event) -> {
@@ -215,68 +240,153 @@ public class MapsFragment extends Fragment {
             return false;
         });
 
-        tuitionMarkersOverlay = new FolderOverlay();
-        map.getOverlays().add(tuitionMarkersOverlay);
-
-        map.getController().setZoom(15.0);
-    }
+        // --- 4. ONE CLUSTERING OVERLAY FOR ALL TUITION PINS ---
+        // Each variant is rasterised once (and shared app-wide); draws only do map lookups
+        for (MapIconCache.PinStyle style : MapIconCache.PinStyle.values()) {
+            pinIcons.put(style, MapIconCache.pin(requireContext(), style));
+        }
+        clusterOverlay = new TuitionClusterOverlay(map, this::pinIconFor, new TuitionClusterOverlay.OnClusterTapListener() {
+            @Override
+            public void onTuitionTapped(TuitionModel tuition) {
+                showTuition(tuition);
+            }
 
-    private void fetchTuitions() {
-        db.collection("tuitions").get().addOnSuccessListener(queryDocumentSnapshots -> {
-            allTuitions.clear();
-            for (DocumentSnapshot doc : queryDocumentSnapshots) {
-                try {
-                    TuitionModel t = doc.toObject(TuitionModel.class);
-                    if(t != null) allTuitions.add(t);
-                } catch (Exception e) {
-                    // Ignore malformed
-                }
+            @Override
+            public void onClusterTapped(TuitionClusterer.Cluster cluster) {
+                zoomIntoCluster(cluster);
             }
-            displayMarkers();
         });
+        map.getOverlays().add(clusterOverlay);
+
+        // --- 5. LOAD NEWLY EXPOSED CELLS ONCE THE MAP SETTLES ---
+        map.addMapListener(new DelayedMapListener(new MapListener() {
+            @Override
+            public boolean onScroll(ScrollEvent event) {
+                loadVisibleViewport();
+                return false;
+            }
+
+            @Override
+            public boolean onZoom(ZoomEvent event) {
+                loadVisibleViewport();
+                return false;
+            }
+        }, MAP_IDLE_DEBOUNCE_MS));
+
+        map.getController().setZoom(15.0);
     }
 
-    private void displayMarkers() {
-        if (tuitionMarkersOverlay == null) return;
-        tuitionMarkersOverlay.getItems().clear();
-
-        if (userLocation != null && !allTuitions.isEmpty()) {
-            Collections.sort(allTuitions, (t1, t2) -> {
-                float[] res1 = new float[1];
-                float[] res2 = new float[1];
-                Location.distanceBetween(userLocation.getLatitude(), userLocation.getLongitude(), t1.getLatitude(), t1.getLongitude(), res1);
-                Location.distanceBetween(userLocation.getLatitude(), userLocation.getLongitude(), t2.getLatitude(), t2.getLongitude(), res2);
-                return Float.compare(res1[0], res2[0]);
-            });
+    /**
+     * Loads the tuitions around a point we're about to move the camera to, using the
+     * current viewport size plus a margin. Pans and zooms afterwards go through the map listener.
+     */
+    private void fetchTuitionsAround(GeoPoint center) {
+        double latSpan = 0, lngSpan = 0;
+        BoundingBox box = map.getBoundingBox();
+        if (box != null) {
+            latSpan = box.getLatitudeSpan();
+            lngSpan = box.getLongitudeSpan();
+        }
+        if (latSpan <= 0 || lngSpan <= 0) {
+            // Map not laid out yet: assume a city-sized view
+            latSpan = Math.toDegrees(2 * DEFAULT_VIEW_RADIUS_M / GeoMath.EARTH_RADIUS_M);
+            lngSpan = latSpan / Math.max(0.01, Math.cos(Math.toRadians(center.getLatitude())));
         }
+        double halfLat = latSpan * (0.5 + VIEWPORT_MARGIN);
+        double halfLng = lngSpan * (0.5 + VIEWPORT_MARGIN);
 
-        int count = 0;
-        for(TuitionModel t : allTuitions) {
-            if(count++ > 30) break;
-            if(Math.abs(t.getLatitude()) < 0.1) continue;
-
-            Marker marker = new Marker(map);
-            marker.setPosition(new GeoPoint(t.getLatitude(), t.getLongitude()));
-            marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
-            marker.setTitle(t.getTitle());
-
-            // --- 4. ICON: TUITION PIN (48dp) ---
-            Bitmap iconBitmap = getBitmapFromVectorDrawable(requireContext(), R.drawable.ic_pin, "#FFCA28", 48, 48);
-            if(iconBitmap != null) {
-                Drawable d = new android.graphics.drawable.BitmapDrawable(getResources(), iconBitmap);
-                marker.setIcon(d);
-            }
+        tuitionLoader.loadBoundingBox(
+                center.getLatitude() - halfLat, center.getLongitude() - halfLng,
+                center.getLatitude() + halfLat, center.getLongitude() + halfLng);
+    }
+
+    private void loadVisibleViewport() {
+        BoundingBox box = map.getBoundingBox();
+        if (box == null || box.getLatitudeSpan() <= 0) return;
+        double marginLat = box.getLatitudeSpan() * VIEWPORT_MARGIN;
+        double marginLng = box.getLongitudeSpan() * VIEWPORT_MARGIN;
+
+        tuitionLoader.loadBoundingBox(
+                box.getLatSouth() - marginLat, box.getLonWest() - marginLng,
+                box.getLatNorth() + marginLat, box.getLonEast() + marginLng);
+    }
+
+    /**
+     * Reconciles the map with per-document changes keyed by tuitionId. Only additions,
+     * removals and moves need a recluster; detail edits patch the drawn pins in place.
+     */
+    private void onTuitionsChanged(List<TuitionModel> upserted, List<String> removedIds) {
+        if (!isAdded() || clusterOverlay == null) return;
 
-            marker.setOnMarkerClickListener((m, mapView) -> {
-                map.getController().animateTo(m.getPosition());
+        boolean layoutChanged = false;
+        for (String id : removedIds) {
+            if (tuitionsById.remove(id) != null) layoutChanged = true;
+        }
+        for (TuitionModel t : upserted) {
+            TuitionModel previous = tuitionsById.put(t.getTuitionId(), t);
+            if (previous == null
+                    || previous.getLatitude() != t.getLatitude()
+                    || previous.getLongitude() != t.getLongitude()) {
+                layoutChanged = true;
+            }
+            // Keep an open bottom sheet in sync with live edits
+            if (t.getTuitionId() != null && t.getTuitionId().equals(selectedTuitionId)) {
                 populateBottomSheet(t);
-                bottomSheetBehavior.setState(BottomSheetBehavior.STATE_COLLAPSED);
-                return true;
-            });
+            }
+        }
+
+        if (layoutChanged) {
+            clusterOverlay.setTuitions(new ArrayList<>(tuitionsById.values()));
+        } else if (!upserted.isEmpty()) {
+            clusterOverlay.replaceTuitions(upserted);
+        }
+    }
 
-            tuitionMarkersOverlay.add(marker);
+    private Bitmap pinIconFor(TuitionModel t) {
+        if (t.getTuitionId() != null && t.getTuitionId().equals(selectedTuitionId)) {
+            return pinIcons.get(MapIconCache.PinStyle.SELECTED);
         }
+        String status = myEnrollmentStatus.get(t.getTuitionId());
+        if ("approved".equals(status)) return pinIcons.get(MapIconCache.PinStyle.ENROLLED);
+        if ("pending".equals(status)) return pinIcons.get(MapIconCache.PinStyle.PENDING);
+        return pinIcons.get(MapIconCache.PinStyle.DEFAULT);
+    }
+
+    private void loadMyEnrollmentStatuses() {
+        FirebaseUser user = mAuth.getCurrentUser();
+        if (user == null) return;
+
+        db.collection("enrollments")
+                .whereEqualTo("studentId", user.getUid())
+                .get()
+                .addOnSuccessListener(snapshots -> {
+                    if (!isAdded()) return;
+                    myEnrollmentStatus.clear();
+                    for (DocumentSnapshot doc : snapshots) {
+                        String tuitionId = doc.getString("tuitionId");
+                        if (tuitionId != null) myEnrollmentStatus.put(tuitionId, doc.getString("status"));
+                    }
+                    map.invalidate();
+                });
+    }
+
+    private void showTuition(TuitionModel t) {
+        selectedTuitionId = t.getTuitionId();
         map.invalidate();
+        map.getController().animateTo(new GeoPoint(t.getLatitude(), t.getLongitude()));
+        populateBottomSheet(t);
+        bottomSheetBehavior.setState(BottomSheetBehavior.STATE_COLLAPSED);
+    }
+
+    private void zoomIntoCluster(TuitionClusterer.Cluster cluster) {
+        if (map.getZoomLevelDouble() >= map.getMaxZoomLevel() - 0.5) {
+            // Can't split further (same building): open the first one
+            showTuition(cluster.getMembers().get(0));
+            return;
+        }
+        List<GeoPoint> points = new ArrayList<>();
+        for (TuitionModel t : cluster.getMembers()) points.add(new GeoPoint(t.getLatitude(), t.getLongitude()));
+        map.zoomToBoundingBox(BoundingBox.fromGeoPoints(points), true, CLUSTER_ZOOM_PADDING_PX);
     }
 
     private void populateBottomSheet(TuitionModel t) {
@@ -352,12 +462,15 @@ public class MapsFragment extends Fragment {
         enrollment.put("tuitionTitle", t.getTitle());
         enrollment.put("status", "pending");
         enrollment.put("timestamp", System.currentTimeMillis());
+        enrollment.put(CacheSync.UPDATED_AT, FieldValue.serverTimestamp());
 
         db.collection("enrollments").add(enrollment)
                 .addOnSuccessListener(docRef -> {
                     Toast.makeText(getContext(), "Request Sent!", Toast.LENGTH_SHORT).show();
                     btnEnroll.setText("Pending");
                     btnEnroll.setEnabled(false);
+                    myEnrollmentStatus.put(t.getTuitionId(), "pending");
+                    map.invalidate();
                 })
                 .addOnFailureListener(e -> Toast.makeText(getContext(), "Failed", Toast.LENGTH_SHORT).show());
     }
@@ -401,6 +514,12 @@ public class MapsFragment extends Fragment {
         if (requestCode == LOCATION_REQUEST_CODE) {
             if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
                 setupUserLocation();
+            } else {
+                // No GPS: browse from the centre of India like the location picker
+                GeoPoint fallback = new GeoPoint(20.5937, 78.9629);
+                map.getController().setZoom(5.0);
+                map.getController().setCenter(fallback);
+                fetchTuitionsAround(fallback);
             }
         }
     }
@@ -409,8 +528,8 @@ public class MapsFragment extends Fragment {
         locationOverlay = new MyLocationNewOverlay(new GpsMyLocationProvider(requireContext()), map);
         locationOverlay.enableMyLocation();
 
-        // --- 5. ICON: USER LOCATOR (40dp) ---
-        Bitmap personIcon = getBitmapFromVectorDrawable(requireContext(), R.drawable.ic_locator, "#00E5FF", 40, 40);
+        // --- 6. ICON: USER LOCATOR (40dp) ---
+        Bitmap personIcon = MapIconCache.get(requireContext(), R.drawable.ic_locator, "#00E5FF", 40, 40);
         if (personIcon != null) {
             locationOverlay.setPersonIcon(personIcon);
             locationOverlay.setDirectionIcon(personIcon);
@@ -424,7 +543,8 @@ public class MapsFragment extends Fragment {
                     userLocation = locationOverlay.getMyLocation();
                     if(userLocation != null) {
                         map.getController().animateTo(userLocation);
-                        displayMarkers();
+                        fetchTuitionsAround(userLocation);
+                        tileSeeder = MapTileCache.prefetchAround(map, userLocation);
                     }
                 });
             }
@@ -440,26 +560,6 @@ public class MapsFragment extends Fragment {
         });
     }
 
-    // --- HELPER METHOD: RESIZABLE ICONS ---
-    private Bitmap getBitmapFromVectorDrawable(Context context, int drawableId, String colorHex, int widthDp, int heightDp) {
-        Drawable drawable = ContextCompat.getDrawable(context, drawableId);
-        if (drawable == null) return null;
-
-        drawable.setTint(Color.parseColor(colorHex));
-
-        // Convert DP to Pixels for sizing
-        float density = context.getResources().getDisplayMetrics().density;
-        int widthPx = (int) (widthDp * density);
-        int heightPx = (int) (heightDp * density);
-
-        // Create Bitmap with specified size
-        Bitmap bitmap = Bitmap.createBitmap(widthPx, heightPx, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
-        drawable.setBounds(0, 0, canvas.getWidth(), canvas.getHeight());
-        drawable.draw(canvas);
-        return bitmap;
-    }
-
     @Override
     public void onResume() {
         super.onResume();
@@ -472,4 +572,11 @@ public class MapsFragment extends Fragment {
         super.onPause();
         if (map != null) map.onPause();
     }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (tuitionLoader != null) tuitionLoader.release();
+        if (tileSeeder != null) tileSeeder.cancelAllJobs();
+    }
 }
\ No newline at end of file
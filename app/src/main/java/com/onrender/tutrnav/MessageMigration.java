@@ -0,0 +1,218 @@
+package com.onrender.tutrnav;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * One-off rewrite of a teacher's old per-student broadcast copies into single class
+ * broadcast documents (see {@link StudentMessages}).
+ *
+ * Broadcasts used to be written once per student, each copy carrying a studentId and a
+ * timestamp from its own loop iteration. Copies of one send are recognised as the same
+ * class, sender and text within {@link #SAME_SEND_WINDOW_MS}. A group is only collapsed
+ * when its students are exactly the class's approved roster today; anything narrower (a
+ * student has left, or the send only went to some) stays as private copies, since a class
+ * broadcast would reach students it was never sent to.
+ *
+ * The copy with the lowest id is kept and turned into the broadcast in place, and lists
+ * the other copies' ids so a student who dismissed their own copy still has it dismissed
+ * ({@link DismissedNotifications#contains(MessageModel)}). The other copies are deleted.
+ * Until it runs, students still get their own copy through the private stream.
+ */
+public final class MessageMigration {
+
+    private static final String TAG = "MessageMigration";
+    private static final String PREFS = "Migrations";
+    private static final long SAME_SEND_WINDOW_MS = 60_000;
+
+    private MessageMigration() {}
+
+    /** Runs the migration for teacherId once per device; retried on the next launch if it fails. */
+    public static void migrateBroadcastsOnce(Context context, FirebaseFirestore db, String teacherId) {
+        SharedPreferences prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        // A new key so devices that ran the roster-blind version look again
+        String key = "broadcastCopiesByRoster_" + teacherId;
+        if (prefs.getBoolean(key, false)) return;
+
+        migrateBroadcasts(db, teacherId)
+                .addOnSuccessListener(groups -> {
+                    Log.i(TAG, "Collapsed " + groups + " broadcasts into class documents");
+                    prefs.edit().putBoolean(key, true).apply();
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Broadcast migration failed; will retry", e));
+    }
+
+    /** Resolves to the number of broadcasts collapsed. */
+    static Task<Integer> migrateBroadcasts(FirebaseFirestore db, String teacherId) {
+        CollectionReference messages = db.collection("messages");
+        Task<QuerySnapshot> copies = messages.whereEqualTo("senderId", teacherId)
+                .whereEqualTo("type", "BROADCAST")
+                .get();
+        Task<QuerySnapshot> approved = db.collection("enrollments").whereEqualTo("teacherId", teacherId)
+                .whereEqualTo("status", "approved")
+                .get();
+        return Tasks.whenAll(copies, approved).continueWithTask(loaded -> {
+            if (!loaded.isSuccessful()) throw Objects.requireNonNull(loaded.getException());
+            Map<String, Set<String>> rosters = rosters(approved.getResult());
+
+            List<WriteBatch> batches = new ArrayList<>();
+            int collapsed = 0;
+            for (List<DocumentSnapshot> group : groupCopies(copies.getResult())) {
+                if (!isResumed(group) && !studentsOf(group).equals(rosters.get(group.get(0).getString("tuitionId")))) {
+                    continue; // Not the whole class: leave the private copies as they are
+                }
+                batches.addAll(collapse(db, group));
+                collapsed++;
+            }
+
+            // Sequential: a group split over several batches keeps its order (see collapse)
+            Task<Void> chain = Tasks.forResult(null);
+            for (WriteBatch batch : batches) chain = chain.continueWithTask(t -> {
+                if (!t.isSuccessful()) return t;
+                return batch.commit();
+            });
+            int total = collapsed;
+            return chain.continueWith(t -> {
+                if (!t.isSuccessful()) throw Objects.requireNonNull(t.getException());
+                return total;
+            });
+        });
+    }
+
+    // tuitionId -> studentIds of its approved enrollments
+    private static Map<String, Set<String>> rosters(QuerySnapshot snapshot) {
+        Map<String, Set<String>> rosters = new HashMap<>();
+        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+            String tuitionId = doc.getString("tuitionId");
+            String studentId = doc.getString("studentId");
+            if (tuitionId == null || studentId == null) continue;
+            Set<String> roster = rosters.get(tuitionId);
+            if (roster == null) rosters.put(tuitionId, roster = new HashSet<>());
+            roster.add(studentId);
+        }
+        return rosters;
+    }
+
+    private static Set<String> studentsOf(List<DocumentSnapshot> group) {
+        Set<String> students = new HashSet<>();
+        for (DocumentSnapshot doc : group) students.add(doc.getString(StudentMessages.FIELD_STUDENT));
+        return students;
+    }
+
+    // A group that already holds its broadcast was cut short by a failed batch; finish it
+    private static boolean isResumed(List<DocumentSnapshot> group) {
+        return keeperOf(group).getString(StudentMessages.FIELD_STUDENT) == null;
+    }
+
+    /**
+     * Copies grouped by send, oldest first. Broadcasts left by an earlier, interrupted run
+     * join the group of their remaining copies; groups with no copies left are dropped.
+     */
+    private static List<List<DocumentSnapshot>> groupCopies(QuerySnapshot snapshot) {
+        List<DocumentSnapshot> docs = new ArrayList<>();
+        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+            if (doc.getString("tuitionId") == null) continue;
+            if (doc.getString(StudentMessages.FIELD_STUDENT) != null
+                    || Boolean.TRUE.equals(doc.getBoolean(StudentMessages.FIELD_BROADCAST))) docs.add(doc);
+        }
+        Collections.sort(docs, Comparator.comparingLong(MessageMigration::millis));
+
+        Map<String, List<DocumentSnapshot>> open = new HashMap<>();
+        List<List<DocumentSnapshot>> groups = new ArrayList<>();
+        for (DocumentSnapshot doc : docs) {
+            String key = doc.getString("tuitionId") + "\u0000" + doc.getString("text");
+            List<DocumentSnapshot> group = open.get(key);
+            if (group == null || millis(doc) - millis(group.get(0)) > SAME_SEND_WINDOW_MS) {
+                group = new ArrayList<>();
+                open.put(key, group);
+                groups.add(group);
+            }
+            group.add(doc);
+        }
+
+        List<List<DocumentSnapshot>> withCopies = new ArrayList<>();
+        for (List<DocumentSnapshot> group : groups) {
+            for (DocumentSnapshot doc : group) {
+                if (doc.getString(StudentMessages.FIELD_STUDENT) != null) {
+                    withCopies.add(group);
+                    break;
+                }
+            }
+        }
+        return withCopies;
+    }
+
+    // The broadcast from an interrupted run, otherwise the copy with the lowest id
+    private static DocumentSnapshot keeperOf(List<DocumentSnapshot> group) {
+        DocumentSnapshot keeper = null;
+        for (DocumentSnapshot doc : group) {
+            if (doc.getString(StudentMessages.FIELD_STUDENT) == null) return doc;
+            if (keeper == null || doc.getId().compareTo(keeper.getId()) < 0) keeper = doc;
+        }
+        return keeper;
+    }
+
+    /**
+     * Batches that turn group's keeper into the class broadcast and delete the other copies.
+     * A group that fits one batch is swapped atomically. A larger one (over 499 students)
+     * spans several batches, keeper first; a rerun after a partial failure finds the keeper
+     * already converted and only deletes the copies that are left.
+     */
+    private static List<WriteBatch> collapse(FirebaseFirestore db, List<DocumentSnapshot> group) {
+        DocumentSnapshot keeper = keeperOf(group);
+        List<DocumentSnapshot> deletes = new ArrayList<>(group);
+        deletes.remove(keeper);
+        List<Object> mergedIds = new ArrayList<>();
+        for (DocumentSnapshot doc : deletes) mergedIds.add(doc.getId());
+
+        Map<String, Object> broadcast = new HashMap<>();
+        broadcast.put(StudentMessages.FIELD_STUDENT, FieldValue.delete());
+        broadcast.put(StudentMessages.FIELD_BROADCAST, true);
+        broadcast.put("timestamp", new Timestamp(new Date(millis(group.get(0)))));
+        // Union, so a resumed run adds to the ids listed by the first one
+        broadcast.put(StudentMessages.FIELD_MERGED_IDS, FieldValue.arrayUnion(mergedIds.toArray()));
+
+        List<WriteBatch> batches = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        batch.update(keeper.getReference(), broadcast);
+        int ops = 1;
+        for (DocumentSnapshot doc : deletes) {
+            if (ops == BroadcastDispatcher.MAX_BATCH_WRITES) {
+                batches.add(batch);
+                batch = db.batch();
+                ops = 0;
+            }
+            batch.delete(doc.getReference());
+            ops++;
+        }
+        batches.add(batch);
+        return batches;
+    }
+
+    private static long millis(DocumentSnapshot doc) {
+        Timestamp ts = doc.getData() != null ? ModelMappers.timestamp(doc.getData(), "timestamp") : null;
+        return ts != null ? ts.toDate().getTime() : 0;
+    }
+}
@@ -2,7 +2,18 @@ package com.onrender.tutrnav;
 
 import com.google.firebase.Timestamp;
 
+import java.util.Comparator;
+import java.util.List;
+
 public class MessageModel {
+
+    /** Same order as the messages queries (timestamp descending); undated messages last. */
+    public static final Comparator<MessageModel> NEWEST_FIRST = (a, b) -> {
+        Timestamp ta = a.getTimestamp(), tb = b.getTimestamp();
+        if (ta == null || tb == null) return ta == null ? (tb == null ? 0 : 1) : -1;
+        return tb.compareTo(ta);
+    };
+
     private String messageId;
     private String text;
     private String senderId;
@@ -10,9 +21,11 @@ public class MessageModel {
     private String teacherPhoto;
     private String tuitionId;
     private String tuitionTitle;
+    private String studentId; // Set on private messages only
     private String type; // "NORMAL", "IMPORTANT", "FEE"
     private boolean isBroadcast; // Added this back to match your previous logic
     private Timestamp timestamp;
+    private List<String> mergedIds; // Copies this broadcast replaced; null on most messages
 
     public MessageModel() {}
 
@@ -36,9 +49,11 @@ public class MessageModel {
     public String getTeacherPhoto() { return teacherPhoto; }
     public String getTuitionId() { return tuitionId; }
     public String getTuitionTitle() { return tuitionTitle; }
+    public String getStudentId() { return studentId; }
     public String getType() { return type; }
     public boolean isBroadcast() { return isBroadcast; }
     public Timestamp getTimestamp() { return timestamp; }
+    public List<String> getMergedIds() { return mergedIds; }
 
     // --- CRITICAL: SETTERS FOR FIRESTORE ---
     public void setMessageId(String messageId) { this.messageId = messageId; }
@@ -48,7 +63,9 @@ public class MessageModel {
     public void setTeacherPhoto(String teacherPhoto) { this.teacherPhoto = teacherPhoto; }
     public void setTuitionId(String tuitionId) { this.tuitionId = tuitionId; }
     public void setTuitionTitle(String tuitionTitle) { this.tuitionTitle = tuitionTitle; }
+    public void setStudentId(String studentId) { this.studentId = studentId; }
     public void setType(String type) { this.type = type; }
     public void setBroadcast(boolean broadcast) { isBroadcast = broadcast; } // Note: Firestore maps "isBroadcast" to "broadcast" usually
     public void setTimestamp(Timestamp timestamp) { this.timestamp = timestamp; }
+    public void setMergedIds(List<String> mergedIds) { this.mergedIds = mergedIds; }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.onrender.tutrnav;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Objects;
+
+/**
+ * DiffUtil callbacks and stable ids shared by the list adapters.
+ *
+ * Items are matched by document id and compared on the fields the rows display.
+ * Snapshot mapping always produces fresh model objects, so an unchanged document
+ * compares equal here and its row is neither rebound nor has its image reloaded.
+ */
+public final class ModelDiffs {
+
+    private ModelDiffs() {}
+
+    /**
+     * 64-bit stable id for a document id (FNV-1a), for adapters with setHasStableIds(true).
+     */
+    public static long stableId(String id) {
+        if (id == null) return 0;
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    public static final DiffUtil.ItemCallback<TuitionModel> TUITION = new DiffUtil.ItemCallback<TuitionModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TuitionModel a, @NonNull TuitionModel b) {
+            return Objects.equals(a.getTuitionId(), b.getTuitionId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TuitionModel a, @NonNull TuitionModel b) {
+            return Objects.equals(a.getTitle(), b.getTitle())
+                    && Objects.equals(a.getSubject(), b.getSubject())
+                    && Objects.equals(a.getTime(), b.getTime())
+                    && Objects.equals(a.getFee(), b.getFee())
+                    && a.getMaxStudents() == b.getMaxStudents()
+                    && Objects.equals(a.getDescription(), b.getDescription())
+                    && Objects.equals(a.getBannerUrl(), b.getBannerUrl())
+                    && Objects.equals(a.getTeacherName(), b.getTeacherName())
+                    && Objects.equals(a.getTeacherPhoto(), b.getTeacherPhoto())
+                    && Objects.equals(a.getTags(), b.getTags());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<EnrollmentModel> ENROLLMENT = new DiffUtil.ItemCallback<EnrollmentModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EnrollmentModel a, @NonNull EnrollmentModel b) {
+            return Objects.equals(a.getEnrollmentId(), b.getEnrollmentId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EnrollmentModel a, @NonNull EnrollmentModel b) {
+            return Objects.equals(a.getStatus(), b.getStatus())
+                    && Objects.equals(a.getStudentName(), b.getStudentName())
+                    && Objects.equals(a.getStudentPhoto(), b.getStudentPhoto())
+                    && Objects.equals(a.getTuitionId(), b.getTuitionId())
+                    && Objects.equals(a.getTuitionTitle(), b.getTuitionTitle())
+                    && Objects.equals(a.getTeacherId(), b.getTeacherId());
+        }
+    };
+
+    public static final DiffUtil.ItemCallback<MessageModel> MESSAGE = new DiffUtil.ItemCallback<MessageModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull MessageModel a, @NonNull MessageModel b) {
+            return Objects.equals(a.getMessageId(), b.getMessageId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull MessageModel a, @NonNull MessageModel b) {
+            return Objects.equals(a.getText(), b.getText())
+                    && Objects.equals(a.getSenderName(), b.getSenderName())
+                    && Objects.equals(a.getTeacherPhoto(), b.getTeacherPhoto())
+                    && Objects.equals(a.getTuitionTitle(), b.getTuitionTitle())
+                    && Objects.equals(a.getType(), b.getType())
+                    && Objects.equals(a.getTimestamp(), b.getTimestamp());
+        }
+    };
+
+    /** Status isn't compared: it follows the clock, and the schedule rebinds it on every tick. */
+    public static final DiffUtil.ItemCallback<ClassTimeline.Session> SESSION = new DiffUtil.ItemCallback<ClassTimeline.Session>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ClassTimeline.Session a, @NonNull ClassTimeline.Session b) {
+            return a.key().equals(b.key());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ClassTimeline.Session a, @NonNull ClassTimeline.Session b) {
+            return a.endMillis == b.endMillis
+                    && ENROLLMENT.areContentsTheSame(a.enrollment, b.enrollment)
+                    && (a.tuition == null ? b.tuition == null
+                        : b.tuition != null && TUITION.areContentsTheSame(a.tuition, b.tuition));
+        }
+    };
+}
@@ -0,0 +1,132 @@
+package com.onrender.tutrnav;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written Firestore mappers for the hot models.
+ *
+ * doc.toObject(...) walks the class with reflection and converts every field through
+ * a generic bean mapper; these read the handful of fields we actually store straight
+ * out of the document map. They are also lenient where the stored data is not uniform
+ * (timestamps written as millis, Date or Timestamp; numbers stored as long or double).
+ */
+public final class ModelMappers {
+
+    private ModelMappers() {}
+
+    // ==========================================
+    //       DOCUMENT ENTRY POINTS
+    // ==========================================
+
+    public static TuitionModel toTuition(DocumentSnapshot doc) {
+        return tuitionFromMap(doc.getId(), doc.getData());
+    }
+
+    public static EnrollmentModel toEnrollment(DocumentSnapshot doc) {
+        return enrollmentFromMap(doc.getId(), doc.getData());
+    }
+
+    public static MessageModel toMessage(DocumentSnapshot doc) {
+        return messageFromMap(doc.getId(), doc.getData());
+    }
+
+    // ==========================================
+    //       FIELD MAPPING
+    // ==========================================
+
+    public static TuitionModel tuitionFromMap(String id, Map<String, Object> data) {
+        if (data == null) return null;
+        TuitionModel t = new TuitionModel();
+        t.setTuitionId(string(data, "tuitionId", id));
+        t.setTeacherId(string(data, "teacherId", null));
+        t.setTitle(string(data, "title", null));
+        t.setSubject(string(data, "subject", null));
+        t.setTime(string(data, "time", null));
+        t.setFee(string(data, "fee", null));
+        t.setFeeMinor((long) number(data, TuitionFields.FEE_MINOR));
+        t.setSlots(TuitionFields.slotsFromData(data.get(TuitionFields.SLOTS)));
+        t.setMaxStudents((int) number(data, "maxStudents"));
+        t.setDescription(string(data, "description", null));
+        t.setBannerUrl(string(data, "bannerUrl", null));
+        t.setLatitude(number(data, "latitude"));
+        t.setLongitude(number(data, "longitude"));
+        t.setGeohash(string(data, GeoHash.FIELD, null));
+        t.setTeacherName(string(data, "teacherName", null));
+        t.setTeacherPhoto(string(data, "teacherPhoto", null));
+        t.setTags(stringList(data, "tags"));
+        t.setDiscoverRank(number(data, DiscoverFeed.RANK_FIELD));
+        return t;
+    }
+
+    public static EnrollmentModel enrollmentFromMap(String id, Map<String, Object> data) {
+        if (data == null) return null;
+        EnrollmentModel e = new EnrollmentModel();
+        e.setEnrollmentId(string(data, "enrollmentId", id));
+        e.setStudentId(string(data, "studentId", null));
+        e.setStudentName(string(data, "studentName", null));
+        e.setStudentPhoto(string(data, "studentPhoto", null));
+        e.setTeacherId(string(data, "teacherId", null));
+        e.setTuitionId(string(data, "tuitionId", null));
+        e.setTuitionTitle(string(data, "tuitionTitle", null));
+        e.setStatus(string(data, "status", null));
+        e.setTimestamp(timestamp(data, "timestamp"));
+        return e;
+    }
+
+    public static MessageModel messageFromMap(String id, Map<String, Object> data) {
+        if (data == null) return null;
+        MessageModel m = new MessageModel();
+        m.setMessageId(id);
+        m.setText(string(data, "text", null));
+        m.setSenderId(string(data, "senderId", null));
+        m.setSenderName(string(data, "senderName", null));
+        m.setTeacherPhoto(string(data, "teacherPhoto", null));
+        m.setTuitionId(string(data, "tuitionId", null));
+        m.setTuitionTitle(string(data, "tuitionTitle", null));
+        m.setStudentId(string(data, StudentMessages.FIELD_STUDENT, null));
+        m.setType(string(data, "type", null));
+        m.setBroadcast(Boolean.TRUE.equals(data.get("broadcast")));
+        m.setTimestamp(timestamp(data, "timestamp"));
+        m.setMergedIds(stringList(data, StudentMessages.FIELD_MERGED_IDS));
+        return m;
+    }
+
+    // ==========================================
+    //       HELPERS
+    // ==========================================
+
+    private static String string(Map<String, Object> data, String key, String fallback) {
+        Object v = data.get(key);
+        return v instanceof String ? (String) v : fallback;
+    }
+
+    private static double number(Map<String, Object> data, String key) {
+        Object v = data.get(key);
+        return v instanceof Number ? ((Number) v).doubleValue() : 0;
+    }
+
+    private static List<String> stringList(Map<String, Object> data, String key) {
+        Object v = data.get(key);
+        if (!(v instanceof List)) return null;
+        List<?> raw = (List<?>) v;
+        List<String> out = new ArrayList<>(raw.size());
+        for (Object o : raw) {
+            if (o instanceof String) out.add((String) o);
+        }
+        return out;
+    }
+
+    static Timestamp timestamp(Map<String, Object> data, String key) {
+        Object v = data.get(key);
+        if (v instanceof Timestamp) return (Timestamp) v;
+        if (v instanceof Date) return new Timestamp((Date) v);
+        if (v instanceof Number) return new Timestamp(new Date(((Number) v).longValue()));
+        return null;
+    }
+}
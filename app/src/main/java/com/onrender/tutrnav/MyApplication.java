@@ -19,5 +19,10 @@ public class MyApplication extends Application {
         } catch (Exception e) {
             // Already initialized, ignore
         }
+
+        // Local mirror that screens paint from before Firestore answers; refreshed in the background
+        LocalStore.init(this);
+        CacheSync.startForCurrentUser();
+        DismissedNotifications.get(this).preload();
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.onrender.tutrnav;
+
+/**
+ * Keeps the k smallest (index, distance) pairs it is offered, as a fixed-capacity max-heap
+ * over primitive arrays. The root is the current worst kept distance, so anything further
+ * is rejected with one comparison: O(n log k) for n offers, no boxing, no comparator.
+ */
+public final class NearestKSelector {
+
+    private final int[] idx;
+    private final double[] dist;
+    private int size;
+
+    public NearestKSelector(int k) {
+        idx = new int[Math.max(0, k)];
+        dist = new double[Math.max(0, k)];
+    }
+
+    public boolean isFull() { return size == idx.length; }
+
+    /** Largest distance currently kept; only meaningful once the selector is full. */
+    public double worst() { return dist[0]; }
+
+    public void offer(int index, double d) {
+        if (size < idx.length) {
+            int i = size++;
+            idx[i] = index; dist[i] = d;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (dist[p] >= dist[i]) break;
+                swapSlots(i, p);
+                i = p;
+            }
+        } else if (size > 0 && d < dist[0]) {
+            idx[0] = index; dist[0] = d;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Returns the kept indices ordered by ascending distance and empties the selector.
+     */
+    public int[] drainAscending() {
+        int n = size;
+        for (int end = n - 1; end > 0; end--) {
+            swapSlots(0, end);
+            siftDown(0, end);
+        }
+        size = 0;
+        int[] out = new int[n];
+        System.arraycopy(idx, 0, out, 0, n);
+        return out;
+    }
+
+    private void siftDown(int i, int n) {
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, largest = i;
+            if (l < n && dist[l] > dist[largest]) largest = l;
+            if (r < n && dist[r] > dist[largest]) largest = r;
+            if (largest == i) return;
+            swapSlots(i, largest);
+            i = largest;
+        }
+    }
+
+    private void swapSlots(int a, int b) {
+        int ti = idx[a]; idx[a] = idx[b]; idx[b] = ti;
+        double td = dist[a]; dist[a] = dist[b]; dist[b] = td;
+    }
+}
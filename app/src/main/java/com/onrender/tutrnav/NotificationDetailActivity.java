@@ -1,7 +1,5 @@
 package com.onrender.tutrnav;
 
-import android.content.Context;
-import android.content.SharedPreferences;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.text.util.Linkify;
@@ -15,9 +13,6 @@ import com.bumptech.glide.Glide;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.imageview.ShapeableImageView;
 
-import java.util.HashSet;
-import java.util.Set;
-
 public class NotificationDetailActivity extends AppCompatActivity {
 
     @Override
@@ -43,6 +38,7 @@ public class NotificationDetailActivity extends AppCompatActivity {
         String time = getIntent().getStringExtra("time");
         String type = getIntent().getStringExtra("type");
         String photoUrl = getIntent().getStringExtra("teacherPhoto");
+        long sentAt = getIntent().getLongExtra("timestampMillis", 0);
 
         // 3. Bind Text Data
         tvTitle.setText(title != null ? title : "Teacher");
@@ -88,18 +84,10 @@ public class NotificationDetailActivity extends AppCompatActivity {
 
         btnDelete.setOnClickListener(v -> {
             if (id != null) {
-                dismissNotificationLocal(id);
+                DismissedNotifications.get(this).dismiss(id, sentAt);
                 Toast.makeText(this, "Notification Removed", Toast.LENGTH_SHORT).show();
                 finish(); // Close activity and go back to list
             }
         });
     }
-
-    // Stores the ID in SharedPreferences so it doesn't show up in the list again
-    private void dismissNotificationLocal(String id) {
-        SharedPreferences prefs = getSharedPreferences("Notifications", Context.MODE_PRIVATE);
-        Set<String> dismissed = new HashSet<>(prefs.getStringSet("dismissed", new HashSet<>()));
-        dismissed.add(id);
-        prefs.edit().putStringSet("dismissed", dismissed).apply();
-    }
 }
\ No newline at end of file
@@ -1,8 +1,6 @@
 package com.onrender.tutrnav;
 
-import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -18,30 +16,37 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
 
 public class NotificationsActivity extends AppCompatActivity {
 
+    // Newest messages shown from the local mirror until the listeners answer
+    private static final int CACHED_MESSAGES = 100;
+
     private RecyclerView rvNotifications;
     private NotificationAdapter adapter;
     private List<MessageModel> notificationList = new ArrayList<>();
 
     private FirebaseFirestore db;
     private String currentUserId;
-    private Set<String> dismissedIds = new HashSet<>();
+    private DismissedNotifications dismissed;
+
+    // Ends with the activity; the messages listener is replaced whenever the class list changes
+    private ListenerRegistry listeners;
+    private List<String> listenedTuitionIds = new ArrayList<>();
+
+    // Last unfiltered list, re-filtered when coming back from a dismissal
+    private List<MessageModel> shownMessages;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -58,12 +63,17 @@ public class NotificationsActivity extends AppCompatActivity {
 
         // Initialize Firebase
         db = FirebaseFirestore.getInstance();
+        listeners = ListenerRegistry.bindTo(this);
         currentUserId = FirebaseAuth.getInstance().getUid();
 
         // Initialize UI
         initViews();
         setupNavigation();
-        loadDismissedIds();
+        dismissed = DismissedNotifications.get(this);
+        // Lists are filtered only once dismissals are in memory; paint whatever arrived meanwhile
+        dismissed.preload(() -> {
+            if (!isDestroyed() && shownMessages != null) showMessages(shownMessages);
+        });
 
         // Fetch Data
         if (currentUserId != null) {
@@ -73,59 +83,74 @@ public class NotificationsActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // A message removed on the detail screen leaves the list without waiting for a snapshot
+        if (shownMessages != null) showMessages(shownMessages);
+    }
+
     private void initViews() {
         rvNotifications = findViewById(R.id.rvNotifications);
         rvNotifications.setLayoutManager(new LinearLayoutManager(this));
-        adapter = new NotificationAdapter(notificationList);
+        adapter = new NotificationAdapter();
         rvNotifications.setAdapter(adapter);
     }
 
-    private void loadDismissedIds() {
-        SharedPreferences prefs = getSharedPreferences("Notifications", Context.MODE_PRIVATE);
-        dismissedIds = prefs.getStringSet("dismissed", new HashSet<>());
-    }
-
     private void fetchEnrollmentsThenMessages() {
-        // 1. Find which tuitions the student is APPROVED in
-        db.collection("enrollments")
-                .whereEqualTo("studentId", currentUserId)
-                .whereEqualTo("status", "approved")
-                .addSnapshotListener((value, error) -> {
-                    if (error != null || value == null) return;
-
-                    List<String> tuitionIds = new ArrayList<>();
-                    for (DocumentSnapshot doc : value) {
-                        String tId = doc.getString("tuitionId");
-                        if (tId != null) tuitionIds.add(tId);
-                    }
-
-                    if (!tuitionIds.isEmpty()) {
-                        listenForRealTimeMessages(tuitionIds);
-                    }
-                });
+        // 1. Find which tuitions the student is APPROVED in (shared listener, see StudentEnrollmentRepository)
+        StudentEnrollmentRepository.getInstance().getApprovedEnrollments().observe(this, enrollments -> {
+            List<String> tuitionIds = new ArrayList<>();
+            for (EnrollmentModel e : enrollments) {
+                if (e.getTuitionId() != null) tuitionIds.add(e.getTuitionId());
+            }
+
+            if (!tuitionIds.isEmpty()) {
+                listenForRealTimeMessages(tuitionIds);
+            } else {
+                listeners.remove("messages");
+                listenedTuitionIds = tuitionIds;
+                notificationList.clear();
+                adapter.submitList(new ArrayList<>(notificationList));
+            }
+        });
     }
 
     private void listenForRealTimeMessages(List<String> tuitionIds) {
-        // 2. Listen for any messages/broadcasts sent to these tuitions
-        db.collection("messages")
-                .whereIn("tuitionId", tuitionIds)
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .addSnapshotListener((value, error) -> {
-                    if (error != null || value == null) return;
-
-                    notificationList.clear();
-                    for (DocumentSnapshot doc : value) {
-                        MessageModel msg = doc.toObject(MessageModel.class);
-                        if (msg != null) {
-                            msg.setMessageId(doc.getId());
-                            // Only add if user hasn't dismissed it locally
-                            if (!dismissedIds.contains(msg.getMessageId())) {
-                                notificationList.add(msg);
-                            }
-                        }
-                    }
-                    adapter.notifyDataSetChanged();
-                });
+        // Same classes as the listener we already hold: nothing to re-query
+        if (tuitionIds.equals(listenedTuitionIds) && listeners.contains("messages")) return;
+        listenedTuitionIds = tuitionIds;
+        showCachedMessages(tuitionIds);
+
+        // 2. Listen for broadcasts to these tuitions plus messages to this student (replaces the
+        // previous listener). One broadcast listener per 10 classes (the whereIn limit), all merged newest-first.
+        listeners.put("messages", StudentMessages.listen(db, currentUserId, tuitionIds,
+                messages -> {
+                    LocalStore.get().write(store -> store.replaceMessagesForTuitions(tuitionIds, currentUserId, messages));
+                    showMessages(messages);
+                }));
+    }
+
+    // Cold start: paint from the local mirror until the listeners answer; a later cached read is dropped
+    private void showCachedMessages(List<String> tuitionIds) {
+        if (shownMessages != null) return;
+        LocalStore.get().read(store -> store.messagesForTuitions(tuitionIds, currentUserId, CACHED_MESSAGES), cached -> {
+            if (isFinishing() || cached.isEmpty() || shownMessages != null) return;
+            showMessages(cached);
+        });
+    }
+
+    private void showMessages(List<MessageModel> messages) {
+        shownMessages = messages;
+        // Filtering before the dismissed set has loaded would flash removed messages
+        if (!dismissed.isLoaded()) return;
+        notificationList.clear();
+        for (MessageModel msg : messages) {
+            // Only add if user hasn't dismissed it locally (or it has aged out)
+            if (dismissed.contains(msg) || DismissedNotifications.isExpired(msg.getTimestamp())) continue;
+            notificationList.add(msg);
+        }
+        adapter.submitList(new ArrayList<>(notificationList));
     }
 
     private void setupNavigation() {
@@ -146,11 +171,15 @@ public class NotificationsActivity extends AppCompatActivity {
     // ==========================================
     // RECYCLERVIEW ADAPTER (Legendary Perfection)
     // ==========================================
-    public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.ViewHolder> {
-        List<MessageModel> items;
+    public class NotificationAdapter extends ListAdapter<MessageModel, NotificationAdapter.ViewHolder> {
+        public NotificationAdapter() {
+            super(ModelDiffs.MESSAGE);
+            setHasStableIds(true);
+        }
 
-        public NotificationAdapter(List<MessageModel> items) {
-            this.items = items;
+        @Override
+        public long getItemId(int position) {
+            return ModelDiffs.stableId(getItem(position).getMessageId());
         }
 
         @NonNull
@@ -162,7 +191,7 @@ public class NotificationsActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            MessageModel item = items.get(position);
+            MessageModel item = getItem(position);
 
             holder.tvTitle.setText(item.getSenderName());
             holder.tvTuition.setText(item.getTuitionTitle());
@@ -188,6 +217,7 @@ public class NotificationsActivity extends AppCompatActivity {
             holder.itemView.setOnClickListener(v -> {
                 Intent intent = new Intent(NotificationsActivity.this, NotificationDetailActivity.class);
                 intent.putExtra("id", item.getMessageId());
+                if (item.getTimestamp() != null) intent.putExtra("timestampMillis", item.getTimestamp().toDate().getTime());
                 intent.putExtra("title", item.getSenderName());
                 intent.putExtra("tuition", item.getTuitionTitle());
                 intent.putExtra("body", item.getText());
@@ -216,11 +246,6 @@ public class NotificationsActivity extends AppCompatActivity {
             }
         }
 
-        @Override
-        public int getItemCount() {
-            return items.size();
-        }
-
         class ViewHolder extends RecyclerView.ViewHolder {
             TextView tvTitle, tvTuition, tvBody, tvTime;
             ImageView imgTeacher, imgIcon;
@@ -1,8 +1,6 @@
 package com.onrender.tutrnav;
 
-import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -16,24 +14,25 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
 
 public class NotificationsFragment extends Fragment {
 
+    // Newest messages shown from the local mirror until the listeners answer
+    private static final int CACHED_MESSAGES = 100;
+
     private RecyclerView rvNotifications;
     private TextView tvEmptyState;
     private ProgressBar progressBar;
@@ -43,7 +42,14 @@ public class NotificationsFragment extends Fragment {
 
     private FirebaseFirestore db;
     private String currentUserId;
-    private Set<String> dismissedIds = new HashSet<>();
+    private DismissedNotifications dismissed;
+
+    // Ends with the view; the messages listener is replaced whenever the class list changes
+    private ListenerRegistry listeners;
+    private List<String> listenedTuitionIds = new ArrayList<>();
+
+    // Last unfiltered list, re-filtered when coming back from a dismissal
+    private List<MessageModel> shownMessages;
 
     @Nullable
     @Override
@@ -52,10 +58,11 @@ public class NotificationsFragment extends Fragment {
 
         // Init Firebase
         db = FirebaseFirestore.getInstance();
+        listeners = ListenerRegistry.bindTo(getViewLifecycleOwner());
+        listenedTuitionIds = new ArrayList<>();
         currentUserId = FirebaseAuth.getInstance().getUid();
 
-        // Load Local Data
-        loadDismissedIds();
+        dismissed = DismissedNotifications.get(requireContext());
 
         // Init Views
         rvNotifications = view.findViewById(R.id.rvNotifications);
@@ -66,9 +73,14 @@ public class NotificationsFragment extends Fragment {
         progressBar = view.findViewById(R.id.progressBar);
 
         rvNotifications.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new NotificationAdapter(notificationList);
+        adapter = new NotificationAdapter();
         rvNotifications.setAdapter(adapter);
 
+        // Lists are filtered only once dismissals are in memory; paint whatever arrived meanwhile
+        dismissed.preload(() -> {
+            if (getView() != null && shownMessages != null) showMessages(shownMessages);
+        });
+
         if (currentUserId != null) {
             if(progressBar != null) progressBar.setVisibility(View.VISIBLE);
             fetchEnrollmentsAndMessages();
@@ -80,66 +92,84 @@ public class NotificationsFragment extends Fragment {
         return view;
     }
 
-    private void loadDismissedIds() {
-        if (getActivity() == null) return;
-        SharedPreferences prefs = getActivity().getSharedPreferences("Notifications", Context.MODE_PRIVATE);
-        dismissedIds = prefs.getStringSet("dismissed", new HashSet<>());
+    @Override
+    public void onResume() {
+        super.onResume();
+        // A message removed on the detail screen leaves the list without waiting for a snapshot
+        if (shownMessages != null) showMessages(shownMessages);
     }
 
     private void fetchEnrollmentsAndMessages() {
-        // 1. Get Enrolled Classes
-        db.collection("enrollments")
-                .whereEqualTo("studentId", currentUserId)
-                .whereEqualTo("status", "approved")
-                .addSnapshotListener((value, error) -> {
-                    if (error != null) {
-                        if(progressBar != null) progressBar.setVisibility(View.GONE);
-                        return;
-                    }
+        // 1. Get Enrolled Classes (shared listener, see StudentEnrollmentRepository)
+        StudentEnrollmentRepository repo = StudentEnrollmentRepository.getInstance();
+        repo.getErrors().observe(getViewLifecycleOwner(), error -> {
+            if (error != null && progressBar != null) progressBar.setVisibility(View.GONE);
+        });
+        repo.getApprovedEnrollments().observe(getViewLifecycleOwner(), enrollments -> {
+            List<String> tuitionIds = new ArrayList<>();
+            for (EnrollmentModel e : enrollments) {
+                if (e.getTuitionId() != null) tuitionIds.add(e.getTuitionId());
+            }
 
-                    if (value == null || value.isEmpty()) {
-                        if(progressBar != null) progressBar.setVisibility(View.GONE);
-                        updateEmptyState();
-                        return;
-                    }
+            if (!tuitionIds.isEmpty()) {
+                listenForMessages(tuitionIds);
+            } else {
+                listeners.remove("messages");
+                listenedTuitionIds = tuitionIds;
+                notificationList.clear();
+                adapter.submitList(new ArrayList<>(notificationList));
+                if(progressBar != null) progressBar.setVisibility(View.GONE);
+                updateEmptyState();
+            }
+        });
+    }
 
-                    List<String> tuitionIds = new ArrayList<>();
-                    for (DocumentSnapshot doc : value) {
-                        String tId = doc.getString("tuitionId");
-                        if (tId != null) tuitionIds.add(tId);
+    private void listenForMessages(List<String> tuitionIds) {
+        // Same classes as the listener we already hold: nothing to re-query
+        if (tuitionIds.equals(listenedTuitionIds) && listeners.contains("messages")) return;
+        listenedTuitionIds = tuitionIds;
+        showCachedMessages(tuitionIds);
+
+        // 2. Get Messages for those classes (replaces the listener for the previous class list):
+        // each class's broadcasts (10 classes per whereIn, in parallel) merged newest-first
+        // with the messages sent to this student alone.
+        listeners.put("messages", StudentMessages.listen(db, currentUserId, tuitionIds,
+                new ChunkedQuery.Listener<MessageModel>() {
+                    @Override
+                    public void onChanged(List<MessageModel> messages) {
+                        if(progressBar != null) progressBar.setVisibility(View.GONE);
+                        LocalStore.get().write(store -> store.replaceMessagesForTuitions(tuitionIds, currentUserId, messages));
+                        showMessages(messages);
                     }
 
-                    if (!tuitionIds.isEmpty()) {
-                        listenForMessages(tuitionIds);
-                    } else {
+                    @Override
+                    public void onError(FirebaseFirestoreException error) {
                         if(progressBar != null) progressBar.setVisibility(View.GONE);
-                        updateEmptyState();
                     }
-                });
+                }));
     }
 
-    private void listenForMessages(List<String> tuitionIds) {
-        // 2. Get Messages for those classes
-        // NOTE: Firestore limits 'whereIn' to 10 items. In a production app, handle batches.
-        db.collection("messages")
-                .whereIn("tuitionId", tuitionIds)
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .addSnapshotListener((value, error) -> {
-                    if(progressBar != null) progressBar.setVisibility(View.GONE);
-
-                    if (error != null || value == null) return;
-
-                    notificationList.clear();
-                    for (DocumentSnapshot doc : value) {
-                        MessageModel msg = doc.toObject(MessageModel.class);
-                        if (msg != null && !dismissedIds.contains(doc.getId())) {
-                            msg.setMessageId(doc.getId());
-                            notificationList.add(msg);
-                        }
-                    }
-                    adapter.notifyDataSetChanged();
-                    updateEmptyState();
-                });
+    // Cold start: paint from the local mirror until the listeners answer; a later cached read is dropped
+    private void showCachedMessages(List<String> tuitionIds) {
+        if (shownMessages != null) return;
+        LocalStore.get().read(store -> store.messagesForTuitions(tuitionIds, currentUserId, CACHED_MESSAGES), cached -> {
+            if (!isAdded() || cached.isEmpty() || shownMessages != null) return;
+            if(progressBar != null) progressBar.setVisibility(View.GONE);
+            showMessages(cached);
+        });
+    }
+
+    private void showMessages(List<MessageModel> messages) {
+        shownMessages = messages;
+        // Filtering before the dismissed set has loaded would flash removed messages
+        if (!dismissed.isLoaded()) return;
+        notificationList.clear();
+        for (MessageModel msg : messages) {
+            if (dismissed.contains(msg) || DismissedNotifications.isExpired(msg.getTimestamp())) continue;
+            notificationList.add(msg);
+        }
+        adapter.submitList(new ArrayList<>(notificationList));
+        updateEmptyState();
     }
 
     private void updateEmptyState() {
@@ -150,10 +180,14 @@ public class NotificationsFragment extends Fragment {
     }
 
     // --- ADAPTER ---
-    private class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.ViewHolder> {
-        List<MessageModel> items;
+    private class NotificationAdapter extends ListAdapter<MessageModel, NotificationAdapter.ViewHolder> {
+        NotificationAdapter() {
+            super(ModelDiffs.MESSAGE);
+            setHasStableIds(true);
+        }
 
-        public NotificationAdapter(List<MessageModel> items) { this.items = items; }
+        @Override
+        public long getItemId(int position) { return ModelDiffs.stableId(getItem(position).getMessageId()); }
 
         @NonNull
         @Override
@@ -163,7 +197,7 @@ public class NotificationsFragment extends Fragment {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            MessageModel item = items.get(position);
+            MessageModel item = getItem(position);
 
             holder.tvTitle.setText(item.getSenderName());
             holder.tvTuition.setText(item.getTuitionTitle());
@@ -217,6 +251,7 @@ public class NotificationsFragment extends Fragment {
                 intent.putExtra("type", item.getType());
                 intent.putExtra("time", holder.tvTime.getText().toString());
                 intent.putExtra("id", item.getMessageId());
+                if (item.getTimestamp() != null) intent.putExtra("timestampMillis", item.getTimestamp().toDate().getTime());
 
                 // CRITICAL: Pass the photo URL to the detail screen too!
                 intent.putExtra("teacherPhoto", item.getTeacherPhoto());
@@ -225,9 +260,6 @@ public class NotificationsFragment extends Fragment {
             });
         }
 
-        @Override
-        public int getItemCount() { return items.size(); }
-
         class ViewHolder extends RecyclerView.ViewHolder {
             TextView tvTitle, tvTuition, tvBody, tvTime;
             ImageView imgTeacher, imgIcon;
@@ -4,6 +4,7 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.preference.PreferenceManager;
 import android.widget.Button;
+import android.widget.ImageView;
 import androidx.appcompat.app.AppCompatActivity;
 
 import org.osmdroid.config.Configuration;
@@ -22,6 +23,7 @@ public class PickLocationActivity extends AppCompatActivity {
         // OSM Init
         Configuration.getInstance().load(getApplicationContext(), PreferenceManager.getDefaultSharedPreferences(getApplicationContext()));
         Configuration.getInstance().setUserAgentValue(getPackageName());
+        MapTileCache.configure();
 
         setContentView(R.layout.activity_pick_location);
 
@@ -29,6 +31,10 @@ public class PickLocationActivity extends AppCompatActivity {
         map.setTileSource(TileSourceFactory.MAPNIK);
         map.setMultiTouchControls(true);
 
+        // Shared with the student map, so re-opening the picker never re-rasterises the pin
+        ImageView centerPin = findViewById(R.id.imgCenterPin);
+        centerPin.setImageBitmap(MapIconCache.get(this, R.drawable.ic_location_pin, "#D50000", 40, 40));
+
         // Start at India (Zoom level 5)
         map.getController().setZoom(5.0);
         map.getController().setCenter(new GeoPoint(20.5937, 78.9629));
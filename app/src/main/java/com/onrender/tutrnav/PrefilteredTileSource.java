@@ -0,0 +1,65 @@
+package com.onrender.tutrnav;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+
+import org.osmdroid.tileprovider.tilesource.XYTileSource;
+
+import java.io.InputStream;
+
+/**
+ * XYTileSource that bakes a 4x5 colour matrix into each tile once, when it is decoded.
+ *
+ * The alternative, a ColorMatrixColorFilter on the TilesOverlay, re-runs the matrix for
+ * every tile on every frame. Here the filtered bitmap is what osmdroid keeps in its
+ * memory cache, so pans and flings draw plain bitmaps. The on-disk archive still holds
+ * the original PNG bytes, so the source name (and cache key) is unchanged.
+ */
+public class PrefilteredTileSource extends XYTileSource {
+
+    private final float[] colorMatrix;
+    private final ThreadLocal<int[]> pixelBuffer = new ThreadLocal<>();
+
+    public PrefilteredTileSource(String name, int zoomMin, int zoomMax, int tileSize, String extension,
+                                 String[] baseUrls, String copyright, float[] colorMatrix) {
+        super(name, zoomMin, zoomMax, tileSize, extension, baseUrls, copyright);
+        this.colorMatrix = colorMatrix.clone();
+    }
+
+    @Override
+    public Drawable getDrawable(String filePath) throws LowMemoryException {
+        return applyFilter(super.getDrawable(filePath));
+    }
+
+    @Override
+    public Drawable getDrawable(InputStream fileInputStream) throws LowMemoryException {
+        return applyFilter(super.getDrawable(fileInputStream));
+    }
+
+    // Runs on osmdroid's tile loader threads, never on the UI thread
+    private Drawable applyFilter(Drawable drawable) {
+        if (!(drawable instanceof BitmapDrawable)) return drawable;
+        Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+        if (bitmap == null) return drawable;
+
+        Drawable result = drawable;
+        if (!bitmap.isMutable()) {
+            bitmap = bitmap.copy(Bitmap.Config.ARGB_8888, true);
+            if (bitmap == null) return drawable;
+            result = new BitmapDrawable(null, bitmap);
+        }
+
+        int w = bitmap.getWidth(), h = bitmap.getHeight();
+        int[] pixels = pixelBuffer.get();
+        if (pixels == null || pixels.length < w * h) {
+            pixels = new int[w * h];
+            pixelBuffer.set(pixels);
+        }
+
+        bitmap.getPixels(pixels, 0, w, 0, 0, w, h);
+        TileColorMatrix.apply(pixels, w * h, colorMatrix);
+        bitmap.setPixels(pixels, 0, w, 0, 0, w, h);
+        return result;
+    }
+}
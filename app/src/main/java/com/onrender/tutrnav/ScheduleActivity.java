@@ -17,14 +17,13 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -38,7 +37,6 @@ public class ScheduleActivity extends AppCompatActivity {
     // Data & Firebase
     private StudentScheduleAdapter adapter;
     private List<EnrollmentModel> enrollmentList = new ArrayList<>();
-    private FirebaseFirestore db;
     private FirebaseAuth mAuth;
 
     @Override
@@ -51,14 +49,13 @@ public class ScheduleActivity extends AppCompatActivity {
         setupWindowInsets();
 
         // 2. Initialize Firebase
-        db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
 
         // 3. Setup RecyclerView
         rvSchedule = findViewById(R.id.rvSchedule);
         rvSchedule.setLayoutManager(new LinearLayoutManager(this));
 
-        adapter = new StudentScheduleAdapter(enrollmentList);
+        adapter = new StudentScheduleAdapter();
         rvSchedule.setAdapter(adapter);
 
         // 4. Load Data
@@ -79,29 +76,19 @@ public class ScheduleActivity extends AppCompatActivity {
     private void fetchEnrollments() {
         if (mAuth.getCurrentUser() == null) return;
 
-        // Fetch "approved" enrollments for the current student
-        db.collection("enrollments")
-                .whereEqualTo("studentId", mAuth.getCurrentUser().getUid())
-                .whereEqualTo("status", "approved")
-                .addSnapshotListener((value, error) -> {
-                    if (error != null) {
-                        Toast.makeText(this, "Error loading schedule", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-                    if (value != null) {
-                        enrollmentList.clear();
-                        for (DocumentSnapshot doc : value) {
-                            EnrollmentModel model = doc.toObject(EnrollmentModel.class);
-                            if (model != null) {
-                                enrollmentList.add(model);
-                            }
-                        }
-                        adapter.notifyDataSetChanged();
-
-                        // Optional: Handle empty state visibility here
-                        // if(enrollmentList.isEmpty()) showEmptyState();
-                    }
-                });
+        // Approved enrollments come from the shared listener (see StudentEnrollmentRepository)
+        StudentEnrollmentRepository repo = StudentEnrollmentRepository.getInstance();
+        repo.getApprovedEnrollments().observe(this, list -> {
+            enrollmentList.clear();
+            enrollmentList.addAll(list);
+            adapter.submitList(new ArrayList<>(enrollmentList));
+
+            // Optional: Handle empty state visibility here
+            // if(enrollmentList.isEmpty()) showEmptyState();
+        });
+        repo.getErrors().observe(this, error -> {
+            if (error != null) Toast.makeText(this, "Error loading schedule", Toast.LENGTH_SHORT).show();
+        });
     }
 
     private void setupBottomNavigation() {
@@ -140,12 +127,16 @@ public class ScheduleActivity extends AppCompatActivity {
     //       LEGENDARY ADAPTER IMPLEMENTATION
     // ==========================================
 
-    private class StudentScheduleAdapter extends RecyclerView.Adapter<StudentScheduleAdapter.ViewHolder> {
+    private class StudentScheduleAdapter extends ListAdapter<EnrollmentModel, StudentScheduleAdapter.ViewHolder> {
 
-        private final List<EnrollmentModel> list;
+        public StudentScheduleAdapter() {
+            super(ModelDiffs.ENROLLMENT);
+            setHasStableIds(true);
+        }
 
-        public StudentScheduleAdapter(List<EnrollmentModel> list) {
-            this.list = list;
+        @Override
+        public long getItemId(int position) {
+            return ModelDiffs.stableId(getItem(position).getEnrollmentId());
         }
 
         @NonNull
@@ -157,7 +148,7 @@ public class ScheduleActivity extends AppCompatActivity {
 
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            EnrollmentModel item = list.get(position);
+            EnrollmentModel item = getItem(position);
 
             // 1. Title (Subject Name)
             String title = (item.getTuitionTitle() != null) ? item.getTuitionTitle() : "Class Session";
@@ -200,9 +191,6 @@ public class ScheduleActivity extends AppCompatActivity {
             );
         }
 
-        @Override
-        public int getItemCount() { return list.size(); }
-
         // Helper to generate consistent colors based on text
         private int getColorForSubject(String subject) {
             if (subject == null) return Color.GRAY;
@@ -3,6 +3,8 @@ package com.onrender.tutrnav;
 import android.content.Context;
 import android.graphics.Color;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,30 +17,51 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Random;
+import java.util.Map;
 
 public class ScheduleFragment extends Fragment {
 
+    // Rows under "Upcoming"; the list is a look ahead, not the whole week
+    private static final int UPCOMING_LIMIT = 20;
+
+    // The class query has no orderBy, so Firestore returns it by document id (= tuitionId)
+    private static final Comparator<TuitionModel> BY_ID = Comparator.comparing(TuitionModel::getTuitionId);
+
     // --- Data & Firebase ---
-    private FirebaseFirestore db;
     private FirebaseAuth mAuth;
+    private FirebaseFirestore db;
+    private ListenerRegistry listeners;
     private List<EnrollmentModel> fullList = new ArrayList<>();
-    private List<EnrollmentModel> displayList = new ArrayList<>();
+    private final Map<String, TuitionModel> tuitionsById = new HashMap<>();
+    private List<String> listenedTuitionIds = new ArrayList<>();
+    private ClassTimeline timeline;
+    private List<ClassTimeline.Session> displayList = new ArrayList<>();
     private StudentScheduleAdapter adapter;
+    private int selectedChipId = R.id.chipAll;
+
+    // --- Clock ---
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable minuteTick = this::onMinuteTick;
 
     // --- UI Components ---
     private RecyclerView rvSchedule;
@@ -55,8 +78,9 @@ public class ScheduleFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_schedule, container, false);
 
         // 1. Initialize Firebase
-        db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
+        db = FirebaseFirestore.getInstance();
+        listeners = ListenerRegistry.bindTo(getViewLifecycleOwner());
 
         // 2. Initialize Views
         initViews(view);
@@ -76,6 +100,18 @@ public class ScheduleFragment extends Fragment {
         return view;
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        onMinuteTick(); // Catch up on whatever started or ended while paused
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        mainHandler.removeCallbacks(minuteTick);
+    }
+
     private void initViews(View view) {
         rvSchedule = view.findViewById(R.id.rvSchedule);
         layoutEmptyState = view.findViewById(R.id.layoutEmptyState);
@@ -105,7 +141,7 @@ public class ScheduleFragment extends Fragment {
 
     private void setupRecyclerView() {
         rvSchedule.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new StudentScheduleAdapter(getContext(), displayList);
+        adapter = new StudentScheduleAdapter(getContext());
         rvSchedule.setAdapter(adapter);
     }
 
@@ -117,29 +153,77 @@ public class ScheduleFragment extends Fragment {
             return;
         }
 
-        // Listen for user's approved enrollments
-        db.collection("enrollments")
-                .whereEqualTo("studentId", mAuth.getCurrentUser().getUid())
-                .whereEqualTo("status", "approved")
-                .addSnapshotListener((value, error) -> {
-                    if (error != null) {
-                        Toast.makeText(getContext(), "Error loading schedule", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-
-                    if (value != null) {
-                        fullList.clear();
-                        for (DocumentSnapshot doc : value) {
-                            EnrollmentModel model = doc.toObject(EnrollmentModel.class);
-                            if (model != null) {
-                                fullList.add(model);
-                            }
-                        }
-
-                        // Default: Show All
-                        filterList(R.id.chipAll);
-                    }
-                });
+        // Approved enrollments come from the shared listener (see StudentEnrollmentRepository)
+        StudentEnrollmentRepository repo = StudentEnrollmentRepository.getInstance();
+        repo.getApprovedEnrollments().observe(getViewLifecycleOwner(), list -> {
+            fullList.clear();
+            fullList.addAll(list);
+            listenForTuitions();
+            rebuildTimeline();
+        });
+        repo.getErrors().observe(getViewLifecycleOwner(), error -> {
+            if (error != null) Toast.makeText(getContext(), "Error loading schedule", Toast.LENGTH_SHORT).show();
+        });
+    }
+
+    // Class times live on the tuition documents: one chunked whereIn over the enrolled classes
+    private void listenForTuitions() {
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (EnrollmentModel e : fullList) {
+            if (e.getTuitionId() != null) unique.add(e.getTuitionId());
+        }
+        List<String> tuitionIds = new ArrayList<>(unique);
+
+        // Same classes as the listener we already hold: nothing to re-query
+        if (tuitionIds.equals(listenedTuitionIds) && listeners.contains("tuitions")) return;
+        listenedTuitionIds = tuitionIds;
+        if (tuitionIds.isEmpty()) {
+            listeners.remove("tuitions");
+            tuitionsById.clear();
+            return;
+        }
+        showCachedTuitions(tuitionIds);
+
+        listeners.put("tuitions", ChunkedQuery.listen(db.collection("tuitions"), "tuitionId", tuitionIds,
+                ModelMappers::toTuition, BY_ID, merged -> {
+                    tuitionsById.clear();
+                    for (TuitionModel t : merged) tuitionsById.put(t.getTuitionId(), t);
+                    rebuildTimeline();
+                }));
+    }
+
+    // Cold start: paint from the local mirror until the listener answers; a later cached read is dropped
+    private void showCachedTuitions(List<String> tuitionIds) {
+        if (!tuitionsById.isEmpty()) return;
+        LocalStore.get().read(store -> store.tuitionsByIds(tuitionIds), cached -> {
+            if (!isAdded() || cached.isEmpty() || !tuitionsById.isEmpty()) return;
+            for (TuitionModel t : cached) tuitionsById.put(t.getTuitionId(), t);
+            rebuildTimeline();
+        });
+    }
+
+    // A few sessions per class over a couple of weeks: cheap enough to redo on the main thread
+    private void rebuildTimeline() {
+        timeline = ClassTimeline.build(fullList, tuitionsById, System.currentTimeMillis(), ZoneId.systemDefault());
+        filterList(selectedChipId);
+    }
+
+    // --- CLOCK ---
+
+    /**
+     * One timer for the whole screen, fired on each wall-clock minute so sessions turn live
+     * and finish on time. Every tick re-runs the selected filter against the timeline (and
+     * moves the timeline's window after midnight); rows never keep timers of their own.
+     */
+    private void onMinuteTick() {
+        mainHandler.removeCallbacks(minuteTick);
+        long now = System.currentTimeMillis();
+        if (tvDateNumber != null) setupDateHeader();
+        if (timeline != null) {
+            if (timeline.covers(now)) filterList(selectedChipId);
+            else rebuildTimeline();
+        }
+        mainHandler.postDelayed(minuteTick, ClassTimeline.MINUTE_MS - now % ClassTimeline.MINUTE_MS);
     }
 
     // --- FILTER LOGIC ---
@@ -173,30 +257,25 @@ public class ScheduleFragment extends Fragment {
     }
 
     private void filterList(int chipId) {
+        selectedChipId = chipId;
         displayList.clear();
-
-        if (chipId == R.id.chipAll) {
-            displayList.addAll(fullList);
-        }
-        // Note: Real filtering requires your Firestore model to have time/status fields.
-        // For now, we simulate filtering or pass everything if the field doesn't exist.
-        else if (chipId == R.id.chipLive) {
-            // Logic: Add if status == "LIVE" (Placeholder logic)
-            // for (EnrollmentModel m : fullList) if (m.isLive()) displayList.add(m);
-        }
-        else if (chipId == R.id.chipUpcoming) {
-            displayList.addAll(fullList); // Showing all for upcoming for now
-        }
-        else if (chipId == R.id.chipHistory) {
-            // Show history
-        }
-
-        // Always show all for demo if filter logic isn't strictly defined in EnrollmentModel yet
-        if (displayList.isEmpty() && !fullList.isEmpty() && chipId != R.id.chipLive) {
-            displayList.addAll(fullList);
+        long now = System.currentTimeMillis();
+
+        if (timeline != null) {
+            if (chipId == R.id.chipLive) {
+                displayList.addAll(timeline.live(now));
+            } else if (chipId == R.id.chipUpcoming) {
+                displayList.addAll(timeline.upcoming(now, UPCOMING_LIMIT));
+            } else if (chipId == R.id.chipHistory) {
+                displayList.addAll(timeline.pastWeek(now));
+            } else {
+                // All: each class once, at the session that is live or comes next
+                displayList.addAll(timeline.nextPerClass(now));
+            }
         }
 
-        adapter.notifyDataSetChanged();
+        adapter.setNow(now);
+        adapter.submitList(new ArrayList<>(displayList));
         updateEmptyState();
     }
 
@@ -214,14 +293,32 @@ public class ScheduleFragment extends Fragment {
 
     // --- THE LEGENDARY ADAPTER ---
 
-    private static class StudentScheduleAdapter extends RecyclerView.Adapter<StudentScheduleAdapter.ViewHolder> {
+    private static class StudentScheduleAdapter extends ListAdapter<ClassTimeline.Session, StudentScheduleAdapter.ViewHolder> {
+
+        // Partial rebind: only the parts of a row that follow the clock
+        private static final Object PAYLOAD_CLOCK = new Object();
 
-        private final List<EnrollmentModel> list;
         private final Context context;
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("hh:mm a", Locale.getDefault());
+        private final SimpleDateFormat dayFormat = new SimpleDateFormat("EEE, d MMM", Locale.getDefault());
+        private long now = System.currentTimeMillis();
 
-        public StudentScheduleAdapter(Context context, List<EnrollmentModel> list) {
+        public StudentScheduleAdapter(Context context) {
+            super(ModelDiffs.SESSION);
             this.context = context;
-            this.list = list;
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return ModelDiffs.stableId(getItem(position).key());
+        }
+
+        /** Moves the clock rows are drawn against; rows already shown rebind only what follows it. */
+        void setNow(long now) {
+            if (this.now == now) return;
+            this.now = now;
+            if (getItemCount() > 0) notifyItemRangeChanged(0, getItemCount(), PAYLOAD_CLOCK);
         }
 
         @NonNull
@@ -232,33 +329,45 @@ public class ScheduleFragment extends Fragment {
             return new ViewHolder(view);
         }
 
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.contains(PAYLOAD_CLOCK)) bindClock(holder, getItem(position));
+            else super.onBindViewHolder(holder, position, payloads);
+        }
+
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            EnrollmentModel item = list.get(position);
+            ClassTimeline.Session session = getItem(position);
+            EnrollmentModel item = session.enrollment;
+            TuitionModel tuition = session.tuition;
 
-            // 1. Title & Topic
+            // 1. Title
             // If EnrollmentModel doesn't have a 'tuitionTitle', fallback to 'tuitionId' or placeholder
             String title = item.getTuitionTitle() != null ? item.getTuitionTitle() : "Class Session";
             holder.tvSubjectName.setText(title);
 
-            // Placeholder Topic (since EnrollmentModel might not have it yet)
-            holder.tvTopic.setText("General Session • " + item.getStatus().toUpperCase());
-
-            // 2. Time (Placeholder logic or fetch from model)
-            // Ideally: item.getStartTime()
-            holder.tvTimeStart.setText("TBA");
-            holder.tvDuration.setText("(60 mins)");
+            // 2. Time
+            if (session.isScheduled()) {
+                holder.tvTimeStart.setText(timeFormat.format(new Date(session.startMillis)));
+                holder.tvDuration.setText("(" + session.durationMinutes() + " mins)");
+            } else {
+                holder.tvTimeStart.setText("TBA");
+                holder.tvDuration.setText("");
+            }
 
             // 3. Teacher Info
-            String tName = item.getTeacherId() != null ? item.getTeacherId() : "Instructor";
-            // Make ID shorter for UI looks: "Instructor: 5f3a..."
-            if(tName.length() > 5) tName = "ID: " + tName.substring(0, 5);
+            String tName;
+            if (tuition != null && tuition.getTeacherName() != null) {
+                tName = tuition.getTeacherName();
+            } else {
+                tName = item.getTeacherId() != null ? item.getTeacherId() : "Instructor";
+                // Make ID shorter for UI looks: "Instructor: 5f3a..."
+                if(tName.length() > 5) tName = "ID: " + tName.substring(0, 5);
+            }
             holder.tvTutorName.setText(tName);
 
-            // 4. Status Chip
-            holder.tvStatus.setText("UPCOMING");
-            holder.tvStatus.setTextColor(Color.parseColor("#FFCA28")); // Gold
-            holder.tvStatus.setBackgroundResource(R.drawable.bg_status_chip);
+            // 4. Status Chip & day
+            bindClock(holder, session);
 
             // 5. Dynamic Color Bar (Hash the subject name to get a consistent unique color)
             int color = getColorForSubject(title);
@@ -280,7 +389,43 @@ public class ScheduleFragment extends Fragment {
             });
         }
 
-        @Override public int getItemCount() { return list.size(); }
+        // Status chip and day label: the parts of a row that change with the time, not the data
+        private void bindClock(ViewHolder holder, ClassTimeline.Session session) {
+            String topic = session.isScheduled() ? dayLabel(session.startMillis) : "Timings not set";
+            TuitionModel tuition = session.tuition;
+            if (tuition != null && tuition.getSubject() != null) topic += " • " + tuition.getSubject();
+            holder.tvTopic.setText(topic);
+
+            switch (session.statusAt(now)) {
+                case LIVE:
+                    holder.tvStatus.setText("LIVE");
+                    holder.tvStatus.setTextColor(Color.parseColor("#66BB6A")); // Green
+                    break;
+                case DONE:
+                    holder.tvStatus.setText("DONE");
+                    holder.tvStatus.setTextColor(Color.parseColor("#9FA8DA")); // Muted
+                    break;
+                case UNSCHEDULED:
+                    holder.tvStatus.setText("ENROLLED");
+                    holder.tvStatus.setTextColor(Color.parseColor("#9FA8DA"));
+                    break;
+                default:
+                    holder.tvStatus.setText("UPCOMING");
+                    holder.tvStatus.setTextColor(Color.parseColor("#FFCA28")); // Gold
+            }
+            holder.tvStatus.setBackgroundResource(R.drawable.bg_status_chip);
+        }
+
+        // "Today", "Tomorrow", "Yesterday" or the date
+        private String dayLabel(long millis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate day = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+            LocalDate today = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+            if (day.equals(today)) return "Today";
+            if (day.equals(today.plusDays(1))) return "Tomorrow";
+            if (day.equals(today.minusDays(1))) return "Yesterday";
+            return dayFormat.format(new Date(millis));
+        }
 
         // Generate a cool color based on string
         private int getColorForSubject(String subject) {
@@ -0,0 +1,71 @@
+package com.onrender.tutrnav;
+
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Background stage that turns Firestore query results into model lists.
+ *
+ * Firestore delivers listener and task callbacks on the main thread by default, so
+ * mapping a few hundred documents there costs frames. Everything here hands the
+ * callback to one dedicated thread instead and only the finished list comes back
+ * (via LiveData.postValue or a Task continuation).
+ */
+public final class SnapshotMapping {
+
+    /** Maps one document; returns null for documents that should be skipped. */
+    public interface Mapper<T> {
+        T map(DocumentSnapshot doc);
+    }
+
+    // A single thread keeps snapshots in arrival order, so an older result can never overwrite a newer one
+    public static final Executor EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "snapshot-mapping");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SnapshotMapping() {}
+
+    /**
+     * Keeps target updated with the mapped results of a live query.
+     * Errors leave the last good value in place.
+     */
+    public static <T> ListenerRegistration listen(Query query, Mapper<T> mapper, MutableLiveData<List<T>> target) {
+        return ListenerRegistry.track(query.addSnapshotListener(EXECUTOR, (value, error) -> {
+            if (error != null || value == null) return;
+            target.postValue(mapAll(value, mapper));
+        }));
+    }
+
+    /**
+     * Maps a one-shot query result off the main thread. Success listeners added to the
+     * returned task without an executor still run on the main thread.
+     */
+    public static <T> Task<List<T>> map(Task<QuerySnapshot> query, Mapper<T> mapper) {
+        return query.continueWith(EXECUTOR, task -> mapAll(task.getResult(), mapper));
+    }
+
+    public static <T> List<T> mapAll(QuerySnapshot snapshot, Mapper<T> mapper) {
+        List<T> list = new ArrayList<>(snapshot.size());
+        for (DocumentSnapshot doc : snapshot) {
+            try {
+                T item = mapper.map(doc);
+                if (item != null) list.add(item);
+            } catch (RuntimeException e) {
+                // Ignore malformed
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,107 @@
+package com.onrender.tutrnav;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Process-wide source of the signed-in student's approved enrollments.
+ *
+ * The schedule and notification screens all need the same query. Instead of each one
+ * registering its own listener, they observe one LiveData: the Firestore listener is
+ * attached while at least one observer is active, every snapshot is mapped once on the
+ * mapping thread, and the result is fanned out to all observers.
+ */
+public final class StudentEnrollmentRepository {
+
+    // Keep the listener through tab switches and rotations instead of re-reading the query
+    private static final long DETACH_DELAY_MS = 5000;
+
+    private static StudentEnrollmentRepository instance;
+
+    /** Returns the repository for the current user, starting fresh when the user changes. */
+    public static synchronized StudentEnrollmentRepository getInstance() {
+        String uid = FirebaseAuth.getInstance().getUid();
+        if (instance == null || !Objects.equals(instance.uid, uid)) {
+            if (instance != null) instance.approved.detach();
+            instance = new StudentEnrollmentRepository(uid);
+        }
+        return instance;
+    }
+
+    private final String uid;
+    private final ApprovedEnrollments approved = new ApprovedEnrollments();
+    private final MutableLiveData<FirebaseFirestoreException> errors = new MutableLiveData<>();
+
+    private StudentEnrollmentRepository(String uid) {
+        this.uid = uid;
+    }
+
+    public LiveData<List<EnrollmentModel>> getApprovedEnrollments() { return approved; }
+
+    /** Last listener error, or null once a snapshot has loaded again. */
+    public LiveData<FirebaseFirestoreException> getErrors() { return errors; }
+
+    /**
+     * LiveData already counts its active observers; the snapshot listener follows that count.
+     */
+    private class ApprovedEnrollments extends LiveData<List<EnrollmentModel>> {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+        private final Runnable detachTask = this::detach;
+        private ListenerRegistration registration;
+
+        @Override
+        protected void onActive() {
+            handler.removeCallbacks(detachTask);
+            if (registration != null || uid == null) return;
+
+            // Cold start: paint from the local mirror, unless a live result got there first
+            if (getValue() == null) {
+                LocalStore.get().read(store -> store.enrollmentsForStudent(uid, "approved"), cached -> {
+                    if (getValue() == null && !cached.isEmpty()) setValue(cached);
+                });
+            }
+
+            registration = ListenerRegistry.track(FirebaseFirestore.getInstance().collection("enrollments")
+                    .whereEqualTo("studentId", uid)
+                    .whereEqualTo("status", "approved")
+                    .addSnapshotListener(SnapshotMapping.EXECUTOR, (value, error) -> {
+                        if (error != null) {
+                            errors.postValue(error);
+                            return;
+                        }
+                        if (value == null) return;
+                        if (errors.getValue() != null) errors.postValue(null);
+                        List<EnrollmentModel> enrollments = SnapshotMapping.mapAll(value, ModelMappers::toEnrollment);
+                        postValue(enrollments);
+                        // Only a server-confirmed result is complete enough to replace the mirror
+                        if (!value.getMetadata().isFromCache()) {
+                            LocalStore.get().write(store -> store.replaceStudentEnrollments(uid, "approved", enrollments));
+                        }
+                    }));
+        }
+
+        @Override
+        protected void onInactive() {
+            handler.postDelayed(detachTask, DETACH_DELAY_MS);
+        }
+
+        void detach() {
+            handler.removeCallbacks(detachTask);
+            if (registration != null) {
+                registration.remove();
+                registration = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.onrender.tutrnav;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A student's message feed, read as two streams and merged newest-first.
+ *
+ * Class-wide messages are stored once per class (broadcast = true, no studentId) and
+ * fanned out on read: every student of the class queries them by tuitionId. Messages to
+ * one student carry that studentId and are read by it. Either stream alone is already in
+ * timestamp order, so the merge is a two-way {@link KWayMerge}.
+ */
+public final class StudentMessages {
+
+    /** Fields of a message document. */
+    public static final String FIELD_BROADCAST = "broadcast";
+    public static final String FIELD_STUDENT = "studentId";
+    /** Ids of the per-student copies a migrated broadcast replaced (see MessageMigration). */
+    public static final String FIELD_MERGED_IDS = "mergedIds";
+
+    private StudentMessages() {}
+
+    /**
+     * Listens to the class broadcasts of tuitionIds plus studentId's private messages sent
+     * within {@link DismissedNotifications#RETENTION_MS}. The listener first fires once both
+     * streams have loaded.
+     */
+    public static ListenerRegistration listen(FirebaseFirestore db, String studentId, List<String> tuitionIds,
+                                              ChunkedQuery.Listener<MessageModel> listener) {
+        Merger merger = new Merger(listener);
+        // Older messages are past the window their dismissals are kept for
+        Timestamp cutoff = new Timestamp(new Date(DismissedNotifications.retentionCutoffMillis()));
+        Query newestFirst = db.collection("messages").whereGreaterThanOrEqualTo("timestamp", cutoff)
+                .orderBy("timestamp", Query.Direction.DESCENDING);
+
+        ListenerRegistration broadcasts = ChunkedQuery.listen(
+                newestFirst.whereEqualTo(FIELD_BROADCAST, true),
+                "tuitionId", tuitionIds, ModelMappers::toMessage, MessageModel.NEWEST_FIRST,
+                new ChunkedQuery.Listener<MessageModel>() {
+                    @Override
+                    public void onChanged(List<MessageModel> merged) {
+                        merger.broadcasts = merged;
+                        merger.publish();
+                    }
+
+                    @Override
+                    public void onError(FirebaseFirestoreException error) {
+                        listener.onError(error);
+                    }
+                });
+
+        ListenerRegistration direct = ListenerRegistry.track(newestFirst.whereEqualTo(FIELD_STUDENT, studentId)
+                .addSnapshotListener(SnapshotMapping.EXECUTOR, (value, error) -> {
+                    if (error != null) {
+                        merger.mainHandler.post(() -> listener.onError(error));
+                        return;
+                    }
+                    if (value == null) return;
+                    List<MessageModel> mapped = SnapshotMapping.mapAll(value, ModelMappers::toMessage);
+                    merger.mainHandler.post(() -> {
+                        merger.direct = mapped;
+                        merger.publish();
+                    });
+                }));
+
+        return () -> {
+            merger.cancelled = true;
+            broadcasts.remove();
+            direct.remove();
+        };
+    }
+
+    /** Main thread only. */
+    private static class Merger {
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        final ChunkedQuery.Listener<MessageModel> listener;
+        List<MessageModel> broadcasts;
+        List<MessageModel> direct;
+        boolean cancelled = false;
+
+        Merger(ChunkedQuery.Listener<MessageModel> listener) {
+            this.listener = listener;
+        }
+
+        void publish() {
+            if (cancelled || broadcasts == null || direct == null) return;
+            listener.onChanged(KWayMerge.merge(Arrays.asList(broadcasts, direct), MessageModel.NEWEST_FIRST));
+        }
+    }
+}
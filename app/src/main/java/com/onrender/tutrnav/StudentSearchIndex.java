@@ -0,0 +1,176 @@
+package com.onrender.tutrnav;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Name search over a roster of enrollments, built once per roster change.
+ *
+ * Names are normalised up front (accents stripped, a few letters transliterated,
+ * punctuation folded to spaces), so "Zoë", "ZOE" and "zoe" all match "zoe". A query
+ * matches a student whose normalised name contains it, as the old toLowerCase().contains
+ * filter did. Queries of three or more characters only look at students sharing every
+ * trigram of the query. A query that extends the previous one only rechecks the previous
+ * hits. Results keep roster order.
+ *
+ * Not thread-safe; the schedule screen uses it on the main thread.
+ */
+public final class StudentSearchIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final List<EnrollmentModel> roster;
+    private final String[] keys;
+    // Trigram (three chars packed into a long) -> ascending roster positions
+    private final Map<Long, int[]> trigrams = new HashMap<>();
+
+    private String lastQuery;
+    private int[] lastHits;
+
+    public StudentSearchIndex(List<EnrollmentModel> roster) {
+        this.roster = new ArrayList<>(roster);
+        this.keys = new String[this.roster.size()];
+
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = normalize(this.roster.get(i).getStudentName());
+            for (int j = 0; j + 3 <= keys[i].length(); j++) {
+                List<Integer> list = postings.get(trigram(keys[i], j));
+                if (list == null) postings.put(trigram(keys[i], j), list = new ArrayList<>());
+                // Positions arrive in order, so a repeated trigram in one name is the last entry
+                if (list.isEmpty() || list.get(list.size() - 1) != i) list.add(i);
+            }
+        }
+        for (Map.Entry<Long, List<Integer>> e : postings.entrySet()) {
+            List<Integer> list = e.getValue();
+            int[] positions = new int[list.size()];
+            for (int k = 0; k < positions.length; k++) positions[k] = list.get(k);
+            trigrams.put(e.getKey(), positions);
+        }
+    }
+
+    public int size() {
+        return roster.size();
+    }
+
+    /** Students whose name matches query, in roster order. A blank query matches everyone. */
+    public List<EnrollmentModel> search(String query) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            lastQuery = null;
+            lastHits = null;
+            return new ArrayList<>(roster);
+        }
+
+        int[] candidates;
+        if (lastQuery != null && q.contains(lastQuery)) {
+            // Anything matching the longer query matched the shorter one too
+            candidates = lastHits;
+        } else if (q.length() >= 3) {
+            candidates = trigramCandidates(q);
+        } else {
+            candidates = null; // One or two characters: every key is a candidate
+        }
+
+        int count = candidates != null ? candidates.length : keys.length;
+        int[] hits = new int[count];
+        int n = 0;
+        for (int k = 0; k < count; k++) {
+            int i = candidates != null ? candidates[k] : k;
+            if (keys[i].contains(q)) hits[n++] = i;
+        }
+
+        lastQuery = q;
+        lastHits = Arrays.copyOf(hits, n);
+
+        List<EnrollmentModel> result = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) result.add(roster.get(hits[k]));
+        return result;
+    }
+
+    // Intersection of the query's trigram postings, rarest first
+    private int[] trigramCandidates(String q) {
+        List<int[]> lists = new ArrayList<>();
+        for (int j = 0; j + 3 <= q.length(); j++) {
+            int[] positions = trigrams.get(trigram(q, j));
+            if (positions == null) return NONE;
+            lists.add(positions);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+
+        int[] result = lists.get(0);
+        for (int l = 1; l < lists.size() && result.length > 0; l++) result = intersect(result, lists.get(l));
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long trigram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    /**
+     * Search key for text: lower case, accents removed, ß/æ/ø and similar spelled out in
+     * ASCII, and every run of other characters collapsed to one space.
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        // Most names are plain ASCII and need no decomposition
+        String decomposed = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+
+            String mapped = transliterate(c);
+            if (mapped == null && !Character.isLetterOrDigit(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) sb.append(' ');
+            pendingSpace = false;
+            if (mapped != null) sb.append(mapped);
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) if (s.charAt(i) >= 0x80) return false;
+        return true;
+    }
+
+    // Letters NFKD leaves alone because they have no base letter plus accent form
+    private static String transliterate(char c) {
+        switch (c) {
+            case 'ß': return "ss";
+            case 'æ': return "ae";
+            case 'œ': return "oe";
+            case 'ø': return "o";
+            case 'đ':
+            case 'ð': return "d";
+            case 'ł': return "l";
+            case 'ı': return "i";
+            case 'þ': return "th";
+            default: return null;
+        }
+    }
+}
@@ -19,14 +19,18 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.snackbar.Snackbar;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 
+import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -65,7 +69,7 @@ public class TeacherDashboardFragment extends Fragment {
 
         rvRequests.setLayoutManager(new LinearLayoutManager(getContext()));
         rvRequests.setNestedScrollingEnabled(false);
-        adapter = new RequestAdapter(pendingRequests);
+        adapter = new RequestAdapter();
         rvRequests.setAdapter(adapter);
 
         setupSwipeToAct();
@@ -83,12 +87,8 @@ public class TeacherDashboardFragment extends Fragment {
 
         viewModel.getEnrollments().observe(getViewLifecycleOwner(), enrollments -> {
             pendingRequests.clear();
-            for (EnrollmentModel e : enrollments) {
-                if ("pending".equals(e.getStatus())) {
-                    pendingRequests.add(e);
-                }
-            }
-            adapter.notifyDataSetChanged();
+            pendingRequests.addAll(viewModel.getEnrollmentGroups().withStatus("pending"));
+            adapter.submitList(new ArrayList<>(pendingRequests));
 
             emptyStateView.setVisibility(pendingRequests.isEmpty() ? View.VISIBLE : View.GONE);
             rvRequests.setVisibility(pendingRequests.isEmpty() ? View.GONE : View.VISIBLE);
@@ -97,30 +97,16 @@ public class TeacherDashboardFragment extends Fragment {
         });
     }
 
+    // O(1): the view model keeps the totals current from each snapshot's delta
     private void recalculateStats() {
-        List<EnrollmentModel> enrollments = viewModel.getEnrollments().getValue();
-        if (enrollments == null) return;
-
-        int activeCount = 0;
-        double totalEarnings = 0.0;
-
-        for (EnrollmentModel e : enrollments) {
-            if ("approved".equals(e.getStatus())) {
-                activeCount++;
-                TuitionModel t = viewModel.getTuitionById(e.getTuitionId());
-                if (t != null && t.getFee() != null) {
-                    try {
-                        totalEarnings += Double.parseDouble(t.getFee().replaceAll("", ""));
-                    } catch (NumberFormatException ignored) {}
-                }
-            }
-        }
-
-        tvActiveStudents.setText(String.valueOf(activeCount));
+        EarningsAggregator earnings = viewModel.getEarnings();
+        tvActiveStudents.setText(String.valueOf(earnings.totalActive()));
 
+        long totalMinor = earnings.totalMinor();
         NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
         currencyFormat.setMaximumFractionDigits(0);
-        tvTotalEarnings.setText(totalEarnings >= 100000 ? "₹" + (int)(totalEarnings / 1000) + "k" : currencyFormat.format(totalEarnings));
+        tvTotalEarnings.setText(totalMinor >= 100000_00 ? "₹" + totalMinor / 1000_00 + "k"
+                : currencyFormat.format(BigDecimal.valueOf(totalMinor, 2)));
     }
 
     private void updateHeroCard(List<TuitionModel> tuitions) {
@@ -129,11 +115,35 @@ public class TeacherDashboardFragment extends Fragment {
             tvHeroTime.setText("Go to 'My Tuition' to create one");
             return;
         }
-        // In a real app, parse `time` vs Current Time here.
-        // For now, we beautifully display the first item.
-        TuitionModel next = tuitions.get(0);
+        // The class running now, else the one starting soonest (plain minute arithmetic on the typed slots)
+        int now = WeeklySlot.weekMinute(LocalDateTime.now());
+        TuitionModel next = null;
+        int wait = Integer.MAX_VALUE;
+        for (TuitionModel t : tuitions) {
+            for (WeeklySlot slot : TuitionFields.slotsOf(t)) {
+                int w = slot.isRunning(now) ? 0 : slot.minutesUntilStart(now);
+                if (w >= 0 && w < wait) {
+                    wait = w;
+                    next = t;
+                }
+            }
+        }
+
+        if (next == null) {
+            // No readable timings anywhere: show the first class as before
+            next = tuitions.get(0);
+            tvHeroTitle.setText(next.getTitle());
+            tvHeroTime.setText((next.getTime() != null ? next.getTime() : "TBD") + " • Hosted by you");
+            return;
+        }
         tvHeroTitle.setText(next.getTitle());
-        tvHeroTime.setText((next.getTime() != null ? next.getTime() : "TBD") + " • Hosted by you");
+        tvHeroTime.setText((wait == 0 ? "Live now" : "Starts in " + formatWait(wait)) + " • " + next.getTime());
+    }
+
+    private static String formatWait(int minutes) {
+        if (minutes < 60) return minutes + " min";
+        if (minutes < WeeklySlot.MINUTES_PER_DAY) return (minutes / 60) + " h " + (minutes % 60) + " min";
+        return (minutes / WeeklySlot.MINUTES_PER_DAY) + " d";
     }
 
     // --- LEGENDARY SWIPE-TO-ACT UX ---
@@ -145,23 +155,23 @@ public class TeacherDashboardFragment extends Fragment {
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
                 int position = viewHolder.getAdapterPosition();
-                EnrollmentModel target = pendingRequests.get(position);
+                EnrollmentModel target = adapter.getCurrentList().get(position);
                 String newStatus = (direction == ItemTouchHelper.RIGHT) ? "approved" : "rejected";
 
                 // Optimistic UI Update
-                pendingRequests.remove(position);
-                adapter.notifyItemRemoved(position);
+                pendingRequests.remove(target);
+                adapter.submitList(new ArrayList<>(pendingRequests));
                 emptyStateView.setVisibility(pendingRequests.isEmpty() ? View.VISIBLE : View.GONE);
 
                 FirebaseFirestore.getInstance().collection("enrollments").document(target.getEnrollmentId())
-                        .update("status", newStatus)
+                        .update("status", newStatus, CacheSync.UPDATED_AT, FieldValue.serverTimestamp())
                         .addOnSuccessListener(aVoid -> {
                             Snackbar.make(requireView(), target.getStudentName() + " " + newStatus, Snackbar.LENGTH_SHORT).show();
                         })
                         .addOnFailureListener(e -> {
                             // Revert on failure
-                            pendingRequests.add(position, target);
-                            adapter.notifyItemInserted(position);
+                            pendingRequests.add(Math.min(position, pendingRequests.size()), target);
+                            adapter.submitList(new ArrayList<>(pendingRequests));
                             Toast.makeText(getContext(), "Network Error", Toast.LENGTH_SHORT).show();
                         });
             }
@@ -186,9 +196,14 @@ public class TeacherDashboardFragment extends Fragment {
         new ItemTouchHelper(callback).attachToRecyclerView(rvRequests);
     }
 
-    private class RequestAdapter extends RecyclerView.Adapter<RequestAdapter.ViewHolder> {
-        List<EnrollmentModel> list;
-        public RequestAdapter(List<EnrollmentModel> list) { this.list = list; }
+    private class RequestAdapter extends ListAdapter<EnrollmentModel, RequestAdapter.ViewHolder> {
+        public RequestAdapter() {
+            super(ModelDiffs.ENROLLMENT);
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) { return ModelDiffs.stableId(getItem(position).getEnrollmentId()); }
 
         @NonNull @Override
         public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -198,7 +213,7 @@ public class TeacherDashboardFragment extends Fragment {
         @SuppressLint("SetTextI18n")
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            EnrollmentModel item = list.get(position);
+            EnrollmentModel item = getItem(position);
             holder.tvName.setText(item.getStudentName() != null ? item.getStudentName() : "Unknown");
 
             TuitionModel classInfo = viewModel.getTuitionById(item.getTuitionId());
@@ -215,8 +230,6 @@ public class TeacherDashboardFragment extends Fragment {
             holder.btnDecline.setVisibility(View.GONE);
         }
 
-        @Override public int getItemCount() { return list.size(); }
-
         class ViewHolder extends RecyclerView.ViewHolder {
             TextView tvName, tvClass; ImageView imgProfile;
             MaterialButton btnApprove, btnDecline;
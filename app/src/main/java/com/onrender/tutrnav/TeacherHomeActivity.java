@@ -24,6 +24,7 @@ import androidx.viewpager2.widget.ViewPager2;
 import com.bumptech.glide.Glide;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
 
 public class TeacherHomeActivity extends AppCompatActivity {
 
@@ -61,6 +62,14 @@ public class TeacherHomeActivity extends AppCompatActivity {
         // 🔥 THE LEGENDARY UPGRADE: Initialize the Shared ViewModel immediately.
         viewModel = new ViewModelProvider(this).get(TeacherViewModel.class);
 
+        // Collapse broadcasts sent before they were stored once per class, and give classes
+        // saved before typed fee/timing fields, geohashes or discover ranks existed those fields
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user != null) {
+            MessageMigration.migrateBroadcastsOnce(this, FirebaseFirestore.getInstance(), user.getUid());
+            TuitionMigration.backfillOnce(this, FirebaseFirestore.getInstance(), user.getUid());
+        }
+
         initViews();
         setupViewPager();
         loadProfile();
@@ -1,8 +1,11 @@
 package com.onrender.tutrnav;
 
 import android.annotation.SuppressLint;
+import android.content.Context;
 import android.graphics.Color;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.LayoutInflater;
@@ -19,6 +22,7 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -33,11 +37,24 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class TeacherScheduleFragment extends Fragment {
 
+    // Typing pauses this long before the roster is searched
+    private static final long SEARCH_DEBOUNCE_MS = 150;
+
+    // Index builds get their own thread so a big roster never holds up snapshot mapping
+    private static final Executor INDEX_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "student-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
     // UI
     private RecyclerView rvSchedule;
     private ChipGroup chipGroup;
@@ -52,6 +69,11 @@ public class TeacherScheduleFragment extends Fragment {
     private TeacherScheduleAdapter adapter;
     private final List<EnrollmentModel> activeStudents = new ArrayList<>();
     private final List<EnrollmentModel> displayList = new ArrayList<>();
+    // Rebuilt off the main thread whenever the roster changes; a blank query doesn't need it
+    private StudentSearchIndex searchIndex = new StudentSearchIndex(new ArrayList<>());
+    private int searchIndexGeneration = 0;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable debouncedSearch = this::applyFilters;
 
     // State
     private String selectedTuitionId = "ALL";
@@ -103,8 +125,10 @@ public class TeacherScheduleFragment extends Fragment {
         etSearchStudent.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
-                currentSearchQuery = s.toString().toLowerCase().trim();
-                applyFilters();
+                currentSearchQuery = s.toString().trim();
+                mainHandler.removeCallbacks(debouncedSearch);
+                if (currentSearchQuery.isEmpty()) applyFilters();
+                else mainHandler.postDelayed(debouncedSearch, SEARCH_DEBOUNCE_MS);
             }
             @Override public void afterTextChanged(Editable s) {}
         });
@@ -119,7 +143,7 @@ public class TeacherScheduleFragment extends Fragment {
                 selectedStudents.addAll(displayList); // Select all
             }
             updateSelectionUI();
-            adapter.notifyDataSetChanged();
+            adapter.notifySelectionChanged();
         });
 
         fabBroadcast.setOnClickListener(v -> {
@@ -141,7 +165,7 @@ public class TeacherScheduleFragment extends Fragment {
 
     private void setupRecyclerView() {
         rvSchedule.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new TeacherScheduleAdapter(displayList, new OnStudentInteractListener() {
+        adapter = new TeacherScheduleAdapter(new OnStudentInteractListener() {
             @Override
             public void onMessageClick(EnrollmentModel student) {
                 List<EnrollmentModel> target = new ArrayList<>(); target.add(student);
@@ -165,16 +189,33 @@ public class TeacherScheduleFragment extends Fragment {
     private void observeData() {
         viewModel.getEnrollments().observe(getViewLifecycleOwner(), enrollments -> {
             activeStudents.clear();
-            for (EnrollmentModel e : enrollments) {
-                if ("approved".equals(e.getStatus())) {
-                    activeStudents.add(e);
-                }
-            }
+            activeStudents.addAll(viewModel.getEnrollmentGroups().withStatus("approved"));
+            rebuildSearchIndex();
             buildFilterChips();
             applyFilters();
         });
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        mainHandler.removeCallbacks(debouncedSearch);
+        searchIndexGeneration++; // Drops an index still being built
+    }
+
+    private void rebuildSearchIndex() {
+        int generation = ++searchIndexGeneration;
+        List<EnrollmentModel> roster = new ArrayList<>(activeStudents);
+        INDEX_EXECUTOR.execute(() -> {
+            StudentSearchIndex built = new StudentSearchIndex(roster);
+            mainHandler.post(() -> {
+                if (generation != searchIndexGeneration) return;
+                searchIndex = built;
+                if (!currentSearchQuery.isEmpty()) applyFilters();
+            });
+        });
+    }
+
     private void buildFilterChips() {
         chipGroup.removeAllViews();
         if (!activeStudents.isEmpty()) addChip("ALL", "All Students");
@@ -187,13 +228,7 @@ public class TeacherScheduleFragment extends Fragment {
                 if (t.getTuitionId() == null) continue;
 
                 // Ensure chip only shows if class has approved students
-                boolean hasStudents = false;
-                for (EnrollmentModel e : activeStudents) {
-                    if (t.getTuitionId().equals(e.getTuitionId())) {
-                        hasStudents = true;
-                        break;
-                    }
-                }
+                boolean hasStudents = viewModel.getEnrollmentGroups().count(t.getTuitionId(), "approved") > 0;
 
                 // Fallback for missing titles
                 String title = t.getTitle() != null ? t.getTitle() : "Unnamed Class";
@@ -224,14 +259,19 @@ public class TeacherScheduleFragment extends Fragment {
         chipGroup.addView(chip);
     }
 
-    @SuppressLint("NotifyDataSetChanged")
     private void applyFilters() {
+        mainHandler.removeCallbacks(debouncedSearch);
+        boolean allClasses = "ALL".equals(selectedTuitionId);
+
         displayList.clear();
-        for (EnrollmentModel m : activeStudents) {
-            boolean matchesClass = "ALL".equals(selectedTuitionId) || selectedTuitionId.equals(m.getTuitionId());
-            boolean matchesSearch = currentSearchQuery.isEmpty() ||
-                    (m.getStudentName() != null && m.getStudentName().toLowerCase().contains(currentSearchQuery));
-            if (matchesClass && matchesSearch) displayList.add(m);
+        if (currentSearchQuery.isEmpty()) {
+            // Plain chip change: the class's group is already built
+            displayList.addAll(allClasses ? activeStudents
+                    : viewModel.getEnrollmentGroups().students(selectedTuitionId, "approved"));
+        } else {
+            for (EnrollmentModel m : searchIndex.search(currentSearchQuery)) {
+                if (allClasses || selectedTuitionId.equals(m.getTuitionId())) displayList.add(m);
+            }
         }
 
         // Smart FAB Update
@@ -240,7 +280,7 @@ public class TeacherScheduleFragment extends Fragment {
             fabBroadcast.setIconResource("ALL".equals(selectedTuitionId) ? android.R.drawable.ic_menu_send : android.R.drawable.ic_menu_sort_by_size);
         }
 
-        adapter.notifyDataSetChanged();
+        adapter.submitList(new ArrayList<>(displayList));
 
         if (displayList.isEmpty()) {
             layoutEmptyState.setVisibility(View.VISIBLE);
@@ -256,7 +296,7 @@ public class TeacherScheduleFragment extends Fragment {
     private void toggleSelectionMode(boolean active) {
         isSelectionMode = active;
         selectedStudents.clear();
-        adapter.notifyDataSetChanged(); // UI update applied natively through adapter bindings
+        adapter.notifySelectionChanged(); // Rebinds selection visuals only
 
         layoutStandardHeader.setVisibility(active ? View.GONE : View.VISIBLE);
         layoutSelectionMode.setVisibility(active ? View.VISIBLE : View.GONE);
@@ -276,7 +316,8 @@ public class TeacherScheduleFragment extends Fragment {
         if (selectedStudents.isEmpty() && isSelectionMode) toggleSelectionMode(false);
         else updateSelectionUI();
 
-        adapter.notifyDataSetChanged();
+        int position = adapter.getCurrentList().indexOf(student);
+        if (position >= 0) adapter.notifyItemChanged(position, TeacherScheduleAdapter.PAYLOAD_SELECTION);
     }
 
     private void updateSelectionUI() {
@@ -316,36 +357,113 @@ public class TeacherScheduleFragment extends Fragment {
             String senderId = FirebaseAuth.getInstance().getCurrentUser().getUid();
             String senderName = FirebaseAuth.getInstance().getCurrentUser().getDisplayName();
 
-            // Loop through selected targets and dispatch messages (Simplified for demo)
-            for (EnrollmentModel target : targets) {
-                Map<String, Object> msg = new HashMap<>();
-                msg.put("text", txt);
-                msg.put("senderId", senderId);
-                msg.put("senderName", senderName != null ? senderName : "Teacher");
-                msg.put("studentId", target.getStudentId());
-                msg.put("tuitionId", target.getTuitionId());
-                msg.put("timestamp", new Date());
-                msg.put("type", targets.size() == 1 ? "PRIVATE" : "BROADCAST");
-
-                FirebaseFirestore.getInstance().collection("messages").add(msg);
-            }
+            List<Map<String, Object>> messages = buildMessages(targets, txt, senderId,
+                    senderName != null ? senderName : "Teacher");
+
+            // The sheet closes once Firestore has queued every batch locally, which doesn't
+            // wait for the network; the outcome is reported when the server has answered
+            btnSend.setEnabled(false);
+            Context appContext = requireContext().getApplicationContext();
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+            new BroadcastDispatcher(db).dispatch(db.collection("messages"), messages, new BroadcastDispatcher.Listener() {
+                @Override
+                public void onProgress(int written, int total) {
+                    btnSend.setText(total == 1 ? "Sending..." : "Sending " + written + "/" + total);
+                }
 
-            Toast.makeText(getContext(), "Message Sent Successfully!", Toast.LENGTH_SHORT).show();
-            if (isSelectionMode) toggleSelectionMode(false);
-            dialog.dismiss();
+                @Override
+                public void onQueued(int total) {
+                    dialog.dismiss();
+                    if (isAdded() && isSelectionMode) toggleSelectionMode(false);
+                }
+
+                @Override
+                public void onFinished(int written, int failed) {
+                    // Application context: the teacher may have left this screen by now
+                    if (failed == 0) {
+                        Toast.makeText(appContext, "Message Sent Successfully!", Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(appContext, failed + " of " + (written + failed) + " messages failed to send", Toast.LENGTH_LONG).show();
+                    }
+                }
+            });
         });
 
         dialog.show();
     }
 
+    /**
+     * One broadcast document per class whose every student is a target (students read
+     * those by class, see StudentMessages), and one private document per remaining target.
+     */
+    private List<Map<String, Object>> buildMessages(List<EnrollmentModel> targets, String text,
+                                                    String senderId, String senderName) {
+        Map<String, List<EnrollmentModel>> byClass = new LinkedHashMap<>();
+        for (EnrollmentModel target : targets) {
+            List<EnrollmentModel> group = byClass.get(target.getTuitionId());
+            if (group == null) byClass.put(target.getTuitionId(), group = new ArrayList<>());
+            group.add(target);
+        }
+
+        Date now = new Date();
+        List<Map<String, Object>> messages = new ArrayList<>();
+        for (Map.Entry<String, List<EnrollmentModel>> entry : byClass.entrySet()) {
+            List<EnrollmentModel> group = entry.getValue();
+            boolean wholeClass = targets.size() > 1 && entry.getKey() != null
+                    && group.size() == countActiveStudents(entry.getKey());
+            if (wholeClass) {
+                Map<String, Object> msg = baseMessage(text, senderId, senderName, entry.getKey(), now);
+                msg.put("type", "BROADCAST");
+                msg.put(StudentMessages.FIELD_BROADCAST, true);
+                messages.add(msg);
+                continue;
+            }
+            for (EnrollmentModel target : group) {
+                Map<String, Object> msg = baseMessage(text, senderId, senderName, entry.getKey(), now);
+                msg.put(StudentMessages.FIELD_STUDENT, target.getStudentId());
+                msg.put("type", "PRIVATE");
+                msg.put(StudentMessages.FIELD_BROADCAST, false);
+                messages.add(msg);
+            }
+        }
+        return messages;
+    }
+
+    private int countActiveStudents(String tuitionId) {
+        return viewModel.getEnrollmentGroups().count(tuitionId, "approved");
+    }
+
+    private static Map<String, Object> baseMessage(String text, String senderId, String senderName,
+                                                   String tuitionId, Date timestamp) {
+        Map<String, Object> msg = new HashMap<>();
+        msg.put("text", text);
+        msg.put("senderId", senderId);
+        msg.put("senderName", senderName);
+        msg.put("tuitionId", tuitionId);
+        msg.put("timestamp", timestamp);
+        return msg;
+    }
+
     // --- ADAPTER ---
-    public class TeacherScheduleAdapter extends RecyclerView.Adapter<TeacherScheduleAdapter.ViewHolder> {
-        private final List<EnrollmentModel> items;
+    public class TeacherScheduleAdapter extends ListAdapter<EnrollmentModel, TeacherScheduleAdapter.ViewHolder> {
+        // Partial bind: only the selection highlight and action button changed
+        static final String PAYLOAD_SELECTION = "selection";
+
         private final OnStudentInteractListener listener;
 
-        public TeacherScheduleAdapter(List<EnrollmentModel> items, OnStudentInteractListener listener) {
-            this.items = items;
+        public TeacherScheduleAdapter(OnStudentInteractListener listener) {
+            super(ModelDiffs.ENROLLMENT);
             this.listener = listener;
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return ModelDiffs.stableId(getItem(position).getEnrollmentId());
+        }
+
+        void notifySelectionChanged() {
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
         }
 
         @NonNull @Override
@@ -356,7 +474,7 @@ public class TeacherScheduleFragment extends Fragment {
         @SuppressLint("SetTextI18n")
         @Override
         public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-            EnrollmentModel item = items.get(position);
+            EnrollmentModel item = getItem(position);
 
             TuitionModel classData = viewModel.getTuitionById(item.getTuitionId());
 
@@ -376,14 +494,8 @@ public class TeacherScheduleFragment extends Fragment {
                 holder.imgProfile.setImageResource(R.mipmap.ic_launcher);
             }
 
-            // Visual feedback for selection
-            boolean isSelected = selectedStudents.contains(item);
-
-            // 🛠️ FIX: References the Fragment's top level `isSelectionMode` variable instead of an unresolvable inner one
-            holder.itemView.setAlpha(isSelectionMode && !isSelected ? 0.6f : 1.0f);
-            holder.itemView.setBackgroundColor(isSelected ? Color.parseColor("#33FFCA28") : Color.TRANSPARENT);
+            bindSelection(holder, item);
 
-            holder.btnAction.setVisibility(isSelectionMode ? View.GONE : View.VISIBLE);
             holder.btnAction.setText("Message");
             holder.btnAction.setIconResource(android.R.drawable.ic_menu_send);
             holder.btnAction.setOnClickListener(v -> listener.onMessageClick(item));
@@ -392,7 +504,25 @@ public class TeacherScheduleFragment extends Fragment {
             holder.itemView.setOnClickListener(v -> listener.onTap(item));
         }
 
-        @Override public int getItemCount() { return items.size(); }
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (!payloads.isEmpty() && payloads.contains(PAYLOAD_SELECTION)) {
+                bindSelection(holder, getItem(position));
+            } else {
+                super.onBindViewHolder(holder, position, payloads);
+            }
+        }
+
+        // Visual feedback for selection
+        private void bindSelection(ViewHolder holder, EnrollmentModel item) {
+            boolean isSelected = selectedStudents.contains(item);
+
+            // 🛠️ FIX: References the Fragment's top level `isSelectionMode` variable instead of an unresolvable inner one
+            holder.itemView.setAlpha(isSelectionMode && !isSelected ? 0.6f : 1.0f);
+            holder.itemView.setBackgroundColor(isSelected ? Color.parseColor("#33FFCA28") : Color.TRANSPARENT);
+
+            holder.btnAction.setVisibility(isSelectionMode ? View.GONE : View.VISIBLE);
+        }
 
         class ViewHolder extends RecyclerView.ViewHolder {
             TextView tvSubjectName, tvTopic, tvStatus, tvTimeStart, tvDuration, tvTutorName, tvLocation;
@@ -28,6 +28,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -42,7 +43,7 @@ import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.SetOptions;
 
@@ -85,7 +86,6 @@ public class TeacherTuitionFragment extends Fragment {
 
     // --- Adapter ---
     private MyTuitionAdapter adapter;
-    private List<TuitionModel> myTuitionsList = new ArrayList<>();
 
     // --- Launchers ---
     private ActivityResultLauncher<PickVisualMediaRequest> pickMedia;
@@ -169,24 +169,19 @@ public class TeacherTuitionFragment extends Fragment {
 
     private void setupListLogic() {
         rvMyTuitions.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new MyTuitionAdapter(myTuitionsList, this::showForm);
+        adapter = new MyTuitionAdapter(this::showForm);
         rvMyTuitions.setAdapter(adapter);
     }
 
     private void loadMyTuitions() {
         if (mAuth.getCurrentUser() == null) return;
 
-        db.collection("tuitions")
-                .whereEqualTo("teacherId", mAuth.getCurrentUser().getUid())
-                .get()
-                .addOnSuccessListener(snapshots -> {
+        SnapshotMapping.map(db.collection("tuitions")
+                        .whereEqualTo("teacherId", mAuth.getCurrentUser().getUid())
+                        .get(), ModelMappers::toTuition)
+                .addOnSuccessListener(list -> {
                     if (!isAdded()) return;
-                    myTuitionsList.clear();
-                    for(DocumentSnapshot doc : snapshots) {
-                        TuitionModel t = doc.toObject(TuitionModel.class);
-                        if(t != null) myTuitionsList.add(t);
-                    }
-                    adapter.notifyDataSetChanged();
+                    adapter.submitList(list);
                 })
                 .addOnFailureListener(e -> {
                     if (isAdded()) Toast.makeText(getContext(), "Failed to load classes", Toast.LENGTH_SHORT).show();
@@ -281,6 +276,13 @@ public class TeacherTuitionFragment extends Fragment {
             return;
         }
 
+        // Timings must be readable: schedules are computed from the parsed slots
+        if (TuitionFields.parseSlots(etTime.getText().toString()).isEmpty()) {
+            etTime.setError("Try e.g. Mon-Fri 04:00 PM - 06:00 PM");
+            Toast.makeText(getContext(), "Couldn't read the class timings.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
         // 2. Consent Validation
         if (!cbConsent.isChecked()) {
             Toast.makeText(getContext(), "You must acknowledge the public display terms.", Toast.LENGTH_LONG).show();
@@ -385,14 +387,19 @@ public class TeacherTuitionFragment extends Fragment {
         data.put("title", etTitle.getText().toString().trim());
         data.put("time", etTime.getText().toString().trim()); // Saving Timings
         data.put("fee", etFee.getText().toString().trim());
+        TuitionFields.putTypedFields(data, etFee.getText().toString(), etTime.getText().toString());
         data.put("maxStudents", maxStuds);
         data.put("description", etDesc.getText().toString().trim());
         data.put("bannerUrl", (bannerUrl != null) ? bannerUrl : "");
         data.put("latitude", lat);
         data.put("longitude", lng);
+        data.put(GeoHash.FIELD, GeoHash.encode(lat, lng)); // Lets the student map query by viewport
         data.put("teacherName", user.getDisplayName());
         data.put("teacherPhoto", (user.getPhotoUrl() != null) ? user.getPhotoUrl().toString() : "");
         data.put("tags", currentTags);
+        data.put(CacheSync.UPDATED_AT, FieldValue.serverTimestamp()); // Sync cursor for device caches
+        data.put(DiscoverFeed.RANK_FIELD,
+                DiscoverFeed.rankOf(ModelMappers.tuitionFromMap(tuitionId, data), System.currentTimeMillis()));
 
         db.collection("tuitions").document(tuitionId)
                 .set(data, SetOptions.merge())
@@ -480,14 +487,19 @@ public class TeacherTuitionFragment extends Fragment {
     //          RECYCLER ADAPTER
     // ==========================================
 
-    private static class MyTuitionAdapter extends RecyclerView.Adapter<MyTuitionAdapter.VH> {
-        List<TuitionModel> list;
+    private static class MyTuitionAdapter extends ListAdapter<TuitionModel, MyTuitionAdapter.VH> {
         interface OnEditListener { void onEdit(TuitionModel t); }
         OnEditListener listener;
 
-        public MyTuitionAdapter(List<TuitionModel> list, OnEditListener listener) {
-            this.list = list;
+        public MyTuitionAdapter(OnEditListener listener) {
+            super(ModelDiffs.TUITION);
             this.listener = listener;
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return ModelDiffs.stableId(getItem(position).getTuitionId());
         }
 
         @NonNull @Override
@@ -498,7 +510,7 @@ public class TeacherTuitionFragment extends Fragment {
 
         @Override
         public void onBindViewHolder(@NonNull VH holder, int position) {
-            TuitionModel t = list.get(position);
+            TuitionModel t = getItem(position);
 
             holder.title.setText(t.getTitle());
             holder.fee.setText("₹" + t.getFee() + "/mo");
@@ -520,8 +532,6 @@ public class TeacherTuitionFragment extends Fragment {
             holder.itemView.setOnClickListener(v -> listener.onEdit(t));
         }
 
-        @Override public int getItemCount() { return list.size(); }
-
         static class VH extends RecyclerView.ViewHolder {
             TextView title, tags, fee, students;
             ImageView img;
@@ -1,32 +1,67 @@
 package com.onrender.tutrnav;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class TeacherViewModel extends ViewModel {
+
+    /**
+     * What one snapshot changed. modifiedBefore holds the previous value of each entry
+     * in modified, in the same order, so aggregates can subtract the old contribution.
+     */
+    public static class Delta<T> {
+        public final List<T> added = new ArrayList<>();
+        public final List<T> modified = new ArrayList<>();
+        public final List<T> modifiedBefore = new ArrayList<>();
+        public final List<T> removed = new ArrayList<>();
+
+        public boolean isEmpty() {
+            return added.isEmpty() && modified.isEmpty() && removed.isEmpty();
+        }
+    }
+
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
     private final FirebaseAuth mAuth = FirebaseAuth.getInstance();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     private final MutableLiveData<List<TuitionModel>> tuitionsLiveData = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<List<EnrollmentModel>> enrollmentsLiveData = new MutableLiveData<>(new ArrayList<>());
+    private final MutableLiveData<Delta<TuitionModel>> tuitionChanges = new MutableLiveData<>();
+    private final MutableLiveData<Delta<EnrollmentModel>> enrollmentChanges = new MutableLiveData<>();
 
-    // Quick lookup maps
-    private final Map<String, TuitionModel> tuitionMap = new HashMap<>();
+    // Indexed by document id, patched from each snapshot's document changes (main thread only)
+    private final Map<String, TuitionModel> tuitionMap = new LinkedHashMap<>();
+    private final Map<String, EnrollmentModel> enrollmentMap = new LinkedHashMap<>();
+    private final EnrollmentGroups enrollmentGroups = new EnrollmentGroups();
+    private final EarningsAggregator earnings = new EarningsAggregator();
 
     private ListenerRegistration tuitionsListener;
     private ListenerRegistration enrollmentsListener;
 
+    // Main thread only. Seen: a snapshot has replaced the mirror's seed in the LiveData.
+    // Mirrored: a server snapshot has replaced the mirror's rows for this teacher.
+    private boolean tuitionsSeen = false;
+    private boolean enrollmentsSeen = false;
+    private boolean tuitionsMirrored = false;
+    private boolean enrollmentsMirrored = false;
+
     public TeacherViewModel() {
         startListening();
     }
@@ -35,43 +70,189 @@ public class TeacherViewModel extends ViewModel {
         if (mAuth.getCurrentUser() == null) return;
         String uid = mAuth.getCurrentUser().getUid();
 
+        // Cold start: show the local mirror until the first snapshot replaces it
+        LocalStore store = LocalStore.get();
+        store.read(s -> s.tuitionsForTeacher(uid), cached -> {
+            if (!tuitionsSeen && !cached.isEmpty()) {
+                earnings.reset(cached, enrollmentsLiveData.getValue());
+                tuitionsLiveData.setValue(cached);
+            }
+        });
+        store.read(s -> s.enrollmentsForTeacher(uid), cached -> {
+            if (!enrollmentsSeen && !cached.isEmpty()) {
+                enrollmentGroups.reset(cached);
+                earnings.reset(tuitionsLiveData.getValue(), cached);
+                enrollmentsLiveData.setValue(cached);
+            }
+        });
+
+        // Only changed documents are mapped (on the mapping thread); the maps are patched on main.
+        // Metadata changes are included so the switch from Firestore's cache to the server
+        // result is seen even when no document changed.
+
         // 1. Listen to Tuitions
-        tuitionsListener = db.collection("tuitions").whereEqualTo("teacherId", uid)
-                .addSnapshotListener((value, error) -> {
+        tuitionsListener = ListenerRegistry.track(db.collection("tuitions").whereEqualTo("teacherId", uid)
+                .addSnapshotListener(SnapshotMapping.EXECUTOR, MetadataChanges.INCLUDE, (value, error) -> {
                     if (error != null || value == null) return;
-                    List<TuitionModel> list = new ArrayList<>();
-                    tuitionMap.clear();
-                    for (DocumentSnapshot doc : value) {
-                        TuitionModel t = doc.toObject(TuitionModel.class);
-                        if (t != null) {
-                            list.add(t);
-                            tuitionMap.put(t.getTuitionId(), t);
+                    List<Change<TuitionModel>> changes = mapChanges(value, ModelMappers::toTuition);
+                    boolean fromServer = !value.getMetadata().isFromCache();
+
+                    mainHandler.post(() -> {
+                        // The first snapshot replaces whatever the local mirror seeded, even if empty
+                        boolean first = !tuitionsSeen;
+                        tuitionsSeen = true;
+                        Delta<TuitionModel> delta = applyChanges(changes, tuitionMap,
+                                d -> {
+                                    if (first) earnings.reset(tuitionMap.values(), enrollmentsLiveData.getValue());
+                                    else earnings.applyTuitions(d);
+                                },
+                                tuitionChanges, tuitionsLiveData, first);
+
+                        if (!tuitionsMirrored) {
+                            // Firestore's own cache may be as stale as the mirror; wait for the server
+                            if (!fromServer) return;
+                            tuitionsMirrored = true;
+                            List<TuitionModel> all = new ArrayList<>(tuitionMap.values());
+                            store.write(s -> s.replaceTeacherTuitions(uid, all));
+                        } else if (delta != null) {
+                            store.write(s -> {
+                                s.putTuitions(upserts(delta));
+                                List<String> removed = new ArrayList<>();
+                                for (TuitionModel t : delta.removed) removed.add(t.getTuitionId());
+                                s.deleteTuitions(removed);
+                            });
                         }
-                    }
-                    tuitionsLiveData.setValue(list);
-                });
+                    });
+                }));
 
         // 2. Listen to Enrollments
-        enrollmentsListener = db.collection("enrollments").whereEqualTo("teacherId", uid)
-                .addSnapshotListener((value, error) -> {
+        enrollmentsListener = ListenerRegistry.track(db.collection("enrollments").whereEqualTo("teacherId", uid)
+                .addSnapshotListener(SnapshotMapping.EXECUTOR, MetadataChanges.INCLUDE, (value, error) -> {
                     if (error != null || value == null) return;
-                    List<EnrollmentModel> list = new ArrayList<>();
-                    for (DocumentSnapshot doc : value) {
-                        EnrollmentModel e = doc.toObject(EnrollmentModel.class);
-                        if (e != null) list.add(e);
-                    }
-                    enrollmentsLiveData.setValue(list);
-                });
+                    List<Change<EnrollmentModel>> changes = mapChanges(value, ModelMappers::toEnrollment);
+                    boolean fromServer = !value.getMetadata().isFromCache();
+                    mainHandler.post(() -> {
+                        boolean first = !enrollmentsSeen;
+                        enrollmentsSeen = true;
+                        Delta<EnrollmentModel> delta = applyChanges(changes, enrollmentMap,
+                                // The first snapshot replaces whatever the local mirror seeded, even if empty
+                                d -> {
+                                    if (first) {
+                                        enrollmentGroups.reset(enrollmentMap.values());
+                                        earnings.reset(tuitionsLiveData.getValue(), enrollmentMap.values());
+                                    } else {
+                                        enrollmentGroups.apply(d);
+                                        earnings.applyEnrollments(d);
+                                    }
+                                },
+                                enrollmentChanges, enrollmentsLiveData, first);
+
+                        if (!enrollmentsMirrored) {
+                            if (!fromServer) return;
+                            enrollmentsMirrored = true;
+                            List<EnrollmentModel> all = new ArrayList<>(enrollmentMap.values());
+                            store.write(s -> s.replaceTeacherEnrollments(uid, all));
+                        } else if (delta != null) {
+                            store.write(s -> {
+                                s.putEnrollments(upserts(delta));
+                                List<String> removed = new ArrayList<>();
+                                for (EnrollmentModel e : delta.removed) removed.add(e.getEnrollmentId());
+                                s.deleteEnrollments(removed);
+                            });
+                        }
+                    });
+                }));
     }
 
     public LiveData<List<TuitionModel>> getTuitions() { return tuitionsLiveData; }
     public LiveData<List<EnrollmentModel>> getEnrollments() { return enrollmentsLiveData; }
     public TuitionModel getTuitionById(String id) { return tuitionMap.get(id); }
 
+    /** Enrollments by class and status; already up to date when the enrollment LiveData fires. */
+    public EnrollmentGroups getEnrollmentGroups() { return enrollmentGroups; }
+
+    /** Active students and fee totals; already up to date when either LiveData fires. */
+    public EarningsAggregator getEarnings() { return earnings; }
+
+    /** Per-snapshot changes to the tuition list, delivered just before the full list. */
+    public LiveData<Delta<TuitionModel>> getTuitionChanges() { return tuitionChanges; }
+
+    /** Per-snapshot changes to the enrollment list, delivered just before the full list. */
+    public LiveData<Delta<EnrollmentModel>> getEnrollmentChanges() { return enrollmentChanges; }
+
+    // ==========================================
+    //       INCREMENTAL SNAPSHOT HANDLING
+    // ==========================================
+
+    // One mapped document change; a null model means the document was removed
+    private static class Change<T> {
+        final String id;
+        final T model;
+
+        Change(String id, T model) {
+            this.id = id;
+            this.model = model;
+        }
+    }
+
+    private static <T> List<Change<T>> mapChanges(QuerySnapshot value, SnapshotMapping.Mapper<T> mapper) {
+        List<Change<T>> changes = new ArrayList<>();
+        for (DocumentChange dc : value.getDocumentChanges()) {
+            String id = dc.getDocument().getId();
+            if (dc.getType() == DocumentChange.Type.REMOVED) {
+                changes.add(new Change<>(id, null));
+                continue;
+            }
+            try {
+                T model = mapper.map(dc.getDocument());
+                if (model != null) changes.add(new Change<>(id, model));
+            } catch (RuntimeException e) {
+                // Ignore malformed
+            }
+        }
+        return changes;
+    }
+
+    // setValue rather than postValue: every delta must reach observers, none may be coalesced.
+    // index (if any) sees the delta before observers do. Returns the delta that was published,
+    // or null if the snapshot changed nothing. first publishes even an empty delta, so the
+    // first snapshot always replaces a list seeded from the local mirror.
+    private static <T> Delta<T> applyChanges(List<Change<T>> changes, Map<String, T> byId, Consumer<Delta<T>> index,
+                                         MutableLiveData<Delta<T>> deltas, MutableLiveData<List<T>> full,
+                                         boolean first) {
+        Delta<T> delta = new Delta<>();
+        for (Change<T> change : changes) {
+            if (change.model == null) {
+                T old = byId.remove(change.id);
+                if (old != null) delta.removed.add(old);
+                continue;
+            }
+            T old = byId.put(change.id, change.model);
+            if (old == null) {
+                delta.added.add(change.model);
+            } else {
+                delta.modified.add(change.model);
+                delta.modifiedBefore.add(old);
+            }
+        }
+        if (delta.isEmpty() && !first) return null; // Metadata-only snapshot
+
+        if (index != null) index.accept(delta);
+        deltas.setValue(delta);
+        full.setValue(new ArrayList<>(byId.values()));
+        return delta;
+    }
+
+    private static <T> List<T> upserts(Delta<T> delta) {
+        List<T> list = new ArrayList<>(delta.added);
+        list.addAll(delta.modified);
+        return list;
+    }
+
     @Override
     protected void onCleared() {
         super.onCleared();
         if (tuitionsListener != null) tuitionsListener.remove();
         if (enrollmentsListener != null) enrollmentsListener.remove();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.onrender.tutrnav;
+
+/**
+ * Applies an Android-style 4x5 colour matrix (row-major R, G, B, A; fifth column is
+ * an offset in 0..255) to packed ARGB pixels, with the same clamping ColorMatrix uses.
+ */
+public final class TileColorMatrix {
+
+    private TileColorMatrix() {}
+
+    public static void apply(int[] argb, int count, float[] m) {
+        if (isPerChannel(m)) {
+            applyLookup(argb, count, m);
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int p = argb[i];
+            int a = p >>> 24, r = (p >> 16) & 0xFF, g = (p >> 8) & 0xFF, b = p & 0xFF;
+
+            int nr = clamp(m[0] * r + m[1] * g + m[2] * b + m[3] * a + m[4]);
+            int ng = clamp(m[5] * r + m[6] * g + m[7] * b + m[8] * a + m[9]);
+            int nb = clamp(m[10] * r + m[11] * g + m[12] * b + m[13] * a + m[14]);
+            int na = clamp(m[15] * r + m[16] * g + m[17] * b + m[18] * a + m[19]);
+
+            argb[i] = (na << 24) | (nr << 16) | (ng << 8) | nb;
+        }
+    }
+
+    // Scale + offset per channel only (the neon-road matrix is one): 4 table lookups per pixel
+    private static void applyLookup(int[] argb, int count, float[] m) {
+        int[] lutR = table(m[0], m[4]);
+        int[] lutG = table(m[6], m[9]);
+        int[] lutB = table(m[12], m[14]);
+        int[] lutA = table(m[18], m[19]);
+
+        for (int i = 0; i < count; i++) {
+            int p = argb[i];
+            argb[i] = (lutA[p >>> 24] << 24)
+                    | (lutR[(p >> 16) & 0xFF] << 16)
+                    | (lutG[(p >> 8) & 0xFF] << 8)
+                    | lutB[p & 0xFF];
+        }
+    }
+
+    private static boolean isPerChannel(float[] m) {
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                if (row != col && m[row * 5 + col] != 0f) return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] table(float scale, float offset) {
+        int[] lut = new int[256];
+        for (int v = 0; v < 256; v++) lut[v] = clamp(scale * v + offset);
+        return lut;
+    }
+
+    private static int clamp(float v) {
+        int i = (int) v;
+        return i < 0 ? 0 : (i > 255 ? 255 : i);
+    }
+}
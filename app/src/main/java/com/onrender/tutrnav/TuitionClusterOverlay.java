@@ -0,0 +1,224 @@
+package com.onrender.tutrnav;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.MotionEvent;
+
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.views.MapView;
+import org.osmdroid.views.Projection;
+import org.osmdroid.views.overlay.Overlay;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Draws every loaded tuition as either a pin or a count bubble, in one overlay.
+ *
+ * Replaces one Marker overlay per tuition. Clusters are recomputed on a background
+ * thread whenever the data or the integer zoom level changes; until the new result
+ * lands, the previous clusters keep drawing so panning never waits on the worker.
+ */
+public class TuitionClusterOverlay extends Overlay {
+
+    public interface PinIconProvider {
+        Bitmap iconFor(TuitionModel tuition);
+    }
+
+    public interface OnClusterTapListener {
+        void onTuitionTapped(TuitionModel tuition);
+        void onClusterTapped(TuitionClusterer.Cluster cluster);
+    }
+
+    private static final int CLUSTER_RADIUS_DP = 40;
+    private static final int BUBBLE_RADIUS_DP = 18;
+
+    private final MapView mapView;
+    private final PinIconProvider iconProvider;
+    private final OnClusterTapListener listener;
+    private final TuitionClusterer clusterer;
+    private final float density;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Paint bubblePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Point scratch = new Point();
+    private final GeoPoint scratchGeo = new GeoPoint(0.0, 0.0);
+    private final Rect textBounds = new Rect();
+
+    // Main-thread state
+    private List<TuitionModel> tuitions = new ArrayList<>();
+    private TuitionSpatialIndex index; // Null until the worker has built one for the current data
+    private List<TuitionClusterer.Cluster> clusters = new ArrayList<>();
+    private int clusteredZoom = -1;
+    private int generation = 0;
+    private int appliedGeneration = 0;
+
+    public TuitionClusterOverlay(MapView mapView, PinIconProvider iconProvider, OnClusterTapListener listener) {
+        this.mapView = mapView;
+        this.iconProvider = iconProvider;
+        this.listener = listener;
+        this.density = mapView.getResources().getDisplayMetrics().density;
+        // osmdroid draws unscaled 256px tiles, so map pixels are screen pixels
+        this.clusterer = new TuitionClusterer(Math.round(CLUSTER_RADIUS_DP * density));
+
+        bubblePaint.setColor(Color.parseColor("#FFCA28"));
+        strokePaint.setColor(Color.WHITE);
+        strokePaint.setStyle(Paint.Style.STROKE);
+        strokePaint.setStrokeWidth(3 * density);
+        textPaint.setColor(Color.parseColor("#2E2345"));
+        textPaint.setTextSize(13 * density);
+        textPaint.setFakeBoldText(true);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+    }
+
+    /**
+     * Replaces the data set after tuitions appeared, disappeared or moved. The spatial
+     * index and clusters for the current zoom are rebuilt on the worker thread.
+     */
+    public void setTuitions(List<TuitionModel> tuitions) {
+        this.tuitions = new ArrayList<>(tuitions);
+        this.index = null;
+        recluster((int) Math.floor(mapView.getZoomLevelDouble()));
+    }
+
+    /**
+     * Swaps in new instances for tuitions whose details changed but whose position did not.
+     * Cluster membership can't change, so existing clusters are patched without reclustering.
+     */
+    public void replaceTuitions(List<TuitionModel> changed) {
+        Map<String, TuitionModel> byId = new HashMap<>();
+        for (TuitionModel t : changed) byId.put(t.getTuitionId(), t);
+
+        for (int i = 0; i < tuitions.size(); i++) {
+            TuitionModel fresh = byId.get(tuitions.get(i).getTuitionId());
+            if (fresh != null) tuitions.set(i, fresh);
+        }
+        index = null; // Holds the old instances; the next zoom recluster rebuilds it
+
+        if (appliedGeneration != generation) {
+            // A recluster is still running on the old instances; redo it on the new ones
+            recluster(clusteredZoom);
+            return;
+        }
+
+        List<TuitionClusterer.Cluster> patched = new ArrayList<>(clusters.size());
+        for (TuitionClusterer.Cluster c : clusters) {
+            List<TuitionModel> members = null;
+            for (int i = 0; i < c.size(); i++) {
+                TuitionModel fresh = byId.get(c.getMembers().get(i).getTuitionId());
+                if (fresh == null) continue;
+                if (members == null) members = new ArrayList<>(c.getMembers());
+                members.set(i, fresh);
+            }
+            patched.add(members == null ? c : new TuitionClusterer.Cluster(c.getLatitude(), c.getLongitude(), members));
+        }
+        clusters = patched;
+        mapView.invalidate();
+    }
+
+    private void recluster(int zoom) {
+        if (worker.isShutdown()) return;
+        clusteredZoom = zoom;
+        final int gen = ++generation;
+        final List<TuitionModel> snapshot = new ArrayList<>(tuitions);
+        final TuitionSpatialIndex knownIndex = index;
+
+        worker.execute(() -> {
+            // Zoom-only reclusters reuse the index; data changes rebuild it here, off the UI thread
+            TuitionSpatialIndex workIndex = knownIndex != null ? knownIndex : new TuitionSpatialIndex(snapshot);
+            List<TuitionClusterer.Cluster> result = clusterer.cluster(workIndex, snapshot, zoom);
+            mainHandler.post(() -> {
+                if (gen != generation) return; // Superseded by newer data or zoom
+                index = workIndex;
+                clusters = result;
+                appliedGeneration = gen;
+                mapView.invalidate();
+            });
+        });
+    }
+
+    @Override
+    public void draw(Canvas canvas, MapView map, boolean shadow) {
+        if (shadow) return;
+
+        int zoom = (int) Math.floor(map.getZoomLevelDouble());
+        if (zoom != clusteredZoom) recluster(zoom);
+
+        Projection pj = map.getProjection();
+        float bubbleRadius = BUBBLE_RADIUS_DP * density;
+
+        for (TuitionClusterer.Cluster c : clusters) {
+            scratchGeo.setCoords(c.getLatitude(), c.getLongitude());
+            pj.toPixels(scratchGeo, scratch);
+
+            if (c.isSingle()) {
+                Bitmap pinBitmap = iconProvider.iconFor(c.getMembers().get(0));
+                if (pinBitmap != null) {
+                    // Anchor: centre-bottom, matching the old Marker setup
+                    canvas.drawBitmap(pinBitmap, scratch.x - pinBitmap.getWidth() / 2f, scratch.y - pinBitmap.getHeight(), null);
+                }
+            } else {
+                float r = bubbleRadius + Math.min(12, (float) Math.log10(c.size()) * 6) * density;
+                canvas.drawCircle(scratch.x, scratch.y, r, bubblePaint);
+                canvas.drawCircle(scratch.x, scratch.y, r, strokePaint);
+
+                String label = c.size() > 999 ? "999+" : String.valueOf(c.size());
+                textPaint.getTextBounds(label, 0, label.length(), textBounds);
+                canvas.drawText(label, scratch.x, scratch.y + textBounds.height() / 2f, textPaint);
+            }
+        }
+    }
+
+    @Override
+    public boolean onSingleTapConfirmed(MotionEvent e, MapView map) {
+        Projection pj = map.getProjection();
+        float bubbleRadius = BUBBLE_RADIUS_DP * density;
+
+        // Walk backwards so the top-most drawn item wins
+        for (int i = clusters.size() - 1; i >= 0; i--) {
+            TuitionClusterer.Cluster c = clusters.get(i);
+            scratchGeo.setCoords(c.getLatitude(), c.getLongitude());
+            pj.toPixels(scratchGeo, scratch);
+
+            if (c.isSingle()) {
+                Bitmap pinBitmap = iconProvider.iconFor(c.getMembers().get(0));
+                if (pinBitmap == null) continue;
+                float left = scratch.x - pinBitmap.getWidth() / 2f;
+                float top = scratch.y - pinBitmap.getHeight();
+                if (e.getX() >= left && e.getX() <= left + pinBitmap.getWidth()
+                        && e.getY() >= top && e.getY() <= scratch.y) {
+                    listener.onTuitionTapped(c.getMembers().get(0));
+                    return true;
+                }
+            } else {
+                float dx = e.getX() - scratch.x, dy = e.getY() - scratch.y;
+                if (dx * dx + dy * dy <= bubbleRadius * bubbleRadius * 2) {
+                    listener.onClusterTapped(c);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void onDetach(MapView map) {
+        worker.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+        super.onDetach(map);
+    }
+}
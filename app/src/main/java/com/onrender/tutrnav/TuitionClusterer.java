@@ -0,0 +1,84 @@
+package com.onrender.tutrnav;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Distance-based clustering over the spatial index (same approach as the Google
+ * maps-utils non-hierarchical algorithm): each unclaimed tuition seeds a cluster
+ * and claims every unclaimed neighbour within a fixed on-screen radius at that zoom.
+ * Pure Java so it can run on a worker thread and be tested off-device.
+ */
+public class TuitionClusterer {
+
+    // 256px Web Mercator tiles: metres per pixel at the equator for zoom 0
+    private static final double METERS_PER_PIXEL_Z0 = 156543.03392;
+
+    public static class Cluster {
+        private final double latitude;
+        private final double longitude;
+        private final List<TuitionModel> members;
+
+        Cluster(double latitude, double longitude, List<TuitionModel> members) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.members = Collections.unmodifiableList(members);
+        }
+
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public List<TuitionModel> getMembers() { return members; }
+        public int size() { return members.size(); }
+        public boolean isSingle() { return members.size() == 1; }
+    }
+
+    private final int radiusPx;
+
+    public TuitionClusterer(int radiusPx) {
+        this.radiusPx = radiusPx;
+    }
+
+    public List<Cluster> cluster(TuitionSpatialIndex index, List<TuitionModel> tuitions, int zoom) {
+        List<Cluster> result = new ArrayList<>();
+        Set<TuitionModel> claimed = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> seenIds = new HashSet<>();
+
+        for (TuitionModel seed : tuitions) {
+            if (!GeoMath.hasLocation(seed) || claimed.contains(seed)) continue;
+            if (seed.getTuitionId() != null && seenIds.contains(seed.getTuitionId())) continue;
+
+            double radiusM = radiusPx * metersPerPixel(seed.getLatitude(), zoom);
+            List<TuitionModel> members = new ArrayList<>();
+            double sumLat = 0, sumLng = 0;
+
+            for (TuitionModel t : index.withinRadius(seed.getLatitude(), seed.getLongitude(), radiusM)) {
+                if (!claimed.add(t)) continue;
+                // Two copies of one listing (say, cached and fresh) are a single member
+                if (t.getTuitionId() != null && !seenIds.add(t.getTuitionId())) continue;
+                members.add(t);
+                sumLat += t.getLatitude();
+                sumLng += t.getLongitude();
+            }
+
+            // The seed itself may be missing from the index if the list and index are out of step
+            if (members.isEmpty()) {
+                claimed.add(seed);
+                if (seed.getTuitionId() != null) seenIds.add(seed.getTuitionId());
+                members.add(seed);
+                sumLat = seed.getLatitude();
+                sumLng = seed.getLongitude();
+            }
+
+            result.add(new Cluster(sumLat / members.size(), sumLng / members.size(), members));
+        }
+        return result;
+    }
+
+    public static double metersPerPixel(double latitude, int zoom) {
+        return METERS_PER_PIXEL_Z0 * Math.cos(Math.toRadians(latitude)) / (1L << zoom);
+    }
+}
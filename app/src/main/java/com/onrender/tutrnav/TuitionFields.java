@@ -0,0 +1,216 @@
+package com.onrender.tutrnav;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Typed fee and timing fields of a tuition, and the parsing that derives them from the
+ * free-form "fee" and "time" strings teachers type.
+ *
+ * The strings stay as the teacher wrote them, for display. The typed fields are what
+ * schedules and earnings compute with: {@link #FEE_MINOR} is the fee in paise and
+ * {@link #SLOTS} the weekly class times. Both are written on every save, and older
+ * documents get them from {@link TuitionMigration}. Parsing happens there and on save,
+ * never per render. Documents nobody has migrated yet fall back to parsing in
+ * {@link #slotsOf} and {@link #feeMinorOf}.
+ */
+public final class TuitionFields {
+
+    public static final String FEE_MINOR = "feeMinor";
+    public static final String SLOTS = "slots";
+
+    // Days as WeeklySlot bits: Monday is bit 0
+    private static final String DAY = "(mon(?:day)?|tue(?:s(?:day)?)?|wed(?:nesday)?|thu(?:r(?:s(?:day)?)?)?"
+            + "|fri(?:day)?|sat(?:urday)?|sun(?:day)?)\\b\\.?";
+    private static final Pattern DAY_RANGE = Pattern.compile("\\b" + DAY + "\\s*(?:-|–|to)\\s*" + DAY);
+    private static final Pattern SINGLE_DAY = Pattern.compile("\\b" + DAY);
+    private static final Pattern EVERY_DAY = Pattern.compile("\\b(?:daily|every\\s*day|all\\s*days)\\b");
+    private static final Pattern WEEKDAYS = Pattern.compile("\\bweekdays?\\b");
+    private static final Pattern WEEKENDS = Pattern.compile("\\bweekends?\\b");
+
+    private static final String TIME = "(\\d{1,2})(?:[:.](\\d{2}))?\\s*(?:([ap])\\.?\\s*m\\b\\.?)?";
+    private static final Pattern TIME_RANGE = Pattern.compile(TIME + "\\s*(?:-|–|—|to|till|until)\\s*" + TIME);
+
+    private static final int WEEKDAY_BITS = 0x1F;
+    private static final int WEEKEND_BITS = 0x60;
+
+    private TuitionFields() {}
+
+    // ==========================================
+    //       READING A TUITION
+    // ==========================================
+
+    /** Weekly class times; parsed from the time string only for documents not yet migrated. */
+    public static List<WeeklySlot> slotsOf(TuitionModel t) {
+        if (t.getSlots() != null) return t.getSlots();
+        return parseSlots(t.getTime());
+    }
+
+    /** Fee in paise; parsed from the fee string only for documents not yet migrated. */
+    public static long feeMinorOf(TuitionModel t) {
+        if (t.getSlots() != null) return t.getFeeMinor(); // Both typed fields are written together
+        return parseFeeMinor(t.getFee());
+    }
+
+    /** Typed fields for a document whose fee and time strings are fee and time. */
+    public static void putTypedFields(Map<String, Object> data, String fee, String time) {
+        data.put(FEE_MINOR, parseFeeMinor(fee));
+        List<Map<String, Object>> slots = new ArrayList<>();
+        for (WeeklySlot s : parseSlots(time)) slots.add(s.toMap());
+        data.put(SLOTS, slots);
+    }
+
+    /** Slots stored in a document, or null if it has none yet. */
+    static List<WeeklySlot> slotsFromData(Object value) {
+        if (!(value instanceof List)) return null;
+        List<WeeklySlot> slots = new ArrayList<>();
+        for (Object o : (List<?>) value) {
+            WeeklySlot s = WeeklySlot.fromMap(o);
+            if (s != null) slots.add(s);
+        }
+        return slots;
+    }
+
+    // Compact form for the local mirror: "days:start:end" joined by commas
+    static String encodeSlots(List<WeeklySlot> slots) {
+        if (slots == null) return null;
+        StringBuilder sb = new StringBuilder();
+        for (WeeklySlot s : slots) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(s.getDays()).append(':').append(s.getStartMinute()).append(':').append(s.getEndMinute());
+        }
+        return sb.toString();
+    }
+
+    static List<WeeklySlot> decodeSlots(String encoded) {
+        if (encoded == null) return null;
+        List<WeeklySlot> slots = new ArrayList<>();
+        if (encoded.isEmpty()) return slots;
+        for (String part : encoded.split(",")) {
+            String[] f = part.split(":");
+            if (f.length != 3) continue;
+            try {
+                slots.add(new WeeklySlot(Integer.parseInt(f[0]), Integer.parseInt(f[1]), Integer.parseInt(f[2])));
+            } catch (NumberFormatException ignored) {}
+        }
+        return slots;
+    }
+
+    // ==========================================
+    //       PARSING
+    // ==========================================
+
+    /**
+     * Minor units of the first amount in text: "₹1,500/month" is 150000 and "1500.5" is
+     * 150050. Grouping commas are skipped and only two decimal places are kept. Text with
+     * no digits is 0.
+     */
+    public static long parseFeeMinor(String text) {
+        if (text == null) return 0;
+        int i = 0, n = text.length();
+        while (i < n && !Character.isDigit(text.charAt(i))) i++;
+        if (i == n) return 0;
+
+        long major = 0;
+        for (; i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c)) major = major * 10 + (c - '0');
+            else if (c != ',') break;
+        }
+
+        long minor = 0;
+        if (i + 1 < n && text.charAt(i) == '.' && Character.isDigit(text.charAt(i + 1))) {
+            minor = (text.charAt(i + 1) - '0') * 10;
+            if (i + 2 < n && Character.isDigit(text.charAt(i + 2))) minor += text.charAt(i + 2) - '0';
+        }
+        return major * 100 + minor;
+    }
+
+    /**
+     * Weekly slots described by text, e.g. "04:00 PM - 06:00 PM", "Mon-Fri 4-6pm" or
+     * "Sat, Sun 10:30 am to 12 pm; Wed 17:00-18:30". Parts separated by ';', '|' or new
+     * lines are separate slots. A part that names no days runs every day, as the old
+     * day-less strings meant. A time without am/pm takes the other end's when that keeps
+     * the start before the end ("4-6 pm" is 16:00-18:00, "11-1 pm" is 11:00-13:00). Times
+     * with no am/pm at all are read as 24-hour. Parts without a readable time range are
+     * skipped.
+     */
+    public static List<WeeklySlot> parseSlots(String text) {
+        if (text == null || text.trim().isEmpty()) return Collections.emptyList();
+        List<WeeklySlot> slots = new ArrayList<>();
+        for (String part : text.split("[;|\\n]")) {
+            WeeklySlot slot = parseSlot(part.toLowerCase(Locale.ROOT));
+            if (slot != null) slots.add(slot);
+        }
+        return slots;
+    }
+
+    private static WeeklySlot parseSlot(String part) {
+        int days = 0;
+
+        // Day names first, so "mon-fri" isn't mistaken for part of a time range
+        Matcher m = DAY_RANGE.matcher(part);
+        while (m.find()) {
+            int from = dayIndex(m.group(1)), to = dayIndex(m.group(2));
+            for (int d = from; ; d = (d + 1) % 7) {
+                days |= 1 << d;
+                if (d == to) break;
+            }
+        }
+        part = DAY_RANGE.matcher(part).replaceAll(" ");
+
+        if (EVERY_DAY.matcher(part).find()) days |= WeeklySlot.ALL_DAYS;
+        if (WEEKDAYS.matcher(part).find()) days |= WEEKDAY_BITS;
+        if (WEEKENDS.matcher(part).find()) days |= WEEKEND_BITS;
+
+        m = SINGLE_DAY.matcher(part);
+        while (m.find()) days |= 1 << dayIndex(m.group(1));
+        part = SINGLE_DAY.matcher(part).replaceAll(" ");
+
+        m = TIME_RANGE.matcher(part);
+        if (!m.find()) return null;
+        int h1 = Integer.parseInt(m.group(1)), h2 = Integer.parseInt(m.group(4));
+        int m1 = m.group(2) != null ? Integer.parseInt(m.group(2)) : 0;
+        int m2 = m.group(5) != null ? Integer.parseInt(m.group(5)) : 0;
+        String mer1 = m.group(3), mer2 = m.group(6);
+        if (m1 >= 60 || m2 >= 60) return null;
+
+        // A side without am/pm borrows the other's, unless that puts the start after the end
+        int start = minuteOfDay(h1, m1, mer1 != null ? mer1 : mer2);
+        int end = minuteOfDay(h2, m2, mer2 != null ? mer2 : mer1);
+        if (mer1 == null && mer2 != null && start >= end) start = minuteOfDay(h1, m1, flip(mer2));
+        else if (mer2 == null && mer1 != null && end <= start) end = minuteOfDay(h2, m2, flip(mer1));
+        if (start < 0 || end < 0 || start == end) return null;
+        if (end < start) end += WeeklySlot.MINUTES_PER_DAY; // Runs past midnight
+
+        return new WeeklySlot(days != 0 ? days : WeeklySlot.ALL_DAYS, start, end);
+    }
+
+    // -1 if the hour is out of range for the clock it's written in
+    private static int minuteOfDay(int hour, int minute, String meridiem) {
+        if (meridiem == null) return hour <= 24 ? (hour % 24) * 60 + minute : -1;
+        if (hour < 1 || hour > 12) return -1;
+        return ((hour % 12) + (meridiem.equals("p") ? 12 : 0)) * 60 + minute;
+    }
+
+    private static String flip(String meridiem) {
+        return meridiem.equals("a") ? "p" : "a";
+    }
+
+    private static int dayIndex(String name) {
+        switch (name.substring(0, 2)) {
+            case "mo": return 0;
+            case "tu": return 1;
+            case "we": return 2;
+            case "th": return 3;
+            case "fr": return 4;
+            case "sa": return 5;
+            default: return 6;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.onrender.tutrnav;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One-off back-fill of a teacher's classes saved before the typed fee and timing fields
+ * ({@link TuitionFields}), the geohash ({@link GeoHash#FIELD}) or the discover rank
+ * ({@link DiscoverFeed#RANK_FIELD}) existed. The student map finds classes only by
+ * geohash, so a class stays off it until its teacher's back-fill has run.
+ *
+ * Each legacy document's fee and time strings are parsed once here and written back in
+ * WriteBatch chunks, so later readers never parse them. The rank is computed from the
+ * document's own save time, so an old class doesn't jump to the top of the feed; one with
+ * no save time at all ranks as the oldest. Fields a document already carries are left
+ * alone, so a rerun after a partial failure only redoes what is missing.
+ */
+public final class TuitionMigration {
+
+    private static final String TAG = "TuitionMigration";
+    private static final String PREFS = "Migrations";
+
+    private TuitionMigration() {}
+
+    /** Runs the back-fill for teacherId once per device; retried on the next launch if it fails. */
+    public static void backfillOnce(Context context, FirebaseFirestore db, String teacherId) {
+        SharedPreferences prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        // Versioned so devices that ran an earlier back-fill also pick up the newer fields
+        String key = "tuitionBackfill_v2_" + teacherId;
+        if (prefs.getBoolean(key, false)) return;
+
+        backfill(db, teacherId)
+                .addOnSuccessListener(count -> {
+                    Log.i(TAG, "Back-filled " + count + " classes");
+                    prefs.edit().putBoolean(key, true).apply();
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Class back-fill failed; will retry", e));
+    }
+
+    /** Resolves to the number of documents updated. */
+    static Task<Integer> backfill(FirebaseFirestore db, String teacherId) {
+        return db.collection("tuitions").whereEqualTo("teacherId", teacherId)
+                .get()
+                .continueWithTask(task -> {
+                    List<DocumentSnapshot> legacy = new ArrayList<>();
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        if (!doc.contains(TuitionFields.SLOTS) || !doc.contains(DiscoverFeed.RANK_FIELD)
+                                || needsGeohash(doc)) legacy.add(doc);
+                    }
+
+                    // Updates are independent of each other, so the chunks commit in parallel
+                    List<Task<Void>> commits = new ArrayList<>();
+                    for (List<DocumentSnapshot> chunk : KWayMerge.chunk(legacy, BroadcastDispatcher.MAX_BATCH_WRITES)) {
+                        WriteBatch batch = db.batch();
+                        for (DocumentSnapshot doc : chunk) {
+                            Map<String, Object> fields = new HashMap<>();
+                            if (!doc.contains(TuitionFields.SLOTS)) {
+                                TuitionFields.putTypedFields(fields, doc.getString("fee"), doc.getString("time"));
+                            }
+                            if (needsGeohash(doc)) {
+                                TuitionModel t = ModelMappers.toTuition(doc);
+                                fields.put(GeoHash.FIELD, GeoHash.encode(t.getLatitude(), t.getLongitude()));
+                            }
+                            if (!doc.contains(DiscoverFeed.RANK_FIELD)) {
+                                fields.put(DiscoverFeed.RANK_FIELD, DiscoverFeed.rankOf(
+                                        ModelMappers.toTuition(doc), savedAtMillis(doc)));
+                            }
+                            fields.put(CacheSync.UPDATED_AT, FieldValue.serverTimestamp());
+                            batch.update(doc.getReference(), fields);
+                        }
+                        commits.add(batch.commit());
+                    }
+                    return Tasks.whenAll(commits).continueWith(t -> {
+                        if (!t.isSuccessful()) throw Objects.requireNonNull(t.getException());
+                        return legacy.size();
+                    });
+                });
+    }
+
+    private static boolean needsGeohash(DocumentSnapshot doc) {
+        return !doc.contains(GeoHash.FIELD) && GeoMath.hasLocation(ModelMappers.toTuition(doc));
+    }
+
+    // When the class was last saved, read before this back-fill bumps updatedAt; 0 if unknown
+    private static long savedAtMillis(DocumentSnapshot doc) {
+        Map<String, Object> data = doc.getData();
+        Timestamp saved = data != null ? ModelMappers.timestamp(data, CacheSync.UPDATED_AT) : null;
+        return saved != null ? saved.toDate().getTime() : 0;
+    }
+}
@@ -13,6 +13,8 @@ public class TuitionModel {
     private String subject;      // Kept for legacy support, main categorization is now via Tags
     private String time;         // NEW: Field for class timings (e.g., "04:00 PM - 06:00 PM")
     private String fee;
+    private long feeMinor;       // Fee in paise, parsed once from fee (see TuitionFields)
+    private List<WeeklySlot> slots; // Weekly class times parsed from time; null until migrated
     private int maxStudents;     // NEW: Field for maximum capacity
     private String description;
     private String bannerUrl;
@@ -20,6 +22,7 @@ public class TuitionModel {
     // --- Location Data ---
     private double latitude;
     private double longitude;
+    private String geohash;      // Written alongside lat/lng so the map can issue prefix range queries
 
     // --- Teacher Info (Denormalized for faster reads) ---
     private String teacherName;
@@ -27,6 +30,7 @@ public class TuitionModel {
 
     // --- Metadata ---
     private List<String> tags;
+    private double discoverRank; // Sort key of the student discover feed (see DiscoverFeed)
 
     // ==========================================
     //       CONSTRUCTORS
@@ -87,6 +91,12 @@ public class TuitionModel {
     public String getFee() { return fee; }
     public void setFee(String fee) { this.fee = fee; }
 
+    public long getFeeMinor() { return feeMinor; }
+    public void setFeeMinor(long feeMinor) { this.feeMinor = feeMinor; }
+
+    public List<WeeklySlot> getSlots() { return slots; }
+    public void setSlots(List<WeeklySlot> slots) { this.slots = slots; }
+
     public int getMaxStudents() { return maxStudents; }
     public void setMaxStudents(int maxStudents) { this.maxStudents = maxStudents; }
 
@@ -102,6 +112,9 @@ public class TuitionModel {
     public double getLongitude() { return longitude; }
     public void setLongitude(double longitude) { this.longitude = longitude; }
 
+    public String getGeohash() { return geohash; }
+    public void setGeohash(String geohash) { this.geohash = geohash; }
+
     public String getTeacherName() { return teacherName; }
     public void setTeacherName(String teacherName) { this.teacherName = teacherName; }
 
@@ -111,6 +124,9 @@ public class TuitionModel {
     public List<String> getTags() { return tags; }
     public void setTags(List<String> tags) { this.tags = tags; }
 
+    public double getDiscoverRank() { return discoverRank; }
+    public void setDiscoverRank(double discoverRank) { this.discoverRank = discoverRank; }
+
     // ==========================================
     //       DEBUGGING / UTILITY
     // ==========================================
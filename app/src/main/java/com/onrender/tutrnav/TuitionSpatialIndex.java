@@ -0,0 +1,179 @@
+package com.onrender.tutrnav;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable 3-d tree over tuition locations, built once per fetch.
+ *
+ * Points are stored as unit vectors on the sphere so the tree works across the
+ * antimeridian and near the poles, and straight-line distance between vectors
+ * orders results exactly like great-circle distance. The tree is implicit: the
+ * node for a range [lo, hi) is its median element, split axis = depth % 3.
+ */
+public class TuitionSpatialIndex {
+
+    private final TuitionModel[] items;
+    private final double[] xs, ys, zs;
+
+    public TuitionSpatialIndex(List<TuitionModel> tuitions) {
+        List<TuitionModel> located = new ArrayList<>();
+        for (TuitionModel t : tuitions) {
+            if (GeoMath.hasLocation(t)) located.add(t);
+        }
+
+        int n = located.size();
+        items = located.toArray(new TuitionModel[0]);
+        xs = new double[n];
+        ys = new double[n];
+        zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            double lat = Math.toRadians(items[i].getLatitude());
+            double lng = Math.toRadians(items[i].getLongitude());
+            xs[i] = Math.cos(lat) * Math.cos(lng);
+            ys[i] = Math.cos(lat) * Math.sin(lng);
+            zs[i] = Math.sin(lat);
+        }
+        build(0, n, 0);
+    }
+
+    public int size() { return items.length; }
+
+    public boolean isEmpty() { return items.length == 0; }
+
+    // ==========================================
+    //       QUERIES
+    // ==========================================
+
+    /**
+     * Returns up to k tuitions closest to the given point, nearest first.
+     */
+    public List<TuitionModel> nearest(double lat, double lng, int k) {
+        if (k <= 0 || items.length == 0) return Collections.emptyList();
+        double[] q = toUnitVector(lat, lng);
+
+        NearestKSelector heap = new NearestKSelector(Math.min(k, items.length));
+        searchNearest(0, items.length, 0, q[0], q[1], q[2], heap);
+
+        int[] order = heap.drainAscending();
+        List<TuitionModel> result = new ArrayList<>(order.length);
+        for (int idx : order) result.add(items[idx]);
+        return result;
+    }
+
+    /**
+     * Returns every tuition within radiusMeters of the given point, nearest first.
+     */
+    public List<TuitionModel> withinRadius(double lat, double lng, double radiusMeters) {
+        if (radiusMeters < 0 || items.length == 0) return Collections.emptyList();
+        double[] q = toUnitVector(lat, lng);
+        double chord = GeoMath.metersToUnitChord(radiusMeters);
+
+        List<Integer> hits = new ArrayList<>();
+        List<Double> dists = new ArrayList<>();
+        searchRadius(0, items.length, 0, q[0], q[1], q[2], chord * chord, hits, dists);
+
+        Integer[] order = new Integer[hits.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(dists.get(a), dists.get(b)));
+
+        List<TuitionModel> result = new ArrayList<>(order.length);
+        for (int i : order) result.add(items[hits.get(i)]);
+        return result;
+    }
+
+    // ==========================================
+    //       TREE CONSTRUCTION
+    // ==========================================
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 3);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Hoare quickselect: places the k-th smallest (by axis) at index k
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi > lo) {
+            double pivot = coord((lo + hi) >>> 1, axis);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (coord(i, axis) < pivot) i++;
+                while (coord(j, axis) > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    // ==========================================
+    //       TREE SEARCH
+    // ==========================================
+
+    private void searchNearest(int lo, int hi, int depth, double qx, double qy, double qz, NearestKSelector heap) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        int axis = depth % 3;
+
+        heap.offer(mid, sq(xs[mid] - qx) + sq(ys[mid] - qy) + sq(zs[mid] - qz));
+
+        double diff = axisOf(qx, qy, qz, axis) - coord(mid, axis);
+        if (diff < 0) {
+            searchNearest(lo, mid, depth + 1, qx, qy, qz, heap);
+            if (!heap.isFull() || diff * diff < heap.worst()) searchNearest(mid + 1, hi, depth + 1, qx, qy, qz, heap);
+        } else {
+            searchNearest(mid + 1, hi, depth + 1, qx, qy, qz, heap);
+            if (!heap.isFull() || diff * diff < heap.worst()) searchNearest(lo, mid, depth + 1, qx, qy, qz, heap);
+        }
+    }
+
+    private void searchRadius(int lo, int hi, int depth, double qx, double qy, double qz,
+                              double maxSq, List<Integer> hits, List<Double> dists) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        int axis = depth % 3;
+
+        double d = sq(xs[mid] - qx) + sq(ys[mid] - qy) + sq(zs[mid] - qz);
+        if (d <= maxSq) {
+            hits.add(mid);
+            dists.add(d);
+        }
+
+        double diff = axisOf(qx, qy, qz, axis) - coord(mid, axis);
+        if (diff < 0 || diff * diff <= maxSq) searchRadius(lo, mid, depth + 1, qx, qy, qz, maxSq, hits, dists);
+        if (diff >= 0 || diff * diff <= maxSq) searchRadius(mid + 1, hi, depth + 1, qx, qy, qz, maxSq, hits, dists);
+    }
+
+    // ==========================================
+    //       HELPERS
+    // ==========================================
+
+    private static double[] toUnitVector(double lat, double lng) {
+        double la = Math.toRadians(lat);
+        double ln = Math.toRadians(lng);
+        return new double[] { Math.cos(la) * Math.cos(ln), Math.cos(la) * Math.sin(ln), Math.sin(la) };
+    }
+
+    private double coord(int i, int axis) {
+        return axis == 0 ? xs[i] : (axis == 1 ? ys[i] : zs[i]);
+    }
+
+    private static double axisOf(double x, double y, double z, int axis) {
+        return axis == 0 ? x : (axis == 1 ? y : z);
+    }
+
+    private static double sq(double v) { return v * v; }
+
+    private void swap(int a, int b) {
+        TuitionModel t = items[a]; items[a] = items[b]; items[b] = t;
+        double x = xs[a]; xs[a] = xs[b]; xs[b] = x;
+        double y = ys[a]; ys[a] = ys[b]; ys[b] = y;
+        double z = zs[a]; zs[a] = zs[b]; zs[b] = z;
+    }
+}
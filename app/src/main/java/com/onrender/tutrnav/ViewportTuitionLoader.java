@@ -0,0 +1,263 @@
+package com.onrender.tutrnav;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps live tuition data for the cells around the map viewport.
+ *
+ * The viewport (plus a margin) is covered with geohash cells; each cell not already
+ * held gets a snapshot listener. Loaded cells live in an access-ordered LRU, so panning
+ * back to a recently seen area never re-queries, and old areas fall out (and stop
+ * listening) to keep memory bounded. Only per-document changes are reported, keyed by
+ * tuitionId, so the map can patch itself instead of rebuilding.
+ *
+ * Zoomed out past city level, cells would each hold a whole region, so the loader shows
+ * an overview instead: the {@link #OVERVIEW_LIMIT} highest-ranked listings (see
+ * {@link DiscoverFeed}), dropped again once a zoomed-in viewport loads. Listings not yet
+ * ranked are left out of that query, so while it comes back short the overview is topped
+ * up with a page of listings in document order.
+ */
+public class ViewportTuitionLoader {
+
+    public interface OnTuitionsChangedListener {
+        /**
+         * @param upserted tuitions that appeared or whose document changed
+         * @param removedIds tuitions no longer held by any loaded cell
+         */
+        void onTuitionsChanged(List<TuitionModel> upserted, List<String> removedIds);
+
+        /** Called when the loader switches between the overview and per-area cells. */
+        default void onOverviewChanged(boolean showingOverview) {}
+    }
+
+    private static final int MAX_QUERIES_PER_VIEWPORT = 16;
+    // Every held cell is a live listener, so keep this to a couple of screens' worth
+    private static final int MAX_CACHED_CELLS = 32;
+    // Coarser than ~40km cells means we're zoomed out past city level; don't bulk-load a state
+    private static final int MIN_PRECISION = 4;
+    // Pins shown while zoomed out: enough to see where classes are, capped like a feed page
+    static final int OVERVIEW_LIMIT = 50;
+
+    private static class Cell {
+        final Map<String, TuitionModel> tuitions = new HashMap<>();
+        // Finer cells this one replaced; dropped on its first snapshot, or with it if that never comes
+        final List<Cell> superseded = new ArrayList<>();
+        ListenerRegistration registration;
+    }
+
+    // One mapped document change; a null tuition means the document left the cell
+    private static class Change {
+        final String id;
+        final TuitionModel tuition;
+
+        Change(String id, TuitionModel tuition) {
+            this.id = id;
+            this.tuition = tuition;
+        }
+    }
+
+    private final FirebaseFirestore db;
+    private final OnTuitionsChangedListener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // How many held cells contain each tuition (cells of different precision can nest)
+    private final Map<String, Integer> refCounts = new HashMap<>();
+    private final LinkedHashMap<String, Cell> cells =
+            new LinkedHashMap<String, Cell>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Cell> eldest) {
+                    if (size() <= MAX_CACHED_CELLS) return false;
+                    listener.onTuitionsChanged(new ArrayList<>(), dropCell(eldest.getValue()));
+                    return true;
+                }
+            };
+
+    private Cell overview;
+    private Cell overviewTopUp; // Unranked page, only while the ranked overview is short
+    private boolean released = false;
+
+    public ViewportTuitionLoader(FirebaseFirestore db, OnTuitionsChangedListener listener) {
+        this.db = db;
+        this.listener = listener;
+    }
+
+    /**
+     * Makes sure every cell intersecting the box is loaded. Safe to call on every
+     * (debounced) pan or zoom: already-held cells cost a map lookup, nothing more.
+     */
+    public void loadBoundingBox(double south, double west, double north, double east) {
+        if (released) return;
+        List<String> wanted = GeoHash.coverBoundingBox(south, west, north, east, MAX_QUERIES_PER_VIEWPORT);
+        if (wanted.isEmpty() || wanted.get(0).length() < MIN_PRECISION) {
+            showOverview();
+            return;
+        }
+        hideOverview();
+
+        for (String cell : wanted) {
+            if (isHeld(cell)) continue;
+            listenToCell(cell);
+        }
+    }
+
+    /** Detaches every cell listener; call when the map view goes away. */
+    public void release() {
+        released = true;
+        for (Cell cell : cells.values()) dropCell(cell);
+        cells.clear();
+        if (overview != null) dropCell(overview);
+        if (overviewTopUp != null) dropCell(overviewTopUp);
+        overview = null;
+        overviewTopUp = null;
+        refCounts.clear();
+    }
+
+    private void showOverview() {
+        if (overview != null) return;
+        overview = new Cell();
+        listen(overview, db.collection("tuitions")
+                .orderBy(DiscoverFeed.RANK_FIELD, Query.Direction.DESCENDING)
+                .limit(OVERVIEW_LIMIT));
+        listener.onOverviewChanged(true);
+    }
+
+    // Pins inside the new viewport stay: its cells hold their own references
+    private void hideOverview() {
+        if (overview == null) return;
+        List<String> removed = dropCell(overview);
+        if (overviewTopUp != null) removed.addAll(dropCell(overviewTopUp));
+        overview = null;
+        overviewTopUp = null;
+        if (!removed.isEmpty()) listener.onTuitionsChanged(new ArrayList<>(), removed);
+        listener.onOverviewChanged(false);
+    }
+
+    // Held if this cell or any coarser ancestor is cached; touching it keeps it hot in the LRU
+    private boolean isHeld(String cell) {
+        for (int len = 1; len <= cell.length(); len++) {
+            if (cells.get(cell.substring(0, len)) != null) return true;
+        }
+        return false;
+    }
+
+    private void listenToCell(String key) {
+        Cell cell = new Cell();
+
+        // A coarse cell supersedes any finer cells held inside it; its own snapshot
+        // re-adds their tuitions before the ref counts can reach zero.
+        Iterator<Map.Entry<String, Cell>> it = cells.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Cell> e = it.next();
+            if (e.getKey().length() > key.length() && e.getKey().startsWith(key)) {
+                cell.superseded.add(e.getValue());
+                it.remove();
+            }
+        }
+        cells.put(key, cell);
+
+        listen(cell, db.collection("tuitions")
+                .orderBy(GeoHash.FIELD)
+                .startAt(key)
+                .endAt(GeoHash.rangeEnd(key)));
+    }
+
+    private void listen(Cell cell, Query query) {
+        cell.registration = ListenerRegistry.track(query
+                .addSnapshotListener(SnapshotMapping.EXECUTOR, (value, error) -> {
+                    // Map documents on the mapping thread; cell bookkeeping stays on the main thread
+                    List<Change> changes = new ArrayList<>();
+                    if (error == null && value != null) {
+                        for (DocumentChange change : value.getDocumentChanges()) {
+                            Change mapped = mapChange(change);
+                            if (mapped != null) changes.add(mapped);
+                        }
+                    }
+                    mainHandler.post(() -> onCellSnapshot(cell, changes));
+                }));
+    }
+
+    private void onCellSnapshot(Cell cell, List<Change> changes) {
+        // Ignore callbacks already queued when the cell was evicted
+        if (released || cell.registration == null) return;
+
+        List<TuitionModel> upserted = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        applyChanges(cell, changes, upserted, removed);
+
+        for (Cell old : cell.superseded) removed.addAll(dropCell(old));
+        cell.superseded.clear();
+
+        if (cell == overview && overviewTopUp == null && overview.tuitions.size() < OVERVIEW_LIMIT) {
+            overviewTopUp = new Cell();
+            listen(overviewTopUp, db.collection("tuitions").limit(OVERVIEW_LIMIT));
+        }
+
+        if (!upserted.isEmpty() || !removed.isEmpty()) {
+            listener.onTuitionsChanged(upserted, removed);
+        }
+    }
+
+    private static Change mapChange(DocumentChange change) {
+        String id = change.getDocument().getId();
+        if (change.getType() == DocumentChange.Type.REMOVED) return new Change(id, null);
+        try {
+            TuitionModel t = ModelMappers.toTuition(change.getDocument());
+            return t != null ? new Change(id, t) : null;
+        } catch (RuntimeException e) {
+            return null; // Ignore malformed
+        }
+    }
+
+    private void applyChanges(Cell cell, List<Change> changes, List<TuitionModel> upserted, List<String> removed) {
+        for (Change change : changes) {
+            if (change.tuition == null) {
+                if (cell.tuitions.remove(change.id) != null && releaseRef(change.id)) removed.add(change.id);
+                continue;
+            }
+            if (cell.tuitions.put(change.id, change.tuition) == null) retainRef(change.id);
+            upserted.add(change.tuition);
+        }
+    }
+
+    // Stops listening to a cell (and any finer cells it was still replacing) and returns
+    // the ids that no other held cell still covers
+    private List<String> dropCell(Cell cell) {
+        if (cell.registration != null) cell.registration.remove();
+        cell.registration = null;
+        List<String> gone = new ArrayList<>();
+        for (Cell old : cell.superseded) gone.addAll(dropCell(old));
+        cell.superseded.clear();
+        for (String id : cell.tuitions.keySet()) {
+            if (releaseRef(id)) gone.add(id);
+        }
+        cell.tuitions.clear();
+        return gone;
+    }
+
+    private void retainRef(String id) {
+        Integer n = refCounts.get(id);
+        refCounts.put(id, n == null ? 1 : n + 1);
+    }
+
+    private boolean releaseRef(String id) {
+        Integer n = refCounts.get(id);
+        if (n == null || n <= 1) {
+            refCounts.remove(id);
+            return true;
+        }
+        refCounts.put(id, n - 1);
+        return false;
+    }
+}
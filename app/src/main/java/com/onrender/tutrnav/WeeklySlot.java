@@ -0,0 +1,109 @@
+package com.onrender.tutrnav;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One recurring class time: a set of weekdays plus start and end minutes of the day.
+ *
+ * Days are a bitmask with Monday as bit 0 and Sunday as bit 6. A class that runs past
+ * midnight has an end minute above 1440. Stored in a tuition document's
+ * {@link TuitionFields#SLOTS} list as a small map.
+ */
+public class WeeklySlot {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    public static final int ALL_DAYS = 0x7F;
+
+    private int days;
+    private int startMinute;
+    private int endMinute;
+
+    public WeeklySlot() {} // Required for Firestore
+
+    public WeeklySlot(int days, int startMinute, int endMinute) {
+        this.days = days;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+
+    public int getStartMinute() { return startMinute; }
+    public void setStartMinute(int startMinute) { this.startMinute = startMinute; }
+
+    public int getEndMinute() { return endMinute; }
+    public void setEndMinute(int endMinute) { this.endMinute = endMinute; }
+
+    /** Minutes since Monday 00:00 of the week containing time. */
+    public static int weekMinute(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /** day is 0 for Monday through 6 for Sunday. */
+    public boolean runsOn(int day) {
+        return (days & (1 << day)) != 0;
+    }
+
+    /**
+     * Minutes from weekMinute (minutes since Monday 00:00) until this slot next starts,
+     * 0 if it starts exactly then. -1 if the slot has no days.
+     */
+    public int minutesUntilStart(int weekMinute) {
+        int best = -1;
+        for (int day = 0; day < 7; day++) {
+            if (!runsOn(day)) continue;
+            int wait = Math.floorMod(day * MINUTES_PER_DAY + startMinute - weekMinute, MINUTES_PER_WEEK);
+            if (best < 0 || wait < best) best = wait;
+        }
+        return best;
+    }
+
+    /** True if an occurrence is running at weekMinute (start inclusive, end exclusive). */
+    public boolean isRunning(int weekMinute) {
+        for (int day = 0; day < 7; day++) {
+            if (!runsOn(day)) continue;
+            int since = Math.floorMod(weekMinute - (day * MINUTES_PER_DAY + startMinute), MINUTES_PER_WEEK);
+            if (since < endMinute - startMinute) return true;
+        }
+        return false;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("days", days);
+        map.put("start", startMinute);
+        map.put("end", endMinute);
+        return map;
+    }
+
+    /** Null if map isn't a slot. */
+    public static WeeklySlot fromMap(Object map) {
+        if (!(map instanceof Map)) return null;
+        Map<?, ?> m = (Map<?, ?>) map;
+        if (!(m.get("days") instanceof Number) || !(m.get("start") instanceof Number)
+                || !(m.get("end") instanceof Number)) return null;
+        return new WeeklySlot(((Number) m.get("days")).intValue(),
+                ((Number) m.get("start")).intValue(), ((Number) m.get("end")).intValue());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof WeeklySlot)) return false;
+        WeeklySlot s = (WeeklySlot) o;
+        return days == s.days && startMinute == s.startMinute && endMinute == s.endMinute;
+    }
+
+    @Override
+    public int hashCode() {
+        return (days * 31 + startMinute) * 31 + endMinute;
+    }
+
+    @Override
+    public String toString() {
+        return "WeeklySlot{days=" + Integer.toBinaryString(days) + ", " + startMinute + "-" + endMinute + '}';
+    }
+}
@@ -0,0 +1,137 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ClassTimelineTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    @Test
+    public void answersLiveUpcomingAndHistory() {
+        Map<String, TuitionModel> tuitions = new HashMap<>();
+        tuitions.put("maths", tuition("maths", "Mon-Fri 4-6pm"));
+        tuitions.put("art", tuition("art", "to be decided"));
+        List<EnrollmentModel> enrollments = Arrays.asList(enrollment("e1", "maths"), enrollment("e2", "art"));
+
+        long now = millis(LocalDateTime.of(2026, 10, 14, 17, 0)); // Wednesday
+        ClassTimeline timeline = ClassTimeline.build(enrollments, tuitions, now, ZONE);
+
+        List<ClassTimeline.Session> live = timeline.live(now);
+        assertEquals(1, live.size());
+        assertEquals(millis(LocalDateTime.of(2026, 10, 14, 16, 0)), live.get(0).startMillis);
+        assertEquals(120, live.get(0).durationMinutes());
+        assertEquals(ClassTimeline.Status.LIVE, live.get(0).statusAt(now));
+
+        List<ClassTimeline.Session> upcoming = timeline.upcoming(now, 2);
+        assertEquals(millis(LocalDateTime.of(2026, 10, 15, 16, 0)), upcoming.get(0).startMillis); // Thursday
+        assertEquals(millis(LocalDateTime.of(2026, 10, 16, 16, 0)), upcoming.get(1).startMillis); // Friday
+
+        // Tue, Mon, then last Fri, Thu, Wed: the weekend had no class
+        List<ClassTimeline.Session> history = timeline.pastWeek(now);
+        assertEquals(5, history.size());
+        assertEquals(millis(LocalDateTime.of(2026, 10, 13, 16, 0)), history.get(0).startMillis);
+        assertEquals(millis(LocalDateTime.of(2026, 10, 7, 16, 0)), history.get(4).startMillis);
+        for (ClassTimeline.Session s : history) assertEquals(ClassTimeline.Status.DONE, s.statusAt(now));
+
+        List<ClassTimeline.Session> all = timeline.nextPerClass(now);
+        assertEquals(2, all.size());
+        assertSame(live.get(0), all.get(0));
+        assertFalse(all.get(1).isScheduled());
+        assertEquals(ClassTimeline.Status.UNSCHEDULED, all.get(1).statusAt(now));
+    }
+
+    @Test
+    public void classPastMidnightIsLiveAfterTheDateChanges() {
+        Map<String, TuitionModel> tuitions = new HashMap<>();
+        tuitions.put("night", tuition("night", "Sat 11 pm - 1 am"));
+        long now = millis(LocalDateTime.of(2026, 10, 18, 0, 30)); // Sunday
+        ClassTimeline timeline = ClassTimeline.build(
+                Collections.singletonList(enrollment("e1", "night")), tuitions, now, ZONE);
+
+        List<ClassTimeline.Session> live = timeline.live(now);
+        assertEquals(1, live.size());
+        assertEquals(millis(LocalDateTime.of(2026, 10, 17, 23, 0)), live.get(0).startMillis);
+        assertEquals(millis(LocalDateTime.of(2026, 10, 18, 1, 0)), live.get(0).endMillis);
+    }
+
+    @Test
+    public void coversOnlyTheDayItWasBuiltFor() {
+        long now = millis(LocalDateTime.of(2026, 10, 14, 23, 59));
+        ClassTimeline timeline = ClassTimeline.build(Collections.emptyList(), new HashMap<>(), now, ZONE);
+        assertTrue(timeline.covers(now));
+        assertFalse(timeline.covers(millis(LocalDateTime.of(2026, 10, 15, 0, 0))));
+    }
+
+    @Test
+    public void matchesScanOfEverySession() {
+        Random rnd = new Random(25);
+        Map<String, TuitionModel> tuitions = new HashMap<>();
+        List<EnrollmentModel> enrollments = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            List<WeeklySlot> slots = new ArrayList<>();
+            for (int k = rnd.nextInt(3); k >= 0; k--) {
+                int start = rnd.nextInt(WeeklySlot.MINUTES_PER_DAY);
+                slots.add(new WeeklySlot(1 + rnd.nextInt(WeeklySlot.ALL_DAYS), start, start + 15 + rnd.nextInt(300)));
+            }
+            TuitionModel t = tuition("t" + i, null);
+            t.setSlots(slots);
+            tuitions.put(t.getTuitionId(), t);
+            enrollments.add(enrollment("e" + i, t.getTuitionId()));
+        }
+
+        long base = millis(LocalDateTime.of(2026, 10, 14, 0, 0));
+        ClassTimeline timeline = ClassTimeline.build(enrollments, tuitions, base, ZONE);
+        List<ClassTimeline.Session> every = timeline.upcoming(Long.MIN_VALUE, Integer.MAX_VALUE);
+        assertEquals(timeline.size(), every.size());
+
+        for (int round = 0; round < 300; round++) {
+            long now = base + (long) rnd.nextInt(24 * 60) * ClassTimeline.MINUTE_MS;
+
+            List<ClassTimeline.Session> live = new ArrayList<>();
+            List<ClassTimeline.Session> upcoming = new ArrayList<>();
+            List<ClassTimeline.Session> history = new ArrayList<>();
+            for (ClassTimeline.Session s : every) {
+                if (s.startMillis <= now && now < s.endMillis) live.add(s);
+                if (s.startMillis > now && upcoming.size() < 10) upcoming.add(s);
+                if (s.endMillis <= now && s.endMillis > now - ClassTimeline.WEEK_MS) history.add(s);
+            }
+            Collections.reverse(history);
+
+            assertEquals(live, timeline.live(now));
+            assertEquals(upcoming, timeline.upcoming(now, 10));
+            assertEquals(history, timeline.pastWeek(now));
+            assertEquals(enrollments.size(), timeline.nextPerClass(now).size());
+        }
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static TuitionModel tuition(String id, String time) {
+        TuitionModel t = new TuitionModel();
+        t.setTuitionId(id);
+        t.setTime(time);
+        return t;
+    }
+
+    private static EnrollmentModel enrollment(String id, String tuitionId) {
+        EnrollmentModel e = new EnrollmentModel();
+        e.setEnrollmentId(id);
+        e.setTuitionId(tuitionId);
+        e.setStatus("approved");
+        return e;
+    }
+}
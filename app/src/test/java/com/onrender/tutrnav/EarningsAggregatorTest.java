@@ -0,0 +1,118 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class EarningsAggregatorTest {
+
+    @Test
+    public void approvalAndFeeChangesAdjustTotals() {
+        EarningsAggregator agg = new EarningsAggregator();
+        agg.reset(Arrays.asList(tuition("maths", "1000"), tuition("physics", "1500.25")),
+                Arrays.asList(enrollment("a", "maths", "approved"), enrollment("b", "physics", "pending")));
+        assertEquals(1, agg.totalActive());
+        assertEquals(100000, agg.totalMinor());
+
+        TeacherViewModel.Delta<EnrollmentModel> approve = new TeacherViewModel.Delta<>();
+        approve.modifiedBefore.add(enrollment("b", "physics", "pending"));
+        approve.modified.add(enrollment("b", "physics", "approved"));
+        agg.applyEnrollments(approve);
+        assertEquals(2, agg.totalActive());
+        assertEquals(250025, agg.totalMinor());
+
+        TeacherViewModel.Delta<TuitionModel> raise = new TeacherViewModel.Delta<>();
+        raise.modifiedBefore.add(tuition("maths", "1000"));
+        raise.modified.add(tuition("maths", "1200"));
+        agg.applyTuitions(raise);
+        assertEquals(270025, agg.totalMinor());
+        assertEquals(120000, agg.earningsMinor("maths"));
+
+        TeacherViewModel.Delta<TuitionModel> delete = new TeacherViewModel.Delta<>();
+        delete.removed.add(tuition("physics", "1500.25"));
+        agg.applyTuitions(delete);
+        assertEquals(2, agg.totalActive()); // Still enrolled, just no longer earning
+        assertEquals(120000, agg.totalMinor());
+    }
+
+    @Test
+    public void matchesRecountUnderRandomDeltas() {
+        Random rnd = new Random(17);
+        String[] classes = { "c0", "c1", "c2", "c3" };
+        String[] statuses = { "pending", "approved", "rejected" };
+        Map<String, TuitionModel> tuitions = new LinkedHashMap<>();
+        Map<String, EnrollmentModel> enrollments = new LinkedHashMap<>();
+        EarningsAggregator agg = new EarningsAggregator();
+
+        for (int round = 0; round < 500; round++) {
+            if (rnd.nextBoolean()) {
+                String id = classes[rnd.nextInt(classes.length)];
+                TeacherViewModel.Delta<TuitionModel> delta = new TeacherViewModel.Delta<>();
+                TuitionModel old = tuitions.get(id);
+                if (old != null && rnd.nextInt(5) == 0) {
+                    tuitions.remove(id);
+                    delta.removed.add(old);
+                } else {
+                    TuitionModel t = tuition(id, (100 + rnd.nextInt(900)) + "." + rnd.nextInt(100));
+                    tuitions.put(id, t);
+                    if (old == null) delta.added.add(t);
+                    else {
+                        delta.modified.add(t);
+                        delta.modifiedBefore.add(old);
+                    }
+                }
+                agg.applyTuitions(delta);
+            } else {
+                TeacherViewModel.Delta<EnrollmentModel> delta = new TeacherViewModel.Delta<>();
+                Set<String> touched = new HashSet<>();
+                for (int k = rnd.nextInt(4); k >= 0; k--) {
+                    String id = "e" + rnd.nextInt(30);
+                    if (!touched.add(id)) continue;
+                    EnrollmentModel old = enrollments.get(id);
+                    if (old != null && rnd.nextInt(4) == 0) {
+                        enrollments.remove(id);
+                        delta.removed.add(old);
+                        continue;
+                    }
+                    EnrollmentModel e = enrollment(id, classes[rnd.nextInt(classes.length)],
+                            statuses[rnd.nextInt(statuses.length)]);
+                    enrollments.put(id, e);
+                    if (old == null) delta.added.add(e);
+                    else {
+                        delta.modified.add(e);
+                        delta.modifiedBefore.add(old);
+                    }
+                }
+                agg.applyEnrollments(delta);
+            }
+
+            EarningsAggregator recount = new EarningsAggregator();
+            recount.reset(tuitions.values(), enrollments.values());
+            assertEquals(recount.totalActive(), agg.totalActive());
+            assertEquals(recount.totalMinor(), agg.totalMinor());
+            for (String c : classes) assertEquals(recount.earningsMinor(c), agg.earningsMinor(c));
+        }
+    }
+
+    private static TuitionModel tuition(String id, String fee) {
+        TuitionModel t = new TuitionModel();
+        t.setTuitionId(id);
+        t.setFee(fee);
+        return t;
+    }
+
+    private static EnrollmentModel enrollment(String id, String tuitionId, String status) {
+        EnrollmentModel e = new EnrollmentModel();
+        e.setEnrollmentId(id);
+        e.setTuitionId(tuitionId);
+        e.setStatus(status);
+        return e;
+    }
+}
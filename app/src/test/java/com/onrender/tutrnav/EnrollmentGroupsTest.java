@@ -0,0 +1,119 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class EnrollmentGroupsTest {
+
+    private static final String[] CLASSES = { "maths", "physics", "chemistry" };
+    private static final String[] STATUSES = { "pending", "approved", "rejected" };
+
+    @Test
+    public void groupsByClassAndStatus() {
+        EnrollmentGroups groups = new EnrollmentGroups();
+        groups.reset(Arrays.asList(
+                enrollment("a", "maths", "approved"),
+                enrollment("b", "maths", "pending"),
+                enrollment("c", "physics", "approved")));
+
+        assertEquals(2, groups.count("approved"));
+        assertEquals(1, groups.count("maths", "approved"));
+        assertEquals(0, groups.count("chemistry", "approved"));
+        assertEquals(ids("b"), ids(groups.withStatus("pending")));
+    }
+
+    @Test
+    public void statusChangeMovesGroupAndEditKeepsPlace() {
+        EnrollmentGroups groups = new EnrollmentGroups();
+        groups.reset(Arrays.asList(
+                enrollment("a", "maths", "approved"),
+                enrollment("b", "maths", "approved"),
+                enrollment("c", "maths", "pending")));
+
+        TeacherViewModel.Delta<EnrollmentModel> delta = new TeacherViewModel.Delta<>();
+        delta.modified.add(enrollment("a", "maths", "approved")); // e.g. a new photo
+        delta.modified.add(enrollment("c", "maths", "approved"));
+        groups.apply(delta);
+
+        assertEquals(ids("a", "b", "c"), ids(groups.students("maths", "approved")));
+        assertEquals(0, groups.count("pending"));
+    }
+
+    @Test
+    public void matchesRebuildUnderRandomDeltas() {
+        Random rnd = new Random(9);
+        EnrollmentGroups groups = new EnrollmentGroups();
+        Map<String, EnrollmentModel> live = new LinkedHashMap<>();
+
+        for (int round = 0; round < 300; round++) {
+            TeacherViewModel.Delta<EnrollmentModel> delta = new TeacherViewModel.Delta<>();
+            Set<String> touched = new HashSet<>(); // A snapshot reports each document once
+            for (int k = rnd.nextInt(5); k >= 0; k--) {
+                String id = "e" + rnd.nextInt(40);
+                if (!touched.add(id)) continue;
+                EnrollmentModel old = live.get(id);
+                if (old != null && rnd.nextInt(4) == 0) {
+                    live.remove(id);
+                    delta.removed.add(old);
+                } else if (old == null) {
+                    EnrollmentModel e = random(id, rnd);
+                    live.put(id, e);
+                    delta.added.add(e);
+                } else {
+                    EnrollmentModel e = random(id, rnd);
+                    live.put(id, e);
+                    delta.modified.add(e);
+                    delta.modifiedBefore.add(old);
+                }
+            }
+            groups.apply(delta);
+
+            EnrollmentGroups rebuilt = new EnrollmentGroups();
+            rebuilt.reset(live.values());
+            for (String status : STATUSES) {
+                assertEquals(rebuilt.count(status), groups.count(status));
+                for (String c : CLASSES) {
+                    assertEquals(sorted(ids(rebuilt.students(c, status))), sorted(ids(groups.students(c, status))));
+                }
+            }
+        }
+    }
+
+    private static EnrollmentModel random(String id, Random rnd) {
+        return enrollment(id, CLASSES[rnd.nextInt(CLASSES.length)], STATUSES[rnd.nextInt(STATUSES.length)]);
+    }
+
+    private static EnrollmentModel enrollment(String id, String tuitionId, String status) {
+        EnrollmentModel e = new EnrollmentModel();
+        e.setEnrollmentId(id);
+        e.setTuitionId(tuitionId);
+        e.setStatus(status);
+        return e;
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> ids(List<EnrollmentModel> enrollments) {
+        List<String> out = new ArrayList<>();
+        for (EnrollmentModel e : enrollments) out.add(e.getEnrollmentId());
+        return out;
+    }
+
+    private static List<String> sorted(List<String> list) {
+        List<String> copy = new ArrayList<>(list);
+        copy.sort(null);
+        return copy;
+    }
+}
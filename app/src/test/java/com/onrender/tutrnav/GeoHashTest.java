@@ -0,0 +1,42 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GeoHashTest {
+
+    @Test
+    public void encode_knownVectors() {
+        assertEquals("ezs42", GeoHash.encode(42.6, -5.6, 5));
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+    }
+
+    @Test
+    public void cover_containsEveryPointInBox() {
+        double south = 22.50, west = 88.30, north = 22.62, east = 88.42;
+        List<String> cells = GeoHash.coverBoundingBox(south, west, north, east, 9);
+
+        assertTrue(cells.size() <= 9);
+        for (double lat = south; lat <= north; lat += 0.01) {
+            for (double lng = west; lng <= east; lng += 0.01) {
+                String hash = GeoHash.encode(lat, lng);
+                boolean covered = false;
+                for (String cell : cells) {
+                    if (hash.startsWith(cell)) { covered = true; break; }
+                }
+                assertTrue("uncovered " + lat + "," + lng, covered);
+            }
+        }
+    }
+
+    @Test
+    public void rangeEnd_sortsAfterEveryChildHash() {
+        String prefix = "tun";
+        String child = GeoHash.encode(22.57, 88.36);
+        assertTrue(child.startsWith(prefix));
+        assertTrue(child.compareTo(GeoHash.rangeEnd(prefix)) < 0);
+    }
+}
@@ -0,0 +1,62 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class KWayMergeTest {
+
+    @Test
+    public void mergesDescendingChunksLikeASingleQuery() {
+        Random rnd = new Random(3);
+        List<List<Integer>> chunks = new ArrayList<>();
+        List<Integer> all = new ArrayList<>();
+        for (int c = 0; c < 7; c++) {
+            List<Integer> chunk = new ArrayList<>();
+            for (int i = rnd.nextInt(40); i > 0; i--) chunk.add(rnd.nextInt(1000));
+            chunk.sort(Comparator.reverseOrder());
+            chunks.add(chunk);
+            all.addAll(chunk);
+        }
+        all.sort(Comparator.reverseOrder());
+
+        assertEquals(all, KWayMerge.merge(chunks, Comparator.reverseOrder()));
+    }
+
+    @Test
+    public void skipsNullsAndEmptyLists() {
+        List<List<Integer>> chunks = Arrays.asList(
+                Arrays.asList(null, 1, 4, null),
+                Collections.<Integer>emptyList(),
+                Arrays.asList(2, null, 3));
+        assertEquals(Arrays.asList(1, 2, 3, 4), KWayMerge.merge(chunks, Comparator.naturalOrder()));
+        assertTrue(KWayMerge.merge(new ArrayList<List<Integer>>(), Comparator.<Integer>naturalOrder()).isEmpty());
+    }
+
+    @Test
+    public void tiesKeepChunkOrder() {
+        List<List<String>> chunks = Arrays.asList(Arrays.asList("a1"), Arrays.asList("a2"), Arrays.asList("a3"));
+        Comparator<String> byLetter = Comparator.comparing(s -> s.charAt(0));
+        assertEquals(Arrays.asList("a1", "a2", "a3"), KWayMerge.merge(chunks, byLetter));
+    }
+
+    @Test
+    public void chunksRespectLimit() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 23; i++) ids.add("t" + i);
+
+        List<List<String>> chunks = KWayMerge.chunk(ids, 10);
+        assertEquals(3, chunks.size());
+        assertEquals(10, chunks.get(0).size());
+        assertEquals(3, chunks.get(2).size());
+        assertEquals("t20", chunks.get(2).get(0));
+        assertTrue(KWayMerge.chunk(new ArrayList<String>(), 10).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NearestKSelectorTest {
+
+    private static final double HOME_LAT = 22.57, HOME_LNG = 88.36;
+
+    private static TuitionModel at(String id, double lat, double lng) {
+        TuitionModel t = new TuitionModel();
+        t.setTuitionId(id);
+        t.setLatitude(lat);
+        t.setLongitude(lng);
+        return t;
+    }
+
+    private static List<TuitionModel> randomCity(long seed, int n) {
+        Random rnd = new Random(seed);
+        List<TuitionModel> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(at("t" + i, HOME_LAT + (rnd.nextDouble() - 0.5) * 0.4, HOME_LNG + (rnd.nextDouble() - 0.5) * 0.4));
+        }
+        return list;
+    }
+
+    // The path the map used before: comparator-driven sort, then take the head
+    private static List<TuitionModel> sortAndTake(List<TuitionModel> all, double lat, double lng, int k) {
+        List<TuitionModel> sorted = new ArrayList<>(all);
+        Collections.sort(sorted, (a, b) -> Double.compare(
+                GeoMath.distanceMeters(lat, lng, a.getLatitude(), a.getLongitude()),
+                GeoMath.distanceMeters(lat, lng, b.getLatitude(), b.getLongitude())));
+        return new ArrayList<>(sorted.subList(0, Math.min(k, sorted.size())));
+    }
+
+    // Every distance offered once, then drained nearest first
+    private static List<TuitionModel> heapTake(List<TuitionModel> all, double lat, double lng, int k) {
+        NearestKSelector selector = new NearestKSelector(Math.min(k, all.size()));
+        for (int i = 0; i < all.size(); i++) {
+            TuitionModel t = all.get(i);
+            selector.offer(i, GeoMath.distanceMeters(lat, lng, t.getLatitude(), t.getLongitude()));
+        }
+        List<TuitionModel> out = new ArrayList<>();
+        for (int i : selector.drainAscending()) out.add(all.get(i));
+        return out;
+    }
+
+    @Test
+    public void matchesFullSort() {
+        List<TuitionModel> all = randomCity(7, 2000);
+        for (int k : new int[] { 1, 5, 30, 2000, 5000 }) {
+            assertEquals("k=" + k, sortAndTake(all, HOME_LAT, HOME_LNG, k),
+                    heapTake(all, HOME_LAT, HOME_LNG, k));
+        }
+    }
+
+    @Test
+    public void emptyCapacityOrInputKeepsNothing() {
+        NearestKSelector none = new NearestKSelector(0);
+        none.offer(0, 1.0);
+        assertTrue(none.isFull());
+        assertEquals(0, none.drainAscending().length);
+
+        assertTrue(heapTake(new ArrayList<>(), HOME_LAT, HOME_LNG, 5).isEmpty());
+    }
+
+    @Test
+    public void drainIsAscendingAndResets() {
+        NearestKSelector selector = new NearestKSelector(3);
+        double[] d = { 9, 2, 7, 1, 8, 3 };
+        for (int i = 0; i < d.length; i++) selector.offer(i, d[i]);
+        assertTrue(selector.isFull());
+        assertEquals(3.0, selector.worst(), 0);
+
+        int[] order = selector.drainAscending();
+        assertArrayEquals(new int[] { 3, 1, 5 }, order);
+        assertFalse(selector.isFull());
+    }
+}
@@ -0,0 +1,90 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StudentSearchIndexTest {
+
+    @Test
+    public void normalisesAccentsCaseAndPunctuation() {
+        assertEquals("zoe", StudentSearchIndex.normalize("Zoë"));
+        assertEquals("jose garcia", StudentSearchIndex.normalize("  José  García "));
+        assertEquals("strasse", StudentSearchIndex.normalize("STRAẞE"));
+        assertEquals("soren lokke", StudentSearchIndex.normalize("Søren Løkke"));
+        assertEquals("o brien", StudentSearchIndex.normalize("O'Brien"));
+        assertEquals("", StudentSearchIndex.normalize(null));
+    }
+
+    @Test
+    public void matchesAcrossTransliteration() {
+        StudentSearchIndex index = new StudentSearchIndex(roster("Zoë Müller", "Zoe Mueller", "Łukasz Đorđević", "Ana"));
+        assertEquals(names("Zoë Müller", "Zoe Mueller"), names(index.search("ZOE")));
+        assertEquals(names("Zoë Müller"), names(index.search("müll")));
+        assertEquals(names("Łukasz Đorđević"), names(index.search("lukasz dor")));
+        assertEquals(4, index.search("  ").size());
+    }
+
+    @Test
+    public void agreesWithLinearScanAsQueryGrowsAndShrinks() {
+        Random rnd = new Random(11);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) names.add(randomName(rnd));
+        StudentSearchIndex index = new StudentSearchIndex(roster(names.toArray(new String[0])));
+
+        for (int round = 0; round < 50; round++) {
+            String word = randomName(rnd).toLowerCase(Locale.ROOT);
+            // Typed one character at a time, then deleted again
+            for (int len = 1; len <= word.length(); len++) check(index, names, word.substring(0, len));
+            for (int len = word.length() - 1; len >= 1; len--) check(index, names, word.substring(0, len));
+        }
+    }
+
+    @Test
+    public void missingTrigramMatchesNothing() {
+        StudentSearchIndex index = new StudentSearchIndex(roster("Alice", "Bob"));
+        assertTrue(index.search("xyz").isEmpty());
+        assertTrue(index.search("xyzw").isEmpty());
+        assertEquals(names("Alice"), names(index.search("lic")));
+    }
+
+    private static void check(StudentSearchIndex index, List<String> names, String query) {
+        List<String> expected = new ArrayList<>();
+        for (String n : names) if (n.toLowerCase(Locale.ROOT).contains(query)) expected.add(n);
+        assertEquals(query, expected, names(index.search(query)));
+    }
+
+    private static String randomName(Random rnd) {
+        String[] syllables = { "an", "bel", "car", "do", "el", "fi", "ga", "ha", "is", "jo", "ka", "li", "mo", "ra" };
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1 + rnd.nextInt(3); i >= 0; i--) sb.append(syllables[rnd.nextInt(syllables.length)]);
+        sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        return sb.toString();
+    }
+
+    private static List<EnrollmentModel> roster(String... names) {
+        List<EnrollmentModel> list = new ArrayList<>();
+        for (String n : names) {
+            EnrollmentModel e = new EnrollmentModel();
+            e.setStudentName(n);
+            list.add(e);
+        }
+        return list;
+    }
+
+    private static List<String> names(String... names) {
+        return Arrays.asList(names);
+    }
+
+    private static List<String> names(List<EnrollmentModel> students) {
+        List<String> out = new ArrayList<>();
+        for (EnrollmentModel e : students) out.add(e.getStudentName());
+        return out;
+    }
+}
@@ -0,0 +1,81 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TuitionClustererTest {
+
+    private static final int RADIUS_PX = 40;
+
+    private static TuitionModel at(String id, double lat, double lng) {
+        TuitionModel t = new TuitionModel();
+        t.setTuitionId(id);
+        t.setLatitude(lat);
+        t.setLongitude(lng);
+        return t;
+    }
+
+    private static List<TuitionClusterer.Cluster> cluster(List<TuitionModel> indexed, List<TuitionModel> seeds, int zoom) {
+        return new TuitionClusterer(RADIUS_PX).cluster(new TuitionSpatialIndex(indexed), seeds, zoom);
+    }
+
+    @Test
+    public void metersPerPixelMatchesWebMercator() {
+        // 156543.03392 m/px at zoom 0 on the equator, halving per zoom level and scaling with cos(lat)
+        assertEquals(156543.03392, TuitionClusterer.metersPerPixel(0, 0), 1e-6);
+        assertEquals(156543.03392 / 1024, TuitionClusterer.metersPerPixel(0, 10), 1e-6);
+        assertEquals(156543.03392 / 2 / 65536, TuitionClusterer.metersPerPixel(60, 16), 1e-6);
+    }
+
+    @Test
+    public void nearbyPointsMergeWhenZoomedOutAndSplitWhenZoomedIn() {
+        // About 110 m apart: well inside 40 px at zoom 12 (~1.4 km), well outside at zoom 18 (~22 m)
+        List<TuitionModel> both = Arrays.asList(at("a", 22.5700, 88.36), at("b", 22.5710, 88.36));
+
+        List<TuitionClusterer.Cluster> far = cluster(both, both, 12);
+        assertEquals(1, far.size());
+        assertEquals(2, far.get(0).size());
+        assertEquals(22.5705, far.get(0).getLatitude(), 1e-9);
+
+        List<TuitionClusterer.Cluster> near = cluster(both, both, 18);
+        assertEquals(2, near.size());
+        assertTrue(near.get(0).isSingle());
+        assertTrue(near.get(1).isSingle());
+    }
+
+    @Test
+    public void duplicateIdIsClusteredOnce() {
+        // A cached copy and a fresh copy of the same listing, plus the same copy listed twice
+        TuitionModel cached = at("a", 22.57, 88.36);
+        TuitionModel fresh = at("a", 22.57, 88.36);
+        List<TuitionModel> all = Arrays.asList(cached, fresh, fresh);
+
+        for (int zoom : new int[] { 12, 18 }) {
+            List<TuitionClusterer.Cluster> clusters = cluster(all, all, zoom);
+            assertEquals("zoom " + zoom, 1, clusters.size());
+            assertTrue("zoom " + zoom, clusters.get(0).isSingle());
+        }
+    }
+
+    @Test
+    public void seedMissingFromIndexStillGetsItsOwnCluster() {
+        TuitionModel indexed = at("a", 22.57, 88.36);
+        TuitionModel missing = at("b", 23.50, 87.00); // Far from anything the index holds
+
+        List<TuitionClusterer.Cluster> clusters = cluster(Arrays.asList(indexed), Arrays.asList(indexed, missing), 14);
+        assertEquals(2, clusters.size());
+        TuitionClusterer.Cluster own = clusters.get(1);
+        assertTrue(own.isSingle());
+        assertSame(missing, own.getMembers().get(0));
+        assertEquals(23.50, own.getLatitude(), 0);
+        assertEquals(87.00, own.getLongitude(), 0);
+
+        // Unlocated seeds are skipped rather than clustered at 0,0
+        assertTrue(cluster(new ArrayList<>(), Arrays.asList(at("c", 0, 0)), 14).isEmpty());
+    }
+}
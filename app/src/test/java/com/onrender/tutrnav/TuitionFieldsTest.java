@@ -0,0 +1,89 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TuitionFieldsTest {
+
+    private static final int MON = 1, TUE = 1 << 1, WED = 1 << 2, FRI = 1 << 4, SAT = 1 << 5, SUN = 1 << 6;
+    private static final int ALL = WeeklySlot.ALL_DAYS;
+
+    @Test
+    public void parsesFeesIntoMinorUnits() {
+        assertEquals(150000, TuitionFields.parseFeeMinor("1500"));
+        assertEquals(150000, TuitionFields.parseFeeMinor("₹1,500/month"));
+        assertEquals(150050, TuitionFields.parseFeeMinor("1500.5"));
+        assertEquals(150099, TuitionFields.parseFeeMinor("Rs. 1500.999"));
+        assertEquals(80000, TuitionFields.parseFeeMinor("800 - 1200"));
+        assertEquals(0, TuitionFields.parseFeeMinor("Free"));
+        assertEquals(0, TuitionFields.parseFeeMinor(null));
+    }
+
+    @Test
+    public void parsesTheFormTimeHint() {
+        assertEquals(slots(new WeeklySlot(ALL, 16 * 60, 18 * 60)), TuitionFields.parseSlots("04:00 PM - 06:00 PM"));
+    }
+
+    @Test
+    public void borrowsMeridiemAcrossTheRange() {
+        assertEquals(slots(new WeeklySlot(ALL, 16 * 60, 18 * 60)), TuitionFields.parseSlots("4-6pm"));
+        assertEquals(slots(new WeeklySlot(ALL, 11 * 60, 13 * 60)), TuitionFields.parseSlots("11 - 1 p.m."));
+        assertEquals(slots(new WeeklySlot(ALL, 10 * 60, 13 * 60)), TuitionFields.parseSlots("10 am to 1"));
+        assertEquals(slots(new WeeklySlot(ALL, 17 * 60, 18 * 60 + 30)), TuitionFields.parseSlots("17:00-18:30"));
+    }
+
+    @Test
+    public void parsesDaysAndSeveralSlots() {
+        assertEquals(slots(new WeeklySlot(MON | TUE | WED | 1 << 3 | FRI, 16 * 60, 18 * 60)),
+                TuitionFields.parseSlots("Mon-Fri 4:00 PM - 6:00 PM"));
+        assertEquals(slots(new WeeklySlot(SAT | SUN, 10 * 60 + 30, 12 * 60), new WeeklySlot(WED, 17 * 60, 18 * 60 + 30)),
+                TuitionFields.parseSlots("Sat, Sun 10:30 am to 12 pm; Wednesday 17:00-18:30"));
+        assertEquals(slots(new WeeklySlot(SAT | SUN, 9 * 60, 11 * 60)), TuitionFields.parseSlots("Weekends 9-11 AM"));
+        assertEquals(slots(new WeeklySlot(FRI | SAT | SUN | MON, 18 * 60, 20 * 60)),
+                TuitionFields.parseSlots("Fri to Mon 6-8 pm"));
+    }
+
+    @Test
+    public void handlesMidnightAndRejectsNonsense() {
+        assertEquals(slots(new WeeklySlot(ALL, 22 * 60, 25 * 60)), TuitionFields.parseSlots("10 pm - 1 am"));
+        assertTrue(TuitionFields.parseSlots("TBD").isEmpty());
+        assertTrue(TuitionFields.parseSlots("13 pm - 14 pm").isEmpty());
+        assertTrue(TuitionFields.parseSlots(null).isEmpty());
+    }
+
+    @Test
+    public void typedFieldsRoundTrip() {
+        Map<String, Object> data = new HashMap<>();
+        TuitionFields.putTypedFields(data, "1200", "Mon 4-6 pm");
+        TuitionModel t = ModelMappers.tuitionFromMap("id", data);
+        assertEquals(120000, TuitionFields.feeMinorOf(t));
+        assertEquals(slots(new WeeklySlot(MON, 16 * 60, 18 * 60)), TuitionFields.slotsOf(t));
+
+        String encoded = TuitionFields.encodeSlots(t.getSlots());
+        assertEquals(t.getSlots(), TuitionFields.decodeSlots(encoded));
+        assertNull(TuitionFields.decodeSlots(null));
+    }
+
+    @Test
+    public void slotTimingAcrossTheWeek() {
+        WeeklySlot monWed = new WeeklySlot(MON | WED, 16 * 60, 18 * 60);
+        int monday17 = 17 * 60;
+        assertTrue(monWed.isRunning(monday17));
+        assertFalse(monWed.isRunning(18 * 60)); // End is exclusive
+        assertEquals(2 * WeeklySlot.MINUTES_PER_DAY - 60, monWed.minutesUntilStart(monday17));
+
+        WeeklySlot sundayLate = new WeeklySlot(SUN, 23 * 60, 25 * 60);
+        assertTrue(sundayLate.isRunning(30)); // Monday 00:30 is still Sunday's class
+    }
+
+    private static List<WeeklySlot> slots(WeeklySlot... slots) {
+        return slots.length == 0 ? Collections.emptyList() : Arrays.asList(slots);
+    }
+}
@@ -0,0 +1,96 @@
+package com.onrender.tutrnav;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TuitionSpatialIndexTest {
+
+    private static TuitionModel at(String id, double lat, double lng) {
+        TuitionModel t = new TuitionModel();
+        t.setTuitionId(id);
+        t.setLatitude(lat);
+        t.setLongitude(lng);
+        return t;
+    }
+
+    private static List<TuitionModel> randomCity(long seed, int n) {
+        // Scatter around Kolkata, roughly 40km across
+        Random rnd = new Random(seed);
+        List<TuitionModel> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(at("t" + i, 22.57 + (rnd.nextDouble() - 0.5) * 0.4, 88.36 + (rnd.nextDouble() - 0.5) * 0.4));
+        }
+        return list;
+    }
+
+    private static List<TuitionModel> bruteNearest(List<TuitionModel> all, double lat, double lng) {
+        List<TuitionModel> sorted = new ArrayList<>(all);
+        Collections.sort(sorted, (a, b) -> Double.compare(
+                GeoMath.distanceMeters(lat, lng, a.getLatitude(), a.getLongitude()),
+                GeoMath.distanceMeters(lat, lng, b.getLatitude(), b.getLongitude())));
+        return sorted;
+    }
+
+    @Test
+    public void nearest_matchesBruteForce() {
+        List<TuitionModel> all = randomCity(42, 2000);
+        TuitionSpatialIndex index = new TuitionSpatialIndex(all);
+        Random rnd = new Random(7);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 22.57 + (rnd.nextDouble() - 0.5) * 0.5;
+            double lng = 88.36 + (rnd.nextDouble() - 0.5) * 0.5;
+            List<TuitionModel> expected = bruteNearest(all, lat, lng).subList(0, 31);
+            assertEquals(expected, index.nearest(lat, lng, 31));
+        }
+    }
+
+    @Test
+    public void withinRadius_matchesBruteForce() {
+        List<TuitionModel> all = randomCity(3, 1500);
+        TuitionSpatialIndex index = new TuitionSpatialIndex(all);
+
+        double lat = 22.57, lng = 88.36, radius = 3000;
+        List<TuitionModel> expected = new ArrayList<>();
+        for (TuitionModel t : bruteNearest(all, lat, lng)) {
+            if (GeoMath.distanceMeters(lat, lng, t.getLatitude(), t.getLongitude()) <= radius) expected.add(t);
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, index.withinRadius(lat, lng, radius));
+    }
+
+    @Test
+    public void skipsTuitionsWithoutLocation() {
+        List<TuitionModel> all = new ArrayList<>();
+        all.add(at("unset", 0.0, 0.0));
+        all.add(at("a", 22.5, 88.3));
+        TuitionSpatialIndex index = new TuitionSpatialIndex(all);
+
+        assertEquals(1, index.size());
+        assertEquals("a", index.nearest(0.0, 0.0, 5).get(0).getTuitionId());
+    }
+
+    @Test
+    public void nearest_handlesAntimeridian() {
+        List<TuitionModel> all = new ArrayList<>();
+        all.add(at("east", 10.0, 179.9));
+        all.add(at("far", 10.0, 170.0));
+        TuitionSpatialIndex index = new TuitionSpatialIndex(all);
+
+        assertEquals("east", index.nearest(10.0, -179.9, 1).get(0).getTuitionId());
+    }
+
+    @Test
+    public void emptyIndex_returnsEmpty() {
+        TuitionSpatialIndex index = new TuitionSpatialIndex(new ArrayList<>());
+        assertTrue(index.isEmpty());
+        assertTrue(index.nearest(22.5, 88.3, 10).isEmpty());
+        assertTrue(index.withinRadius(22.5, 88.3, 1000).isEmpty());
+    }
+}